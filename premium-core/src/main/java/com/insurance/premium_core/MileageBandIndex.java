@@ -0,0 +1,206 @@
+package com.insurance.premium_core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval index over the yearly mileage bands.
+ *     
+ * The bands of the 'yearly_mileage' table are stored as sorted primitive
+ * {@code int} bounds and searched with a binary search, so a lookup neither
+ * boxes the mileage nor allocates any object. Each band is identified by its
+ * ordinal, which is its position in ascending mileage order.
+ * 
+ *     The bands are validated when the index is built. Overlapping bands are
+ * rejected, because the range query would match several rows for a mileage in
+ * the overlap. Gaps between bands are allowed but reported via {@link #getGaps()},
+ * a mileage inside a gap is not covered by any band.
+ * 
+ * @author Aylin Yilmaz
+ */
+public final class MileageBandIndex {
+
+    /**
+     * Index containing no bands at all.
+     */
+    public static final MileageBandIndex EMPTY = new MileageBandIndex(new int[0], new int[0], new double[0], List.of());
+
+    /**
+     * Band ordinal returned when no band contains a mileage.
+     */
+    public static final int NO_BAND = -1;
+
+    private final int[] from;
+    private final int[] to;
+    private final double[] factors;
+    private final List<String> gaps;
+
+    private MileageBandIndex(int[] from, int[] to, double[] factors, List<String> gaps) {
+        this.from = from;
+        this.to = to;
+        this.factors = factors;
+        this.gaps = gaps;
+    }
+
+    /**
+     * Builds a new index from the given bands.
+     *     
+     * Decimal bounds are narrowed to the whole mileages they contain, i.e. the
+     * lower bound is rounded up and the upper bound is rounded down. Bands that
+     * contain no whole mileage are ignored.
+     * 
+     * @param bands the mileage bands in any order
+     * @return the built index
+     * @throws IllegalStateException if two bands overlap
+     */
+    public static MileageBandIndex of(List<Band> bands) {
+        List<int[]> bounds = new ArrayList<>(bands.size());
+        List<Double> bandFactors = new ArrayList<>(bands.size());
+        for (Band band : bands) {
+            int lower = toInt(band.from().setScale(0, RoundingMode.CEILING));
+            int upper = toInt(band.to().setScale(0, RoundingMode.FLOOR));
+            if (lower <= upper) {
+                bounds.add(new int[] {lower, upper, bandFactors.size()});
+                bandFactors.add(band.factor());
+            }
+        }
+        bounds.sort(Comparator.comparingInt(b -> b[0]));
+
+        int size = bounds.size();
+        int[] from = new int[size];
+        int[] to = new int[size];
+        double[] factors = new double[size];
+        List<String> gaps = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            int[] b = bounds.get(i);
+            if (i > 0) {
+                if (b[0] <= to[i - 1]) {
+                    throw new IllegalStateException("Overlapping yearly mileage bands: ["
+                            + from[i - 1] + ", " + to[i - 1] + "] and [" + b[0] + ", " + b[1] + "]");
+                }
+                if (b[0] > to[i - 1] + 1) {
+                    gaps.add("[" + (to[i - 1] + 1) + ", " + (b[0] - 1) + "]");
+                }
+            }
+            from[i] = b[0];
+            to[i] = b[1];
+            factors[i] = bandFactors.get(b[2]);
+        }
+
+        return new MileageBandIndex(from, to, factors, Collections.unmodifiableList(gaps));
+    }
+
+    /**
+     * Finds the band containing the given yearly mileage.
+     * 
+     * @param yearlyMileage the yearly mileage
+     * @return the band ordinal, or {@link #NO_BAND} if no band contains the mileage
+     */
+    public int bandOf(int yearlyMileage) {
+        int low = 0;
+        int high = from.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (from[mid] <= yearlyMileage) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && yearlyMileage <= to[high] ? high : NO_BAND;
+    }
+
+    /**
+     * Gets the factor of the band containing the given yearly mileage.
+     * 
+     * @param yearlyMileage the yearly mileage
+     * @return the mileage factor, or {@link Double#NaN} if no band contains the mileage
+     */
+    public double factorOf(int yearlyMileage) {
+        int band = bandOf(yearlyMileage);
+        return band != NO_BAND ? factors[band] : Double.NaN;
+    }
+
+    /**
+     * Gets the factor of the band with the given ordinal.
+     * 
+     * @param band the band ordinal
+     * @return the mileage factor of the band
+     */
+    public double getFactor(int band) {
+        return factors[band];
+    }
+
+    /**
+     * Gets the lower bound (inclusive) of the band with the given ordinal.
+     * 
+     * @param band the band ordinal
+     * @return the smallest mileage contained in the band
+     */
+    public int getFrom(int band) {
+        return from[band];
+    }
+
+    /**
+     * Gets the upper bound (inclusive) of the band with the given ordinal.
+     * 
+     * @param band the band ordinal
+     * @return the largest mileage contained in the band
+     */
+    public int getTo(int band) {
+        return to[band];
+    }
+
+    /**
+     * Gets the number of bands in this index.
+     * 
+     * @return the band count
+     */
+    public int size() {
+        return from.length;
+    }
+
+    /**
+     * Gets the mileage ranges between consecutive bands that no band covers.
+     * 
+     * @return the uncovered ranges, formatted as "[from, to]"
+     */
+    public List<String> getGaps() {
+        return gaps;
+    }
+
+    @Override
+    public String toString() {
+        return "MileageBandIndex{" +
+                "from=" + Arrays.toString(from) +
+                ", to=" + Arrays.toString(to) +
+                ", factors=" + Arrays.toString(factors) +
+                '}';
+    }
+
+    private static int toInt(BigDecimal value) {
+        if (value.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+            return Integer.MAX_VALUE;
+        }
+        if (value.compareTo(BigDecimal.valueOf(Integer.MIN_VALUE)) < 0) {
+            return Integer.MIN_VALUE;
+        }
+        return value.intValue();
+    }
+
+    /**
+     * A yearly mileage band as stored in the database.
+     * 
+     * @param from the lower bound (inclusive)
+     * @param to the upper bound (inclusive)
+     * @param factor the mileage factor of this band
+     */
+    public record Band(BigDecimal from, BigDecimal to, double factor) {
+    }
+}
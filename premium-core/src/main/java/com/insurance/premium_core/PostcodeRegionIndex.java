@@ -0,0 +1,259 @@
+package com.insurance.premium_core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup structure mapping postcodes to their region and region factor.
+ *     
+ * German postcodes consist of exactly five digits, so the numeric value of a
+ * postcode is used directly as index into a dense {@code short} array of 100,000
+ * slots holding the region ordinal. The region name and factor are then read from
+ * small arrays indexed by that ordinal. A lookup parses the postcode in place,
+ * without creating substrings, and allocates nothing. The whole structure takes
+ * about 200 KB of heap.
+ * 
+ *     Postcodes stored in the database that are not five digits long cannot be
+ * addressed by the array. They are kept in a small overflow map so that the
+ * lookup semantics stay identical to the repository lookup.
+ * 
+ * @author Aylin Yilmaz
+ */
+public final class PostcodeRegionIndex {
+
+    /**
+     * Index containing no postcodes and no regions.
+     */
+    public static final PostcodeRegionIndex EMPTY = of(Map.of(), Map.of());
+
+    /**
+     * Region ordinal returned when a postcode has no region.
+     */
+    public static final int NO_REGION = -1;
+
+    /**
+     * Value returned by {@link #parse(CharSequence)} for malformed postcodes.
+     */
+    public static final int INVALID_POSTCODE = -1;
+
+    private static final int POSTCODE_LENGTH = 5;
+    private static final int POSTCODE_SLOTS = 100_000;
+
+    private final short[] regionByPostcode;
+    private final Map<String, Short> overflow;
+    private final String[] regionNames;
+    private final double[] regionFactors;
+    private final Map<String, Short> regionOrdinals;
+    private final int postcodeCount;
+
+    private PostcodeRegionIndex(
+            short[] regionByPostcode,
+            Map<String, Short> overflow,
+            String[] regionNames,
+            double[] regionFactors,
+            Map<String, Short> regionOrdinals,
+            int postcodeCount) {
+
+        this.regionByPostcode = regionByPostcode;
+        this.overflow = overflow;
+        this.regionNames = regionNames;
+        this.regionFactors = regionFactors;
+        this.regionOrdinals = regionOrdinals;
+        this.postcodeCount = postcodeCount;
+    }
+
+    /**
+     * Builds a new index from the postcode to region assignment and the region factors.
+     *     
+     * Every region name occurring in either map gets an ordinal. Regions that are
+     * assigned to postcodes but have no factor, or a null factor, get
+     * {@link Double#NaN} as factor. Postcodes and region names must not be null.
+     * 
+     * @param regionsByPostcode region name per postcode
+     * @param regionFactors region factor per region name
+     * @return the built index
+     * @throws IllegalArgumentException if a postcode or region name is null
+     * @throws IllegalStateException if there are more regions than a short can address
+     */
+    public static PostcodeRegionIndex of(Map<String, String> regionsByPostcode, Map<String, Double> regionFactors) {
+        Map<String, Short> regionOrdinals = new HashMap<>();
+        for (Map.Entry<String, Double> entry : regionFactors.entrySet()) {
+            if (entry.getKey() == null) {
+                throw new IllegalArgumentException("Region factor " + entry.getValue() + " without region name");
+            }
+            addRegion(regionOrdinals, entry.getKey());
+        }
+        for (Map.Entry<String, String> entry : regionsByPostcode.entrySet()) {
+            if (entry.getKey() == null) {
+                throw new IllegalArgumentException("Region '" + entry.getValue() + "' assigned to a null postcode");
+            }
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("No region assigned to postcode '" + entry.getKey() + "'");
+            }
+            addRegion(regionOrdinals, entry.getValue());
+        }
+
+        String[] regionNames = new String[regionOrdinals.size()];
+        double[] factors = new double[regionOrdinals.size()];
+        for (Map.Entry<String, Short> entry : regionOrdinals.entrySet()) {
+            regionNames[entry.getValue()] = entry.getKey();
+            Double factor = regionFactors.get(entry.getKey());
+            factors[entry.getValue()] = factor != null ? factor : Double.NaN;
+        }
+
+        short[] regionByPostcode = new short[POSTCODE_SLOTS];
+        Arrays.fill(regionByPostcode, (short) NO_REGION);
+        Map<String, Short> overflow = new HashMap<>();
+        for (Map.Entry<String, String> entry : regionsByPostcode.entrySet()) {
+            short ordinal = regionOrdinals.get(entry.getValue());
+            int postcode = parse(entry.getKey());
+            if (postcode != INVALID_POSTCODE) {
+                regionByPostcode[postcode] = ordinal;
+            } else {
+                overflow.put(entry.getKey(), ordinal);
+            }
+        }
+
+        return new PostcodeRegionIndex(regionByPostcode, Map.copyOf(overflow), regionNames, factors,
+                Map.copyOf(regionOrdinals), regionsByPostcode.size());
+    }
+
+    /**
+     * Parses a five digit postcode into its numeric value.
+     *     
+     * The characters are read in place, no substring or boxed value is created.
+     * Leading zeros are significant for the length check, so "01067" is valid
+     * while "1067" is not.
+     * 
+     * @param postcode the postcode to parse, may be null
+     * @return the numeric postcode between 0 and 99999, or {@link #INVALID_POSTCODE}
+     *         if the postcode is not exactly five ASCII digits
+     */
+    public static int parse(CharSequence postcode) {
+        if (postcode == null || postcode.length() != POSTCODE_LENGTH) {
+            return INVALID_POSTCODE;
+        }
+        int value = 0;
+        for (int i = 0; i < POSTCODE_LENGTH; i++) {
+            int digit = postcode.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_POSTCODE;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Finds the region ordinal of the given postcode.
+     * 
+     * @param postcode the postcode string (e.g., "12345"), may be null
+     * @return the region ordinal, or {@link #NO_REGION} if the postcode is unknown
+     */
+    public int regionOf(String postcode) {
+        int value = parse(postcode);
+        if (value != INVALID_POSTCODE) {
+            return regionByPostcode[value];
+        }
+        if (postcode == null || overflow.isEmpty()) {
+            return NO_REGION;
+        }
+        Short ordinal = overflow.get(postcode);
+        return ordinal != null ? ordinal : NO_REGION;
+    }
+
+    /**
+     * Finds the region factor of the given postcode.
+     * 
+     * @param postcode the postcode string (e.g., "12345"), may be null
+     * @return the region factor, or {@link Double#NaN} if the postcode is unknown
+     *         or its region has no factor
+     */
+    public double regionFactorOf(String postcode) {
+        int region = regionOf(postcode);
+        return region != NO_REGION ? regionFactors[region] : Double.NaN;
+    }
+
+    /**
+     * Finds the ordinal of the region with the given name.
+     * 
+     * @param regionName the region name (e.g., "Bayern"), may be null
+     * @return the region ordinal, or {@link #NO_REGION} if the region is unknown
+     */
+    public int regionOrdinal(String regionName) {
+        if (regionName == null) {
+            return NO_REGION;
+        }
+        Short ordinal = regionOrdinals.get(regionName);
+        return ordinal != null ? ordinal : NO_REGION;
+    }
+
+    /**
+     * Gets the name of the region with the given ordinal.
+     * 
+     * @param region the region ordinal
+     * @return the region name
+     */
+    public String getRegionName(int region) {
+        return regionNames[region];
+    }
+
+    /**
+     * Gets the factor of the region with the given ordinal.
+     * 
+     * @param region the region ordinal
+     * @return the region factor, or {@link Double#NaN} if the region has no factor
+     */
+    public double getRegionFactor(int region) {
+        return regionFactors[region];
+    }
+
+    /**
+     * Gets the names of all regions, ordered by ordinal.
+     * 
+     * @return the region names
+     */
+    public List<String> getRegionNames() {
+        return List.of(regionNames);
+    }
+
+    /**
+     * Gets the number of regions in this index.
+     * 
+     * @return the region count
+     */
+    public int getRegionCount() {
+        return regionNames.length;
+    }
+
+    /**
+     * Gets the number of postcodes in this index.
+     * 
+     * @return the postcode count
+     */
+    public int getPostcodeCount() {
+        return postcodeCount;
+    }
+
+    /**
+     * Gets the number of postcodes that are not five digits long and are
+     * therefore kept in the overflow map.
+     * 
+     * @return the overflow postcode count
+     */
+    public int getOverflowCount() {
+        return overflow.size();
+    }
+
+    private static void addRegion(Map<String, Short> regionOrdinals, String region) {
+        if (regionOrdinals.containsKey(region)) {
+            return;
+        }
+        if (regionOrdinals.size() > Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many regions for postcode index: " + regionOrdinals.size());
+        }
+        regionOrdinals.put(region, (short) regionOrdinals.size());
+    }
+}
@@ -0,0 +1,139 @@
+package com.insurance.premium_core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable table of all premiums a tariff can produce.
+ *     
+ * The premium only depends on the vehicle type, the yearly mileage band and the
+ * region, each of which is a small finite set. This table stores the product
+ * {@code baseRate × mileageFactor × vehicleFactor × regionFactor} for every
+ * combination in one dense {@code double} array, laid out as
+ * [vehicle ordinal][mileage band][region ordinal]. A quote then costs three
+ * ordinal lookups and a single array read.
+ * 
+ *     Combinations for which a factor is missing hold {@link Double#NaN}, so the
+ * caller can fall back to the factor lookups to find out which input was invalid.
+ * 
+ * @author Aylin Yilmaz
+ */
+public final class PremiumMatrix {
+
+    private final Map<String, Integer> vehicleOrdinals;
+    private final PostcodeRegionIndex regions;
+    private final MileageBandIndex mileageBands;
+    private final int bandCount;
+    private final int regionCount;
+    private final double[] premiums;
+
+    private PremiumMatrix(
+            Map<String, Integer> vehicleOrdinals,
+            PostcodeRegionIndex regions,
+            MileageBandIndex mileageBands,
+            double[] premiums) {
+
+        this.vehicleOrdinals = vehicleOrdinals;
+        this.regions = regions;
+        this.mileageBands = mileageBands;
+        this.bandCount = mileageBands.size();
+        this.regionCount = regions.getRegionCount();
+        this.premiums = premiums;
+    }
+
+    /**
+     * Calculates the number of cells of a matrix over the given dimensions.
+     * 
+     * @param vehicleTypes number of vehicle types
+     * @param mileageBands number of yearly mileage bands
+     * @param regions number of regions
+     * @return the number of cells, as long to detect products exceeding an array
+     */
+    public static long cellCount(int vehicleTypes, int mileageBands, int regions) {
+        return (long) vehicleTypes * mileageBands * regions;
+    }
+
+    /**
+     * Precomputes the premiums of all combinations.
+     *     
+     * The factors are multiplied by {@link RatingEngine#premiumOf(double, double, double, double)}
+     * like on every other calculation path, so all produce exactly the same values.
+     * 
+     * @param baseRate the base rate of the premium calculation
+     * @param vehicleFactors vehicle factor per vehicle type
+     * @param regions index over all postcodes and their regions
+     * @param mileageBands index over all yearly mileage bands
+     * @return the built matrix
+     * @throws IllegalArgumentException if the number of cells exceeds the maximum array size
+     */
+    public static PremiumMatrix of(
+            double baseRate,
+            Map<String, Double> vehicleFactors,
+            PostcodeRegionIndex regions,
+            MileageBandIndex mileageBands) {
+
+        long cells = cellCount(vehicleFactors.size(), mileageBands.size(), regions.getRegionCount());
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Premium matrix with " + cells + " cells exceeds the maximum array size");
+        }
+
+        Map<String, Integer> vehicleOrdinals = new HashMap<>();
+        double[] premiums = new double[(int) cells];
+        int bandCount = mileageBands.size();
+        int regionCount = regions.getRegionCount();
+
+        int vehicle = 0;
+        for (Map.Entry<String, Double> entry : vehicleFactors.entrySet()) {
+            vehicleOrdinals.put(entry.getKey(), vehicle);
+            double vehicleFactor = entry.getValue();
+            for (int band = 0; band < bandCount; band++) {
+                double mileageFactor = mileageBands.getFactor(band);
+                int offset = (vehicle * bandCount + band) * regionCount;
+                for (int region = 0; region < regionCount; region++) {
+                    // NaN region factors propagate into the cell
+                    premiums[offset + region] = RatingEngine.premiumOf(
+                            baseRate, mileageFactor, vehicleFactor, regions.getRegionFactor(region));
+                }
+            }
+            vehicle++;
+        }
+
+        return new PremiumMatrix(vehicleOrdinals, regions, mileageBands, premiums);
+    }
+
+    /**
+     * Looks up the premium for the given request values.
+     * 
+     * @param vehicleType the vehicle type (case-sensitive), may be null
+     * @param yearlyMileage the yearly mileage
+     * @param postcode the postcode string (e.g., "12345"), may be null
+     * @return the premium, or {@link Double#NaN} if any of the values has no factor
+     */
+    public double premiumOf(String vehicleType, int yearlyMileage, String postcode) {
+        Integer vehicle = vehicleType != null ? vehicleOrdinals.get(vehicleType) : null;
+        int band = mileageBands.bandOf(yearlyMileage);
+        int region = regions.regionOf(postcode);
+        if (vehicle == null || band == MileageBandIndex.NO_BAND || region == PostcodeRegionIndex.NO_REGION) {
+            return Double.NaN;
+        }
+        return premiums[(vehicle * bandCount + band) * regionCount + region];
+    }
+
+    /**
+     * Gets the number of precomputed premiums.
+     * 
+     * @return the cell count
+     */
+    public int getCellCount() {
+        return premiums.length;
+    }
+
+    /**
+     * Gets the heap size of the premium array.
+     * 
+     * @return the size in bytes, without the small ordinal lookup structures
+     */
+    public long getSizeInBytes() {
+        return (long) premiums.length * Double.BYTES;
+    }
+}
@@ -0,0 +1,94 @@
+package com.insurance.premium_core;
+
+/**
+ * Result of {@link RatingEngine#rate}: premium, factors and status of one request.
+ *
+ * A rating is mutable and is overwritten by every call, so a caller creates one
+ * and reuses it for all quotes of a loop or a thread. It is not thread-safe.
+ *
+ * @author Aylin Yilmaz
+ */
+public final class Rating {
+
+    private RatingEngine.Status status;
+    private double yearlyMileageFactor;
+    private double vehicleFactor;
+    private double regionFactor;
+    private double premium;
+    private boolean fromPremiumMatrix;
+
+    RatingEngine.Status set(RatingEngine.Status status, double yearlyMileageFactor, double vehicleFactor,
+                            double regionFactor, double premium, boolean fromPremiumMatrix) {
+        this.status = status;
+        this.yearlyMileageFactor = yearlyMileageFactor;
+        this.vehicleFactor = vehicleFactor;
+        this.regionFactor = regionFactor;
+        this.premium = premium;
+        this.fromPremiumMatrix = fromPremiumMatrix;
+        return status;
+    }
+
+    /**
+     * Gets the status of the last rating.
+     *
+     * @return the status, null if nothing has been rated yet
+     */
+    public RatingEngine.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether the last rated request was valid.
+     *
+     * @return true if the premium is available
+     */
+    public boolean isValid() {
+        return status == RatingEngine.Status.OK;
+    }
+
+    /**
+     * Gets the premium.
+     *
+     * @return the premium, or {@link Double#NaN} if the request was invalid
+     */
+    public double getPremium() {
+        return premium;
+    }
+
+    /**
+     * Gets the mileage factor.
+     *
+     * @return the factor, or {@link Double#NaN} if missing or read from the premium matrix
+     */
+    public double getYearlyMileageFactor() {
+        return yearlyMileageFactor;
+    }
+
+    /**
+     * Gets the vehicle factor.
+     *
+     * @return the factor, or {@link Double#NaN} if missing or read from the premium matrix
+     */
+    public double getVehicleFactor() {
+        return vehicleFactor;
+    }
+
+    /**
+     * Gets the region factor.
+     *
+     * @return the factor, or {@link Double#NaN} if missing or read from the premium matrix
+     */
+    public double getRegionFactor() {
+        return regionFactor;
+    }
+
+    /**
+     * Checks whether the premium was read from the {@link PremiumMatrix}, in
+     * which case the factors are not looked up.
+     *
+     * @return true if the premium came from the premium matrix
+     */
+    public boolean isFromPremiumMatrix() {
+        return fromPremiumMatrix;
+    }
+}
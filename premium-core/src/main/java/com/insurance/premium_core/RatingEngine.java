@@ -0,0 +1,142 @@
+package com.insurance.premium_core;
+
+/**
+ * Allocation-free rating of premium requests against a {@link TariffSnapshot}.
+ *
+ * The engine works on primitives only: missing factors are {@link Double#NaN}
+ * instead of null, an invalid input is reported as {@link Status} instead of an
+ * exception, and the result is written into a {@link Rating} owned by the caller,
+ * which can reuse it for any number of quotes. Rating a request therefore creates
+ * no objects at all, not even in the interpreter before escape analysis applies.
+ *
+ * Premium = Base Rate × Mileage Factor × Vehicle Factor × Region Factor
+ *
+ *     If the snapshot has a {@link PremiumMatrix}, the premium of a valid request
+ * is read from it. The inputs are checked in the same order as by the premium
+ * calculation service, so both report the same input of a request with several
+ * invalid ones. An engine is immutable and can be shared between threads.
+ *
+ * @author Aylin Yilmaz
+ */
+public final class RatingEngine {
+
+    /**
+     * Outcome of rating a request.
+     */
+    public enum Status {
+        OK, INVALID_YEARLY_MILEAGE, INVALID_VEHICLE_TYPE, INVALID_POSTCODE
+    }
+
+    private final TariffSnapshot tariff;
+    private final double baseRate;
+
+    /**
+     * Constructs a new RatingEngine.
+     *
+     * @param tariff the tariff to rate with, must not be null
+     * @param baseRate the base rate of the premium
+     */
+    public RatingEngine(TariffSnapshot tariff, double baseRate) {
+        this.tariff = tariff;
+        this.baseRate = baseRate;
+    }
+
+    /**
+     * Rates a request.
+     *
+     * @param vehicleType the vehicle type (case-sensitive), may be null
+     * @param yearlyMileage the yearly mileage
+     * @param postcode the postcode string (e.g., "12345"), may be null
+     * @param rating receives premium, factors and status, must not be null
+     * @return the status, also available from the rating
+     */
+    public Status rate(String vehicleType, int yearlyMileage, String postcode, Rating rating) {
+        PremiumMatrix premiumMatrix = tariff.getPremiumMatrix();
+        if (premiumMatrix != null) {
+            double premium = premiumMatrix.premiumOf(vehicleType, yearlyMileage, postcode);
+            if (!Double.isNaN(premium)) {
+                return rating.set(Status.OK, Double.NaN, Double.NaN, Double.NaN, premium, true);
+            }
+        }
+
+        double yearlyMileageFactor = tariff.yearlyMileageFactorOf(yearlyMileage);
+        double vehicleFactor = tariff.vehicleFactorOf(vehicleType);
+        double regionFactor = tariff.regionFactorOf(postcode);
+        Status status = statusOf(yearlyMileageFactor, vehicleFactor, regionFactor);
+        double premium = status == Status.OK
+                ? premiumOf(baseRate, yearlyMileageFactor, vehicleFactor, regionFactor)
+                : Double.NaN;
+        return rating.set(status, yearlyMileageFactor, vehicleFactor, regionFactor, premium, false);
+    }
+
+    /**
+     * Rates a request when only the premium is of interest.
+     *
+     * @param vehicleType the vehicle type (case-sensitive), may be null
+     * @param yearlyMileage the yearly mileage
+     * @param postcode the postcode string (e.g., "12345"), may be null
+     * @return the premium, or {@link Double#NaN} if the request is invalid
+     */
+    public double premiumOf(String vehicleType, int yearlyMileage, String postcode) {
+        PremiumMatrix premiumMatrix = tariff.getPremiumMatrix();
+        if (premiumMatrix != null) {
+            return premiumMatrix.premiumOf(vehicleType, yearlyMileage, postcode);
+        }
+        return premiumOf(baseRate, tariff.yearlyMileageFactorOf(yearlyMileage), tariff.vehicleFactorOf(vehicleType),
+                tariff.regionFactorOf(postcode));
+    }
+
+    /**
+     * Determines the first missing factor, in the order mileage, vehicle type, postcode.
+     *
+     * @param yearlyMileageFactor the mileage factor, {@link Double#NaN} if missing
+     * @param vehicleFactor the vehicle factor, {@link Double#NaN} if missing
+     * @param regionFactor the region factor, {@link Double#NaN} if missing
+     * @return {@link Status#OK} if all factors are present
+     */
+    public static Status statusOf(double yearlyMileageFactor, double vehicleFactor, double regionFactor) {
+        if (Double.isNaN(yearlyMileageFactor)) {
+            return Status.INVALID_YEARLY_MILEAGE;
+        }
+        if (Double.isNaN(vehicleFactor)) {
+            return Status.INVALID_VEHICLE_TYPE;
+        }
+        if (Double.isNaN(regionFactor)) {
+            return Status.INVALID_POSTCODE;
+        }
+        return Status.OK;
+    }
+
+    /**
+     * Multiplies the factors in the order used everywhere, so all calculation
+     * paths produce exactly the same value.
+     *
+     * @param baseRate the base rate
+     * @param yearlyMileageFactor the mileage factor
+     * @param vehicleFactor the vehicle factor
+     * @param regionFactor the region factor
+     * @return the premium, {@link Double#NaN} if a factor is missing
+     */
+    public static double premiumOf(double baseRate, double yearlyMileageFactor, double vehicleFactor,
+                                   double regionFactor) {
+        return baseRate * yearlyMileageFactor * vehicleFactor * regionFactor;
+    }
+
+    /**
+     * Gets the tariff this engine rates with.
+     *
+     * @return the tariff snapshot
+     */
+    public TariffSnapshot getTariff() {
+        return tariff;
+    }
+
+    /**
+     * Gets the base rate of the premium.
+     *
+     * @return the base rate
+     */
+    public double getBaseRate() {
+        return baseRate;
+    }
+}
@@ -0,0 +1,37 @@
+package com.insurance.premium_core;
+
+/**
+ * Read access to the three premium factors.
+ *     
+ * Implementations either hold the complete tariff, like {@link TariffSnapshot},
+ * or only the factors resolved for a particular set of requests. All methods
+ * return null when no factor is found for the given input.
+ * 
+ * @author Aylin Yilmaz
+ */
+public interface TariffLookup {
+
+    /**
+     * Gets the factor of the mileage band containing the given yearly mileage.
+     * 
+     * @param yearlyMileage the yearly mileage
+     * @return the mileage factor, or null if no band contains the mileage
+     */
+    Double getYearlyMileageFactor(int yearlyMileage);
+
+    /**
+     * Gets the vehicle factor for the given vehicle type.
+     * 
+     * @param vehicleType the vehicle type (case-sensitive)
+     * @return the vehicle factor, or null if the vehicle type is unknown
+     */
+    Double getVehicleFactor(String vehicleType);
+
+    /**
+     * Gets the factor of the region the given postcode belongs to.
+     * 
+     * @param postcode the postcode string (e.g., "12345")
+     * @return the region factor, or null if the postcode is unknown or its region has no factor
+     */
+    Double getRegionFactorByPostcode(String postcode);
+}
@@ -0,0 +1,252 @@
+package com.insurance.premium_core;
+
+import java.util.Map;
+
+/**
+ * Immutable, in-memory copy of all reference data needed to calculate a premium.
+ *     
+ * A snapshot contains the vehicle factors, the mileage ranges, the postcode to
+ * region assignment and the region factors as they were at load time. Once built
+ * it is never modified, so it can be shared between any number of request threads
+ * without synchronization and without touching the database.
+ * 
+ *     All lookup methods mirror the semantics of the corresponding repository
+ * queries and return null when no matching entry exists. The '...Of' variants
+ * return {@link Double#NaN} instead and never allocate, they are used by the
+ * {@link RatingEngine}.
+ * 
+ * @author Aylin Yilmaz
+ */
+public final class TariffSnapshot implements TariffLookup {
+
+    /**
+     * Version of a snapshot loaded without the 'tariff_version' marker table.
+     */
+    public static final long UNKNOWN_VERSION = -1;
+
+    private final Map<String, Double> vehicleFactors;
+    private final PostcodeRegionIndex regions;
+    private final MileageBandIndex mileageBands;
+    private final long version;
+    private final PremiumMatrix premiumMatrix;
+
+    /**
+     * Constructs a new TariffSnapshot from already resolved reference data.
+     *     
+     * The given vehicle factors are copied, later changes to the map have no
+     * effect on this snapshot.
+     * 
+     * @param vehicleFactors vehicle factor per vehicle type
+     * @param regions index over all postcodes and their regions
+     * @param mileageBands index over all yearly mileage bands
+     */
+    public TariffSnapshot(
+            Map<String, Double> vehicleFactors,
+            PostcodeRegionIndex regions,
+            MileageBandIndex mileageBands) {
+
+        this(vehicleFactors, regions, mileageBands, UNKNOWN_VERSION);
+    }
+
+    /**
+     * Constructs a new TariffSnapshot from already resolved reference data of a
+     * known tariff version.
+     * 
+     * @param vehicleFactors vehicle factor per vehicle type
+     * @param regions index over all postcodes and their regions
+     * @param mileageBands index over all yearly mileage bands
+     * @param version the tariff version read before the reference data was loaded
+     */
+    public TariffSnapshot(
+            Map<String, Double> vehicleFactors,
+            PostcodeRegionIndex regions,
+            MileageBandIndex mileageBands,
+            long version) {
+
+        this(vehicleFactors, regions, mileageBands, version, null);
+    }
+
+    /**
+     * Constructs a new TariffSnapshot with a precomputed premium matrix.
+     * 
+     * @param vehicleFactors vehicle factor per vehicle type
+     * @param regions index over all postcodes and their regions
+     * @param mileageBands index over all yearly mileage bands
+     * @param version the tariff version read before the reference data was loaded
+     * @param premiumMatrix the premiums of all combinations built from the same
+     *                      reference data, or null
+     */
+    public TariffSnapshot(
+            Map<String, Double> vehicleFactors,
+            PostcodeRegionIndex regions,
+            MileageBandIndex mileageBands,
+            long version,
+            PremiumMatrix premiumMatrix) {
+
+        this.vehicleFactors = Map.copyOf(vehicleFactors);
+        this.regions = regions;
+        this.mileageBands = mileageBands;
+        this.version = version;
+        this.premiumMatrix = premiumMatrix;
+    }
+
+    /**
+     * Gets the vehicle factor for the given vehicle type.
+     * 
+     * @param vehicleType the vehicle type (case-sensitive)
+     * @return the vehicle factor, or null if the vehicle type is unknown
+     */
+    @Override
+    public Double getVehicleFactor(String vehicleType) {
+        return vehicleType != null ? vehicleFactors.get(vehicleType) : null;
+    }
+
+    /**
+     * Gets the vehicle factor for the given vehicle type without boxing.
+     * 
+     * @param vehicleType the vehicle type (case-sensitive), may be null
+     * @return the vehicle factor, or {@link Double#NaN} if the vehicle type is unknown
+     */
+    public double vehicleFactorOf(String vehicleType) {
+        Double factor = vehicleType != null ? vehicleFactors.get(vehicleType) : null;
+        return factor != null ? factor : Double.NaN;
+    }
+
+    /**
+     * Gets the region name assigned to the given postcode.
+     * 
+     * @param postcode the postcode string (e.g., "12345")
+     * @return the region name, or null if the postcode is unknown or has no region
+     */
+    public String getRegionByPostcode(String postcode) {
+        int region = regions.regionOf(postcode);
+        return region != PostcodeRegionIndex.NO_REGION ? regions.getRegionName(region) : null;
+    }
+
+    /**
+     * Gets the region factor for the given region name.
+     * 
+     * @param regionName the region name (e.g., "Bayern")
+     * @return the region factor, or null if the region is unknown
+     */
+    public Double getRegionFactor(String regionName) {
+        int region = regions.regionOrdinal(regionName);
+        return region != PostcodeRegionIndex.NO_REGION ? toFactor(regions.getRegionFactor(region)) : null;
+    }
+
+    /**
+     * Gets the factor of the region the given postcode belongs to.
+     *     
+     * This is equivalent to {@code getRegionFactor(getRegionByPostcode(postcode))},
+     * but resolves the factor with a single array lookup.
+     * 
+     * @param postcode the postcode string (e.g., "12345")
+     * @return the region factor, or null if the postcode is unknown or its region has no factor
+     */
+    @Override
+    public Double getRegionFactorByPostcode(String postcode) {
+        return toFactor(regions.regionFactorOf(postcode));
+    }
+
+    /**
+     * Gets the factor of the region the given postcode belongs to without boxing.
+     * 
+     * @param postcode the postcode string (e.g., "12345"), may be null
+     * @return the region factor, or {@link Double#NaN} if the postcode is unknown
+     *         or its region has no factor
+     */
+    public double regionFactorOf(String postcode) {
+        return regions.regionFactorOf(postcode);
+    }
+
+    /**
+     * Gets the index over all postcodes and their regions.
+     * 
+     * @return the postcode region index
+     */
+    public PostcodeRegionIndex getRegions() {
+        return regions;
+    }
+
+    /**
+     * Gets the factor of the mileage band containing the given yearly mileage.
+     *     
+     * Both band bounds are inclusive, as in the repository query.
+     * 
+     * @param yearlyMileage the yearly mileage
+     * @return the mileage factor, or null if no band contains the mileage
+     */
+    @Override
+    public Double getYearlyMileageFactor(int yearlyMileage) {
+        return toFactor(yearlyMileageFactorOf(yearlyMileage));
+    }
+
+    /**
+     * Gets the factor of the mileage band containing the given yearly mileage
+     * without boxing.
+     * 
+     * @param yearlyMileage the yearly mileage
+     * @return the mileage factor, or {@link Double#NaN} if no band contains the mileage
+     */
+    public double yearlyMileageFactorOf(int yearlyMileage) {
+        return mileageBands.factorOf(yearlyMileage);
+    }
+
+    /**
+     * Gets the index over the yearly mileage bands.
+     * 
+     * @return the mileage band index
+     */
+    public MileageBandIndex getMileageBands() {
+        return mileageBands;
+    }
+
+    /**
+     * Gets the number of postcodes contained in this snapshot.
+     * 
+     * @return the postcode count
+     */
+    public int getPostcodeCount() {
+        return regions.getPostcodeCount();
+    }
+
+    /**
+     * Gets the number of vehicle types contained in this snapshot.
+     * 
+     * @return the vehicle type count
+     */
+    public int getVehicleTypeCount() {
+        return vehicleFactors.size();
+    }
+
+    /**
+     * Gets the number of regions contained in this snapshot.
+     * 
+     * @return the region count
+     */
+    public int getRegionCount() {
+        return regions.getRegionCount();
+    }
+
+    /**
+     * Gets the tariff version this snapshot was loaded from.
+     * 
+     * @return the version, or {@link #UNKNOWN_VERSION}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the precomputed premium matrix of this snapshot.
+     * 
+     * @return the premium matrix, or null if matrix mode is disabled or was refused
+     */
+    public PremiumMatrix getPremiumMatrix() {
+        return premiumMatrix;
+    }
+
+    private static Double toFactor(double factor) {
+        return Double.isNaN(factor) ? null : factor;
+    }
+}
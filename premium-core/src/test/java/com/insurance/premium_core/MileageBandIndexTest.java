@@ -0,0 +1,74 @@
+package com.insurance.premium_core;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MileageBandIndexTest {
+
+    @Test
+    void bandOf_inclusiveBounds() {
+        MileageBandIndex index = MileageBandIndex.of(List.of(
+                band("20001", "100000000", 1.5),
+                band("0", "10000", 0.5),
+                band("10001", "20000", 1.0)));
+
+        assertEquals(3, index.size());
+        assertEquals(0, index.bandOf(0));
+        assertEquals(0, index.bandOf(10000));
+        assertEquals(1, index.bandOf(10001));
+        assertEquals(1, index.bandOf(20000));
+        assertEquals(2, index.bandOf(20001));
+        assertEquals(2, index.bandOf(100000000));
+        assertEquals(1.0, index.factorOf(15000), 1e-9);
+        assertTrue(index.getGaps().isEmpty());
+    }
+
+    @Test
+    void bandOf_outsideBands() {
+        MileageBandIndex index = MileageBandIndex.of(List.of(band("0", "10000", 0.5)));
+
+        assertEquals(MileageBandIndex.NO_BAND, index.bandOf(-1));
+        assertEquals(MileageBandIndex.NO_BAND, index.bandOf(10001));
+        assertTrue(Double.isNaN(index.factorOf(999999999)));
+        assertEquals(MileageBandIndex.NO_BAND, MileageBandIndex.EMPTY.bandOf(0));
+    }
+
+    @Test
+    void gap_reported() {
+        MileageBandIndex index = MileageBandIndex.of(List.of(
+                band("0", "10000", 0.5),
+                band("15000", "20000", 1.0)));
+
+        assertEquals(List.of("[10001, 14999]"), index.getGaps());
+        assertEquals(MileageBandIndex.NO_BAND, index.bandOf(12000));
+    }
+
+    @Test
+    void overlap_rejected() {
+        List<MileageBandIndex.Band> bands = List.of(
+                band("0", "10000", 0.5),
+                band("10000", "20000", 1.0));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> MileageBandIndex.of(bands));
+        assertTrue(ex.getMessage().contains("Overlapping"));
+    }
+
+    @Test
+    void decimalBounds_narrowedToWholeMileages() {
+        MileageBandIndex index = MileageBandIndex.of(List.of(
+                band("0", "10000.5", 0.5),
+                band("10000.5", "20000", 1.0)));
+
+        assertEquals(0, index.bandOf(10000));
+        assertEquals(1, index.bandOf(10001));
+        assertTrue(index.getGaps().isEmpty());
+    }
+
+    private static MileageBandIndex.Band band(String from, String to, double factor) {
+        return new MileageBandIndex.Band(new BigDecimal(from), new BigDecimal(to), factor);
+    }
+}
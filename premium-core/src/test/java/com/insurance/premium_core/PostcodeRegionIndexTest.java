@@ -0,0 +1,85 @@
+package com.insurance.premium_core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeRegionIndexTest {
+
+    @Test
+    void parse_fiveDigits() {
+        assertEquals(12345, PostcodeRegionIndex.parse("12345"));
+        assertEquals(1067, PostcodeRegionIndex.parse("01067"));
+        assertEquals(PostcodeRegionIndex.INVALID_POSTCODE, PostcodeRegionIndex.parse("1067"));
+        assertEquals(PostcodeRegionIndex.INVALID_POSTCODE, PostcodeRegionIndex.parse("123456"));
+        assertEquals(PostcodeRegionIndex.INVALID_POSTCODE, PostcodeRegionIndex.parse("12a45"));
+        assertEquals(PostcodeRegionIndex.INVALID_POSTCODE, PostcodeRegionIndex.parse(null));
+    }
+
+    @Test
+    void regionFactorOf_ok() {
+        PostcodeRegionIndex index = PostcodeRegionIndex.of(
+                Map.of("80331", "Bayern", "01067", "Sachsen", "50667", "NRW"),
+                Map.of("Bayern", 1.1, "Sachsen", 0.9));
+
+        assertEquals(1.1, index.regionFactorOf("80331"), 1e-9);
+        assertEquals(0.9, index.regionFactorOf("01067"), 1e-9);
+        assertEquals("Sachsen", index.getRegionName(index.regionOf("01067")));
+        assertEquals(3, index.getPostcodeCount());
+        assertEquals(3, index.getRegionCount());
+    }
+
+    @Test
+    void unknownPostcode_noRegion() {
+        PostcodeRegionIndex index = PostcodeRegionIndex.of(Map.of("80331", "Bayern"), Map.of("Bayern", 1.1));
+
+        assertEquals(PostcodeRegionIndex.NO_REGION, index.regionOf("99999"));
+        assertEquals(PostcodeRegionIndex.NO_REGION, index.regionOf(null));
+        assertTrue(Double.isNaN(index.regionFactorOf("99999")));
+    }
+
+    @Test
+    void regionWithoutFactor_nan() {
+        PostcodeRegionIndex index = PostcodeRegionIndex.of(Map.of("50667", "NRW"), Map.of());
+
+        assertEquals("NRW", index.getRegionName(index.regionOf("50667")));
+        assertTrue(Double.isNaN(index.regionFactorOf("50667")));
+    }
+
+    @Test
+    void nullRegionOrPostcode_rejectedWithPostcode() {
+        Map<String, String> withoutRegion = new HashMap<>();
+        withoutRegion.put("80331", null);
+        Map<String, String> withoutPostcode = new HashMap<>();
+        withoutPostcode.put(null, "Bayern");
+        Map<String, Double> factorWithoutRegion = new HashMap<>();
+        factorWithoutRegion.put(null, 1.1);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> PostcodeRegionIndex.of(withoutRegion, Map.of("Bayern", 1.1)));
+        assertEquals("No region assigned to postcode '80331'", ex.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> PostcodeRegionIndex.of(withoutPostcode, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> PostcodeRegionIndex.of(Map.of(), factorWithoutRegion));
+    }
+
+    @Test
+    void nullFactor_nan() {
+        Map<String, Double> regionFactors = new HashMap<>();
+        regionFactors.put("Bayern", null);
+
+        PostcodeRegionIndex index = PostcodeRegionIndex.of(Map.of("80331", "Bayern"), regionFactors);
+
+        assertTrue(Double.isNaN(index.regionFactorOf("80331")));
+    }
+
+    @Test
+    void nonNumericPostcode_overflow() {
+        PostcodeRegionIndex index = PostcodeRegionIndex.of(Map.of("A-1010", "Wien"), Map.of("Wien", 1.3));
+
+        assertEquals(1, index.getOverflowCount());
+        assertEquals(1.3, index.regionFactorOf("A-1010"), 1e-9);
+    }
+}
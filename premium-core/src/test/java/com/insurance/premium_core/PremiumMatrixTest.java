@@ -0,0 +1,68 @@
+package com.insurance.premium_core;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PremiumMatrixTest {
+
+    private static final Map<String, Double> VEHICLES = Map.of("SUV", 1.5, "SEDAN", 1.0, "SPORT", 2.0);
+
+    private static final MileageBandIndex BANDS = MileageBandIndex.of(List.of(
+            band("0", "5000", 0.5),
+            band("5001", "10000", 1.0),
+            band("10001", "20000", 1.5)));
+
+    @Test
+    void premiumOf_matchesFactorProduct() {
+        Map<String, String> regionsByPostcode = Map.of("12345", "Bayern", "50667", "NRW", "10115", "Berlin");
+        Map<String, Double> regionFactors = Map.of("Bayern", 1.1, "NRW", 1.2, "Berlin", 1.3);
+        PostcodeRegionIndex regions = PostcodeRegionIndex.of(regionsByPostcode, regionFactors);
+        PremiumMatrix matrix = PremiumMatrix.of(500.0, VEHICLES, regions, BANDS);
+
+        assertEquals(27, matrix.getCellCount());
+        assertEquals(27 * Double.BYTES, matrix.getSizeInBytes());
+
+        for (Map.Entry<String, Double> vehicle : VEHICLES.entrySet()) {
+            for (int mileage : new int[] {0, 5000, 7500, 20000}) {
+                for (Map.Entry<String, String> postcode : regionsByPostcode.entrySet()) {
+                    double expected = 500.0 * BANDS.factorOf(mileage) * vehicle.getValue()
+                            * regionFactors.get(postcode.getValue());
+                    assertEquals(expected, matrix.premiumOf(vehicle.getKey(), mileage, postcode.getKey()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void premiumOf_unknownValues() {
+        Map<String, String> regionsByPostcode = new HashMap<>();
+        regionsByPostcode.put("12345", "Bayern");
+        regionsByPostcode.put("99999", "Unbekannt");
+        PostcodeRegionIndex regions = PostcodeRegionIndex.of(regionsByPostcode, Map.of("Bayern", 1.1));
+        PremiumMatrix matrix = PremiumMatrix.of(500.0, VEHICLES, regions, BANDS);
+
+        assertTrue(Double.isNaN(matrix.premiumOf("BOAT", 7500, "12345")));
+        assertTrue(Double.isNaN(matrix.premiumOf(null, 7500, "12345")));
+        assertTrue(Double.isNaN(matrix.premiumOf("SUV", 20001, "12345")));
+        assertTrue(Double.isNaN(matrix.premiumOf("SUV", 7500, "00000")));
+        // region without factor
+        assertTrue(Double.isNaN(matrix.premiumOf("SUV", 7500, "99999")));
+        assertFalse(Double.isNaN(matrix.premiumOf("SUV", 7500, "12345")));
+    }
+
+    @Test
+    void cellCount_exceedsInt() {
+        assertEquals(3L * 4 * 5, PremiumMatrix.cellCount(3, 4, 5));
+        assertTrue(PremiumMatrix.cellCount(100_000, 100_000, 1_000) > Integer.MAX_VALUE);
+    }
+
+    private static MileageBandIndex.Band band(String from, String to, double factor) {
+        return new MileageBandIndex.Band(new BigDecimal(from), new BigDecimal(to), factor);
+    }
+}
@@ -0,0 +1,103 @@
+package com.insurance.premium_core;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RatingEngineTest {
+
+    private static final Map<String, Double> VEHICLES = Map.of("SUV", 1.5, "SEDAN", 1.0);
+
+    private static final PostcodeRegionIndex REGIONS = PostcodeRegionIndex.of(
+            Map.of("12345", "Bayern", "50667", "NRW"), Map.of("Bayern", 1.1, "NRW", 1.2));
+
+    private static final MileageBandIndex BANDS = MileageBandIndex.of(List.of(
+            new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(10000), 1.0),
+            new MileageBandIndex.Band(BigDecimal.valueOf(10001), BigDecimal.valueOf(20000), 1.5)));
+
+    @Test
+    void rate_multipliesFactors() {
+        RatingEngine engine = new RatingEngine(new TariffSnapshot(VEHICLES, REGIONS, BANDS), 500.0);
+        Rating rating = new Rating();
+
+        assertEquals(RatingEngine.Status.OK, engine.rate("SUV", 15000, "12345", rating));
+
+        assertTrue(rating.isValid());
+        assertFalse(rating.isFromPremiumMatrix());
+        assertEquals(500.0 * 1.5 * 1.5 * 1.1, rating.getPremium());
+        assertEquals(1.5, rating.getYearlyMileageFactor());
+        assertEquals(1.5, rating.getVehicleFactor());
+        assertEquals(1.1, rating.getRegionFactor());
+        assertEquals(rating.getPremium(), engine.premiumOf("SUV", 15000, "12345"));
+    }
+
+    @Test
+    void rate_readsPremiumMatrix() {
+        PremiumMatrix matrix = PremiumMatrix.of(500.0, VEHICLES, REGIONS, BANDS);
+        RatingEngine engine = new RatingEngine(new TariffSnapshot(VEHICLES, REGIONS, BANDS, 1, matrix), 500.0);
+        RatingEngine withoutMatrix = new RatingEngine(new TariffSnapshot(VEHICLES, REGIONS, BANDS), 500.0);
+        Rating rating = new Rating();
+
+        assertEquals(RatingEngine.Status.OK, engine.rate("SEDAN", 5000, "50667", rating));
+
+        assertTrue(rating.isFromPremiumMatrix());
+        assertTrue(Double.isNaN(rating.getVehicleFactor()));
+        assertEquals(withoutMatrix.premiumOf("SEDAN", 5000, "50667"), rating.getPremium());
+    }
+
+    @Test
+    void rate_reportsFirstInvalidInput() {
+        PremiumMatrix matrix = PremiumMatrix.of(500.0, VEHICLES, REGIONS, BANDS);
+        RatingEngine engine = new RatingEngine(new TariffSnapshot(VEHICLES, REGIONS, BANDS, 1, matrix), 500.0);
+        Rating rating = new Rating();
+
+        assertEquals(RatingEngine.Status.INVALID_YEARLY_MILEAGE, engine.rate("BOAT", 20001, "99999", rating));
+        assertEquals(RatingEngine.Status.INVALID_VEHICLE_TYPE, engine.rate("BOAT", 15000, "99999", rating));
+        assertEquals(RatingEngine.Status.INVALID_POSTCODE, engine.rate("SUV", 15000, "99999", rating));
+        assertEquals(RatingEngine.Status.INVALID_VEHICLE_TYPE, engine.rate(null, 15000, "12345", rating));
+
+        assertFalse(rating.isValid());
+        assertTrue(Double.isNaN(rating.getPremium()));
+        assertEquals(1.5, rating.getYearlyMileageFactor());
+        assertTrue(Double.isNaN(engine.premiumOf("SUV", 15000, "99999")));
+    }
+
+    @Test
+    void rate_allocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        RatingEngine engine = new RatingEngine(new TariffSnapshot(VEHICLES, REGIONS, BANDS), 500.0);
+        Rating rating = new Rating();
+        String[] vehicles = {"SUV", "SEDAN", "BOAT"};
+        String[] postcodes = {"12345", "50667", "99999"};
+        rateAll(engine, rating, vehicles, postcodes);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        double sum = rateAll(engine, rating, vehicles, postcodes);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertFalse(Double.isNaN(sum));
+        // 100,000 quotes, the tolerance only covers the measurement itself
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
+    private static double rateAll(RatingEngine engine, Rating rating, String[] vehicles, String[] postcodes) {
+        double sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (engine.rate(vehicles[i % 3], i % 25000, postcodes[i % 3 == 0 ? 0 : i % 2], rating)
+                    == RatingEngine.Status.OK) {
+                sum += rating.getPremium();
+            }
+        }
+        return sum;
+    }
+}
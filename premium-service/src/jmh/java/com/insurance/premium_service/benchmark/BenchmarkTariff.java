@@ -0,0 +1,93 @@
+package com.insurance.premium_service.benchmark;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.PremiumMatrix;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.model.PremiumRequest;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic tariff of realistic size shared by all benchmarks.
+ *     
+ * It contains 3 vehicle types, 4 mileage bands, the 16 German federal states as
+ * regions and 99,000 five-digit postcodes, as in the production tables.
+ * The requests are generated with a fixed seed, so every run measures the same
+ * sequence of inputs.
+ * 
+ * @author Aylin Yilmaz
+ */
+final class BenchmarkTariff {
+
+    static final double BASE_RATE = 500.0;
+
+    static final Map<String, Double> VEHICLE_FACTORS = Map.of("SUV", 1.5, "SEDAN", 1.0, "SPORT", 2.0);
+
+    static final String[] REGIONS = {
+            "Baden-Württemberg", "Bayern", "Berlin", "Brandenburg", "Bremen", "Hamburg", "Hessen",
+            "Mecklenburg-Vorpommern", "Niedersachsen", "Nordrhein-Westfalen", "Rheinland-Pfalz",
+            "Saarland", "Sachsen", "Sachsen-Anhalt", "Schleswig-Holstein", "Thüringen"};
+
+    /**
+     * Number of generated requests, a power of two so the index can be masked.
+     */
+    static final int REQUEST_COUNT = 1024;
+
+    private BenchmarkTariff() {
+    }
+
+    static MileageBandIndex mileageBands() {
+        return MileageBandIndex.of(List.of(
+                new MileageBandIndex.Band(new BigDecimal("0"), new BigDecimal("5000"), 0.5),
+                new MileageBandIndex.Band(new BigDecimal("5001"), new BigDecimal("10000"), 1.0),
+                new MileageBandIndex.Band(new BigDecimal("10001"), new BigDecimal("20000"), 1.5),
+                new MileageBandIndex.Band(new BigDecimal("20001"), new BigDecimal("100000000"), 2.0)));
+    }
+
+    static Map<String, Double> regionFactors() {
+        Map<String, Double> factors = new HashMap<>();
+        for (int i = 0; i < REGIONS.length; i++) {
+            factors.put(REGIONS[i], 0.8 + i * 0.05);
+        }
+        return factors;
+    }
+
+    static PostcodeRegionIndex regions() {
+        Map<String, String> regionsByPostcode = new HashMap<>();
+        for (int postcode = 1000; postcode < 100_000; postcode++) {
+            regionsByPostcode.put(postcode(postcode), REGIONS[postcode % REGIONS.length]);
+        }
+        return PostcodeRegionIndex.of(regionsByPostcode, regionFactors());
+    }
+
+    static TariffSnapshot snapshot(boolean withPremiumMatrix) {
+        PostcodeRegionIndex regions = regions();
+        MileageBandIndex mileageBands = mileageBands();
+        PremiumMatrix matrix = withPremiumMatrix
+                ? PremiumMatrix.of(BASE_RATE, VEHICLE_FACTORS, regions, mileageBands)
+                : null;
+        return new TariffSnapshot(VEHICLE_FACTORS, regions, mileageBands, 1, matrix);
+    }
+
+    static PremiumRequest[] requests() {
+        Random random = new Random(42);
+        String[] vehicleTypes = VEHICLE_FACTORS.keySet().stream().sorted().toArray(String[]::new);
+        PremiumRequest[] requests = new PremiumRequest[REQUEST_COUNT];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new PremiumRequest(
+                    random.nextInt(40_000),
+                    vehicleTypes[random.nextInt(vehicleTypes.length)],
+                    postcode(1000 + random.nextInt(99_000)));
+        }
+        return requests;
+    }
+
+    static String postcode(int value) {
+        return String.format("%05d", value);
+    }
+}
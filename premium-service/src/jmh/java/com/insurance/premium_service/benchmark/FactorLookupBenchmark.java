@@ -0,0 +1,91 @@
+package com.insurance.premium_service.benchmark;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.PremiumMatrix;
+import com.insurance.premium_core.Rating;
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.model.PremiumRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the single factor lookups and the in-memory lookup structures
+ * behind them.
+ *     
+ * Each benchmark consumes one request of the generated sequence, so the
+ * lookups do not always hit the same cache line.
+ * 
+ * @author Aylin Yilmaz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FactorLookupBenchmark {
+
+    private TariffSnapshot snapshot;
+    private MileageBandIndex mileageBands;
+    private PostcodeRegionIndex regions;
+    private PremiumMatrix premiumMatrix;
+    private RatingEngine ratingEngine;
+    private final Rating rating = new Rating();
+    private PremiumRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        snapshot = BenchmarkTariff.snapshot(true);
+        mileageBands = snapshot.getMileageBands();
+        regions = snapshot.getRegions();
+        premiumMatrix = snapshot.getPremiumMatrix();
+        ratingEngine = new RatingEngine(BenchmarkTariff.snapshot(false), BenchmarkTariff.BASE_RATE);
+        requests = BenchmarkTariff.requests();
+    }
+
+    private PremiumRequest nextRequest() {
+        return requests[next++ & (BenchmarkTariff.REQUEST_COUNT - 1)];
+    }
+
+    @Benchmark
+    public Double yearlyMileageFactor() {
+        return snapshot.getYearlyMileageFactor(nextRequest().getYearlyMileage());
+    }
+
+    @Benchmark
+    public Double vehicleFactor() {
+        return snapshot.getVehicleFactor(nextRequest().getVehicleType());
+    }
+
+    @Benchmark
+    public Double regionFactorByPostcode() {
+        return snapshot.getRegionFactorByPostcode(nextRequest().getPostcode());
+    }
+
+    @Benchmark
+    public int mileageBandOf() {
+        return mileageBands.bandOf(nextRequest().getYearlyMileage());
+    }
+
+    @Benchmark
+    public int regionOf() {
+        return regions.regionOf(nextRequest().getPostcode());
+    }
+
+    @Benchmark
+    public double premiumMatrix() {
+        PremiumRequest request = nextRequest();
+        return premiumMatrix.premiumOf(request.getVehicleType(), request.getYearlyMileage(), request.getPostcode());
+    }
+
+    @Benchmark
+    public double ratingEngine() {
+        PremiumRequest request = nextRequest();
+        ratingEngine.rate(request.getVehicleType(), request.getYearlyMileage(), request.getPostcode(), rating);
+        return rating.getPremium();
+    }
+}
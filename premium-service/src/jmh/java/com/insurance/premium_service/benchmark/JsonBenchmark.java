@@ -0,0 +1,54 @@
+package com.insurance.premium_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the JSON (de)serialization of {@link PremiumRequest} and
+ * {@link PremiumResponse}, using an ObjectMapper configured like the one of
+ * the application.
+ * 
+ * @author Aylin Yilmaz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestJson;
+    private PremiumResponse response;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = objectMapper.readerFor(PremiumRequest.class);
+        responseWriter = objectMapper.writerFor(PremiumResponse.class);
+        requestJson = "{\"vehicleType\":\"SUV\",\"yearlyMileage\":15000,\"postcode\":\"12345\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        response = new PremiumResponse(1237.5);
+    }
+
+    @Benchmark
+    public PremiumRequest readRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,190 @@
+package com.insurance.premium_service.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.PremiumFactors;
+import com.insurance.premium_service.repository.RegionRepository;
+import com.insurance.premium_service.repository.VehicleRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+import com.insurance.premium_service.service.FactorBatcher;
+import com.insurance.premium_service.service.PremiumCalculationService;
+import com.insurance.premium_service.service.PremiumMetrics;
+import com.insurance.premium_service.service.QuoteCache;
+import com.insurance.premium_service.service.QuoteLogger;
+import com.insurance.premium_service.service.SingleFlight;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import com.insurance.premium_service.tariff.TariffSnapshotLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of {@link PremiumCalculationService#calculatePremium(PremiumRequest)}
+ * in each of its modes.
+ *     
+ * The 'database' mode uses a proxy repository returning constant factors, so it
+ * measures the service overhead without the database round trip. The other
+ * modes use the synthetic
+ * {@link BenchmarkTariff}. Logging of 'com.insurance' is set to the level given
+ * by the 'logLevel' parameter; INFO writes five lines per quote to the console.
+ * With 'metrics=prometheus' the {@link PremiumMetrics} record into a Prometheus
+ * registry with percentile histograms as in production, 'noop' measures the
+ * calculation without recording.
+ * 
+ * @author Aylin Yilmaz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PremiumCalculationBenchmark {
+
+    @Param({"database", "quoteCache", "snapshot", "premiumMatrix"})
+    public String mode;
+
+    @Param({"WARN"})
+    public String logLevel;
+
+    @Param({"prometheus", "noop"})
+    public String metrics;
+
+    private PremiumCalculationService service;
+    private PremiumRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.insurance")).setLevel(Level.toLevel(logLevel));
+
+        TariffSnapshot snapshot = switch (mode) {
+            case "snapshot" -> BenchmarkTariff.snapshot(false);
+            case "premiumMatrix" -> BenchmarkTariff.snapshot(true);
+            default -> null;
+        };
+        TariffSnapshotLoader loader = new TariffSnapshotLoader(unused(PostCodeRepository.class),
+                unused(RegionRepository.class), unused(YearlyMileageRepository.class),
+                unused(VehicleRepository.class), null) {
+            @Override
+            public TariffSnapshot load() {
+                return snapshot;
+            }
+
+            @Override
+            public MileageBandIndex loadMileageBands() {
+                return BenchmarkTariff.mileageBands();
+            }
+        };
+        TariffSnapshotHolder holder = new TariffSnapshotHolder(loader, snapshot != null);
+        if (snapshot != null) {
+            holder.reload();
+        }
+        QuoteCache quoteCache = new QuoteCache(holder, loader, mode.equals("quoteCache"), 100_000, Duration.ofHours(1));
+
+        MeterRegistry meterRegistry = meterRegistry();
+        // Micro batching is off: a single benchmark thread would only wait for the window of every batch
+        FactorBatcher factorBatcher = new FactorBatcher(null, false, Duration.ZERO, 1);
+        service = new PremiumCalculationService(postCodeRepository(), unused(RegionRepository.class),
+                unused(YearlyMileageRepository.class), holder,
+                null, quoteCache, new SingleFlight(true, meterRegistry), factorBatcher,
+                new PremiumMetrics(meterRegistry), new QuoteLogger(1.0), disabledAuditJournal(holder));
+        Field baseRate = PremiumCalculationService.class.getDeclaredField("baseRate");
+        baseRate.setAccessible(true);
+        baseRate.set(service, BenchmarkTariff.BASE_RATE);
+
+        requests = BenchmarkTariff.requests();
+    }
+
+    @Benchmark
+    public PremiumResponse calculatePremium() {
+        return service.calculatePremium(requests[next++ & (BenchmarkTariff.REQUEST_COUNT - 1)]);
+    }
+
+    /**
+     * Creates an audit journal that is switched off, {@link QuoteAuditJournalBenchmark}
+     * covers the journal.
+     */
+    private static QuoteAuditJournal disabledAuditJournal(TariffSnapshotHolder holder) {
+        return new QuoteAuditJournal(holder, new CompositeMeterRegistry(), false, Path.of("target/audit"),
+                DataSize.ofMegabytes(64), 1024, Duration.ofSeconds(1), Duration.ZERO, BenchmarkTariff.BASE_RATE);
+    }
+
+    /**
+     * Creates the registry for the 'metrics' parameter. A composite registry
+     * without children turns every meter into a no-op.
+     */
+    private MeterRegistry meterRegistry() {
+        if (metrics.equals("noop")) {
+            return new CompositeMeterRegistry();
+        }
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        return registry;
+    }
+
+    /**
+     * Creates a repository stub that answers every factor query with the same
+     * constant factors, comparable to a database returning one row.
+     */
+    private static PostCodeRepository postCodeRepository() {
+        PremiumFactors factors = new PremiumFactors() {
+            @Override
+            public Double getYearlyMileageFactor() {
+                return 1.5;
+            }
+
+            @Override
+            public Double getVehicleFactor() {
+                return 1.5;
+            }
+
+            @Override
+            public Double getRegionFactor() {
+                return 1.1;
+            }
+        };
+        return proxy(PostCodeRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findPremiumFactors")) {
+                return factors;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T unused(Class<T> type) {
+        return proxy(type, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+}
@@ -0,0 +1,136 @@
+package com.insurance.premium_service.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.audit.QuoteAuditRecord;
+import com.insurance.premium_service.audit.QuoteAuditReader;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.service.PremiumMetrics;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of the quote audit journal.
+ *     
+ * 'append' measures the time a request thread spends in
+ * {@link QuoteAuditJournal#append}, including waits for free slots when the
+ * writer thread falls behind. Segments are deleted right after rolling, so the
+ * benchmark does not fill the disk. 'scan' reads a journal of one million
+ * records with {@link QuoteAuditReader}; the score per operation is the time
+ * for all records.
+ * 
+ * @author Aylin Yilmaz
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteAuditJournalBenchmark {
+
+    private static final int SCAN_RECORDS = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+
+        QuoteAuditJournal journal;
+        PremiumRequest[] requests;
+        Path directory;
+
+        @Setup
+        public void setUp() throws Exception {
+            ((Logger) LoggerFactory.getLogger("com.insurance")).setLevel(Level.WARN);
+            directory = Files.createTempDirectory("audit-append");
+            journal = newJournal(directory, Duration.ofMillis(1));
+            requests = BenchmarkTariff.requests();
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            invoke(journal, "stop");
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int next;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ScanState {
+
+        Path directory;
+
+        @Setup
+        public void setUp() throws Exception {
+            ((Logger) LoggerFactory.getLogger("com.insurance")).setLevel(Level.WARN);
+            directory = Files.createTempDirectory("audit-scan");
+            QuoteAuditJournal journal = newJournal(directory, Duration.ZERO);
+            PremiumRequest[] requests = BenchmarkTariff.requests();
+            for (int i = 0; i < SCAN_RECORDS; i++) {
+                journal.append(requests[i & (BenchmarkTariff.REQUEST_COUNT - 1)], PremiumMetrics.Source.SNAPSHOT,
+                        QuoteAuditRecord.Status.OK, 1.5, 1.5, 1.1, 1237.5);
+            }
+            invoke(journal, "stop");
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void append(AppendState state, ThreadState thread) {
+        state.journal.append(state.requests[thread.next++ & (BenchmarkTariff.REQUEST_COUNT - 1)],
+                PremiumMetrics.Source.SNAPSHOT, QuoteAuditRecord.Status.OK, 1.5, 1.5, 1.1, 1237.5);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scan(ScanState state, Blackhole blackhole) {
+        return new QuoteAuditReader(state.directory, false).scan(record -> {
+            if (record.hasPostcode("12345")) {
+                blackhole.consume(record.getPremium());
+            }
+        });
+    }
+
+    private static QuoteAuditJournal newJournal(Path directory, Duration retention) throws Exception {
+        QuoteAuditJournal journal = new QuoteAuditJournal(new TariffSnapshotHolder(null, false),
+                new SimpleMeterRegistry(), true, directory, DataSize.ofMegabytes(64), 65536,
+                Duration.ofSeconds(1), retention, BenchmarkTariff.BASE_RATE);
+        invoke(journal, "start");
+        return journal;
+    }
+
+    /**
+     * Calls the lifecycle methods Spring would call.
+     */
+    private static void invoke(QuoteAuditJournal journal, String name) throws Exception {
+        Method method = QuoteAuditJournal.class.getDeclaredMethod(name);
+        method.setAccessible(true);
+        method.invoke(journal);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.insurance.premium_service.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the server side (de)serialization per wire format: reading the
+ * request body and writing the response body of POST /api/premium/calculate
+ * (batchSize 1) and of POST /api/premium/calculate/batch (batchSize &gt; 1).
+ *
+ * The mappers are configured like the ones of the application. The encoded
+ * sizes of request and response are printed at the start of every trial.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="WireFormatBenchmark"
+ *
+ * @author Aylin Yilmaz
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestBody;
+    private Object response;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+
+        List<PremiumRequest> requests = List.of(BenchmarkTariff.requests()).subList(0, batchSize);
+        if (batchSize == 1) {
+            requestReader = objectMapper.readerFor(PremiumRequest.class);
+            responseWriter = objectMapper.writerFor(PremiumResponse.class);
+            requestBody = objectMapper.writeValueAsBytes(requests.get(0));
+            response = new PremiumResponse(1237.5);
+        } else {
+            requestReader = objectMapper.readerFor(new TypeReference<List<PremiumRequest>>() { });
+            responseWriter = objectMapper.writerFor(new TypeReference<List<PremiumBatchResult>>() { });
+            requestBody = objectMapper.writeValueAsBytes(requests);
+            List<PremiumBatchResult> results = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                results.add(i % 20 == 0
+                        ? PremiumBatchResult.failure("Invalid postcode or region: " + requests.get(i).getPostcode())
+                        : PremiumBatchResult.success(1237.5 + i));
+            }
+            response = results;
+        }
+        System.out.printf("%n%s, batchSize %d: request %d bytes, response %d bytes%n",
+                format, batchSize, requestBody.length, responseWriter.writeValueAsBytes(response).length);
+    }
+
+    @Benchmark
+    public void readRequestWriteResponse(Blackhole blackhole) throws IOException {
+        blackhole.consume(requestReader.readValue(requestBody));
+        blackhole.consume(responseWriter.writeValueAsBytes(response));
+    }
+
+    @Benchmark
+    public Object readRequest() throws IOException {
+        return requestReader.readValue(requestBody);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,86 @@
+package com.insurance.premium_service.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses which of the generated request keys is sent next.
+ *     
+ * With the uniform distribution every key is equally likely. With the Zipf
+ * distribution the key of rank k is chosen with a probability proportional to
+ * 1 / k^exponent, so a few keys make up most of the traffic, as with real quote
+ * requests. The cumulative distribution is precomputed once, a sample is a
+ * binary search over it.
+ * 
+ * @author Aylin Yilmaz
+ */
+final class KeyDistribution {
+
+    private final SplittableRandom random;
+    private final double[] cumulative;
+    private final int keyCount;
+
+    private KeyDistribution(SplittableRandom random, double[] cumulative, int keyCount) {
+        this.random = random;
+        this.cumulative = cumulative;
+        this.keyCount = keyCount;
+    }
+
+    /**
+     * Creates a distribution choosing every key with the same probability.
+     * 
+     * @param keyCount number of keys
+     * @param seed seed of the random generator
+     * @return the distribution
+     */
+    static KeyDistribution uniform(int keyCount, long seed) {
+        return new KeyDistribution(new SplittableRandom(seed), null, keyCount);
+    }
+
+    /**
+     * Creates a Zipf distribution over the keys, key 0 being the most frequent.
+     * 
+     * @param keyCount number of keys
+     * @param exponent skew of the distribution, 0 is uniform, around 1 is typical
+     * @param seed seed of the random generator
+     * @return the distribution
+     */
+    static KeyDistribution zipf(int keyCount, double exponent, long seed) {
+        double[] cumulative = new double[keyCount];
+        double sum = 0;
+        for (int rank = 1; rank <= keyCount; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            cumulative[i] /= sum;
+        }
+        return new KeyDistribution(new SplittableRandom(seed), cumulative, keyCount);
+    }
+
+    /**
+     * Chooses the next key. Not thread-safe.
+     * 
+     * @return the key index
+     */
+    int next() {
+        if (cumulative == null) {
+            return random.nextInt(keyCount);
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, keyCount - 1);
+    }
+
+    /**
+     * Calculates the share of all requests going to the most frequent keys.
+     * 
+     * @param keys number of most frequent keys
+     * @return the share between 0 and 1
+     */
+    double shareOfTop(int keys) {
+        if (cumulative == null) {
+            return (double) Math.min(keys, keyCount) / keyCount;
+        }
+        return cumulative[Math.min(keys, keyCount) - 1];
+    }
+}
@@ -0,0 +1,227 @@
+package com.insurance.premium_service.loadtest;
+
+import com.insurance.premium_service.PremiumServiceApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Self-contained load test of {@code POST /api/premium/calculate}.
+ *     
+ * The harness seeds an in-memory H2 database in PostgreSQL mode with a tariff of
+ * production size (see {@link TariffSeeder}), starts the application against it
+ * on a random local port and sends requests at a fixed rate (open loop). The
+ * latency of every request is measured from the time it was scheduled to be
+ * sent, not from the time it actually was sent, so a stalled server shows up in
+ * the percentiles instead of silently lowering the request rate (coordinated
+ * omission). Everything runs in one JVM over the loopback interface.
+ * 
+ *     Options (all others, e.g. --premium.tariff.snapshot.enabled=true, are passed
+ * to the application):
+ * 
+ *   --rate=500               requests per second
+ *   --duration=30s           measured duration
+ *   --warmup=10s             duration before measuring, not recorded
+ *   --distribution=uniform   uniform or zipf
+ *   --zipf-exponent=1.0      skew of the zipf distribution
+ *   --keys=100000            number of distinct requests
+ *   --max-in-flight=1000     maximum number of outstanding requests
+ *   --histogram=target/loadtest-latency.hgrm   percentile distribution output
+ * 
+ * @author Aylin Yilmaz
+ */
+public final class LoadTestHarness {
+
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:premium;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final Map<String, String> APPLICATION_PROPERTIES = Map.of(
+            "spring.datasource.url", JDBC_URL,
+            "spring.datasource.username", "sa",
+            "spring.datasource.password", "",
+            "spring.datasource.driver-class-name", "org.h2.Driver",
+            "spring.jpa.hibernate.ddl-auto", "none",
+            "spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "spring.jpa.show-sql", "false",
+            "server.port", "0",
+            "premium.grpc.port", "0",
+            "logging.level.com.insurance", "WARN");
+
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final String distribution;
+    private final double zipfExponent;
+    private final int keys;
+    private final int maxInFlight;
+    private final Path histogramFile;
+
+    private final Recorder recorder = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private LoadTestHarness(Map<String, String> options) {
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        this.duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        this.warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        this.distribution = options.getOrDefault("distribution", "uniform");
+        this.zipfExponent = Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0"));
+        this.keys = Integer.parseInt(options.getOrDefault("keys", "100000"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "1000"));
+        this.histogramFile = Path.of(options.getOrDefault("histogram", "target/loadtest-latency.hgrm"));
+    }
+
+    /**
+     * Runs the load test.
+     * 
+     * @param args harness options and application arguments
+     * @throws Exception if the database cannot be seeded or the application does not start
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : null;
+            if (name != null && !name.contains(".")) {
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        LoadTestHarness harness = new LoadTestHarness(options);
+
+        TariffSeeder.Seed seed = TariffSeeder.seed(JDBC_URL);
+
+        // system properties take precedence over application.properties
+        APPLICATION_PROPERTIES.forEach(System::setProperty);
+        try (ConfigurableApplicationContext context =
+                     SpringApplication.run(PremiumServiceApplication.class, applicationArgs.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            harness.run(URI.create("http://localhost:" + port + "/api/premium/calculate"), seed);
+        }
+    }
+
+    private void run(URI uri, TariffSeeder.Seed seed) throws Exception {
+        HttpRequest[] requests = generateRequests(uri, seed);
+        KeyDistribution keyDistribution = distribution.equals("zipf")
+                ? KeyDistribution.zipf(keys, zipfExponent, 7)
+                : KeyDistribution.uniform(keys, 7);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("Load test: rate=%d/s, warmup=%s, duration=%s, distribution=%s, keys=%d "
+                        + "(top 1%% of keys = %.1f%% of requests)%n",
+                rate, warmup, duration, distribution.equals("zipf") ? "zipf(" + zipfExponent + ")" : distribution,
+                keys, keyDistribution.shareOfTop(Math.max(1, keys / 100)) * 100);
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        send(client, requests, keyDistribution, inFlight, warmup);
+        // let the warmup requests complete, so they are neither counted nor recorded
+        drain(inFlight);
+        inFlight.release(maxInFlight);
+        recorder.getIntervalHistogram();
+        completed.set(0);
+        failed.set(0);
+
+        long start = System.nanoTime();
+        long sent = send(client, requests, keyDistribution, inFlight, duration);
+        drain(inFlight);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        System.out.printf("Sent %d, completed %d, failed %d, throughput %.1f req/s%n",
+                sent, completed.get(), failed.get(), completed.get() / seconds);
+        System.out.printf("Latency (ms): p50=%.2f p90=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+
+        Files.createDirectories(histogramFile.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(new FileOutputStream(histogramFile.toFile()))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+        System.out.println("Latency histogram (ms) written to " + histogramFile);
+    }
+
+    /**
+     * Sends requests at the configured rate for the given duration.
+     * 
+     * @return the number of requests sent
+     */
+    private long send(HttpClient client, HttpRequest[] requests, KeyDistribution keyDistribution,
+                      Semaphore inFlight, Duration sendDuration) throws InterruptedException {
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + sendDuration.toNanos();
+        long sent = 0;
+
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            long intendedStart = scheduled;
+            client.sendAsync(requests[keyDistribution.next()], HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        recorder.recordValue(Math.min((System.nanoTime() - intendedStart) / 1000,
+                                TimeUnit.MINUTES.toMicros(1)));
+                        if (error != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        } else {
+                            completed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+            sent++;
+        }
+        return sent;
+    }
+
+    private void drain(Semaphore inFlight) throws InterruptedException {
+        if (!inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Requests still outstanding 30 s after the last one was sent");
+        }
+    }
+
+    private HttpRequest[] generateRequests(URI uri, TariffSeeder.Seed seed) {
+        SplittableRandom random = new SplittableRandom(11);
+        HttpRequest[] requests = new HttpRequest[keys];
+        for (int i = 0; i < keys; i++) {
+            String body = String.format("{\"vehicleType\":\"%s\",\"yearlyMileage\":%d,\"postcode\":\"%s\"}",
+                    seed.vehicleTypes()[random.nextInt(seed.vehicleTypes().length)],
+                    random.nextInt(seed.maxMileage()),
+                    seed.postcodes()[random.nextInt(seed.postcodes().length)]);
+            requests[i] = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+        }
+        return requests;
+    }
+}
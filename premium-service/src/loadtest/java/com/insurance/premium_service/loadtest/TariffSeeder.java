@@ -0,0 +1,142 @@
+package com.insurance.premium_service.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+
+/**
+ * Creates the reference tables in the embedded database and fills them with a
+ * tariff of production size.
+ *     
+ * The schema mirrors the PostgreSQL tables the entities are mapped to. The data
+ * consists of
+ * 
+ *   all 99,000 five-digit postcodes from 01000 to 99999 (a superset of the
+ *   roughly 28,000 postcodes in use),
+ *   one region per two-digit postcode zone ("Leitregion"), i.e. 99 regions,
+ *   39 yearly mileage bands from 0 to 100,000,000 km and
+ *   8 vehicle types.
+ * 
+ * All factors are generated with a fixed seed, so every run uses the same tariff.
+ * 
+ * @author Aylin Yilmaz
+ */
+final class TariffSeeder {
+
+    private static final String[] VEHICLE_TYPES = {"SUV", "SEDAN", "SPORT", "KOMBI", "VAN", "CABRIO", "PICKUP", "KLEINWAGEN"};
+
+    private TariffSeeder() {
+    }
+
+    /**
+     * Creates and fills the reference tables.
+     * 
+     * @param jdbcUrl URL of the embedded database, which must stay open after the
+     *                connection is closed
+     * @return the values requests can be generated from
+     * @throws SQLException if the schema cannot be created or filled
+     */
+    static Seed seed(String jdbcUrl) throws SQLException {
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        String[] postcodes = postcodes();
+        int mileageBands = 0;
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE regions (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "region VARCHAR(255), region_factor DOUBLE PRECISION)");
+                statement.execute("CREATE TABLE postcodes (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "postcode VARCHAR(255), region_id BIGINT REFERENCES regions (id))");
+                statement.execute("CREATE TABLE vehicle (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "vehicle_type VARCHAR(255), vehicle_factor DOUBLE PRECISION)");
+                statement.execute("CREATE TABLE yearly_mileage (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + "yearly_mileage_from NUMERIC(38, 2), yearly_mileage_to NUMERIC(38, 2), "
+                        + "yearly_mileage_factor DOUBLE PRECISION)");
+                statement.execute("CREATE UNIQUE INDEX postcodes_postcode ON postcodes (postcode)");
+                statement.execute("CREATE UNIQUE INDEX vehicle_vehicle_type ON vehicle (vehicle_type)");
+                statement.execute("CREATE INDEX yearly_mileage_range ON yearly_mileage (yearly_mileage_from, yearly_mileage_to)");
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO regions (id, region, region_factor) VALUES (?, ?, ?)")) {
+                for (int zone = 1; zone <= 99; zone++) {
+                    insert.setLong(1, zone);
+                    insert.setString(2, String.format("Leitregion %02d", zone));
+                    insert.setDouble(3, factor(random, 0.8, 1.6));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO postcodes (postcode, region_id) VALUES (?, ?)")) {
+                for (String postcode : postcodes) {
+                    insert.setString(1, postcode);
+                    // the region is the two-digit postcode zone
+                    insert.setLong(2, Integer.parseInt(postcode.substring(0, 2)));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO vehicle (vehicle_type, vehicle_factor) VALUES (?, ?)")) {
+                for (String vehicleType : VEHICLE_TYPES) {
+                    insert.setString(1, vehicleType);
+                    insert.setDouble(2, factor(random, 0.7, 2.5));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO yearly_mileage (yearly_mileage_from, yearly_mileage_to, yearly_mileage_factor) VALUES (?, ?, ?)")) {
+                // 0-5,000, then 38 bands of 2,500 km up to 100,000, then everything above
+                int from = 0;
+                int to = 5000;
+                double factor = 0.5;
+                while (from <= 100_000) {
+                    insert.setInt(1, from);
+                    insert.setInt(2, from > 97_500 ? 100_000_000 : to);
+                    insert.setDouble(3, factor);
+                    insert.addBatch();
+                    mileageBands++;
+                    from = to + 1;
+                    to += 2500;
+                    factor = Math.round((factor + 0.05) * 100) / 100.0;
+                }
+                insert.executeBatch();
+            }
+        }
+
+        System.out.printf("Seeded %d postcodes, 99 regions, %d mileage bands, %d vehicle types in %d ms%n",
+                postcodes.length, mileageBands, VEHICLE_TYPES.length, (System.nanoTime() - start) / 1_000_000);
+        return new Seed(postcodes, VEHICLE_TYPES.clone(), 120_000);
+    }
+
+    private static String[] postcodes() {
+        String[] postcodes = new String[99_000];
+        for (int i = 0; i < postcodes.length; i++) {
+            postcodes[i] = String.format("%05d", 1000 + i);
+        }
+        return postcodes;
+    }
+
+    private static double factor(SplittableRandom random, double min, double max) {
+        return Math.round(random.nextDouble(min, max) * 100) / 100.0;
+    }
+
+    /**
+     * Values of the seeded tariff.
+     * 
+     * @param postcodes all seeded postcodes
+     * @param vehicleTypes all seeded vehicle types
+     * @param maxMileage upper bound for generated yearly mileages
+     */
+    record Seed(String[] postcodes, String[] vehicleTypes, int maxMileage) {
+    }
+}
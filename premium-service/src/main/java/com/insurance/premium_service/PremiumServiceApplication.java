@@ -1,9 +1,17 @@
 package com.insurance.premium_service;
 
+import com.insurance.premium_service.config.PremiumServiceRuntimeHints;
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.model.TariffStatus;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Main application class for the Insurance Premium Service.
@@ -18,9 +26,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * The application uses PostgreSQL database to store reference data
  * for premium calculation factors and Spring Data JPA for data access.
  * 
+ * It can also be built as a GraalVM native executable with the Maven profile
+ * 'native'; the hints for the native image are registered here.
+ * 
  * @author Aylin Yilmaz
  */
 @SpringBootApplication
+@ImportRuntimeHints(PremiumServiceRuntimeHints.class)
+@RegisterReflectionForBinding({PremiumRequest.class, PremiumResponse.class, PremiumBatchResult.class, TariffStatus.class})
 public class PremiumServiceApplication {
 
 	private static final Logger log = LoggerFactory.getLogger(PremiumServiceApplication.class);
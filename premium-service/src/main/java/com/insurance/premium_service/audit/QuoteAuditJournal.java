@@ -0,0 +1,301 @@
+package com.insurance.premium_service.audit;
+
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.service.PremiumMetrics;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only journal of every quote with its inputs, factors and result.
+ *
+ * Request threads encode their record into a preallocated ring buffer and
+ * return; a single writer thread copies the records in sequence order into the
+ * memory-mapped segment files of the {@link QuoteJournalWriter}. The ring is
+ * lock-free: a request thread claims a slot by incrementing a counter, writes
+ * the slot and publishes it by storing the claimed sequence for the slot. The
+ * writer thread only copies published slots and then releases them.
+ *
+ *     No quote appended with {@link #append} is dropped. If the ring is full
+ * because the disk cannot keep up, the request thread waits for a free slot,
+ * which is counted in 'premium.audit.producer.waits'. The pages are forced to
+ * disk every flush interval and on shutdown. Only if the writer thread fails, or
+ * during shutdown, waiting quotes give up instead of blocking forever; they are
+ * counted in 'premium.audit.dropped'.
+ *
+ *     Threads that must not wait, like the event loop of the reactive profile,
+ * use {@link #offer} instead. It only claims a slot if one is free and otherwise
+ * drops the quote, which is counted in 'premium.audit.dropped' as well.
+ *
+ * Enabled with 'premium.audit.enabled'. When disabled, {@link #append} returns
+ * immediately and no thread or file is created.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class QuoteAuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteAuditJournal.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SHUTDOWN_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int ringSize;
+    private final Duration flushInterval;
+    private final Duration retention;
+    private final double baseRate;
+
+    private ByteBuffer ring;
+    private AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private Counter producerWaits;
+    private Counter dropped;
+
+    private QuoteJournalWriter writer;
+    private long firstSequence;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Constructs a new QuoteAuditJournal.
+     *
+     * @param tariffSnapshotHolder holder of the tariff snapshot, for the tariff version, must not be null
+     * @param meterRegistry registry for the journal meters, must not be null
+     * @param enabled whether quotes are journaled
+     * @param directory directory of the segment files
+     * @param segmentSize size of a segment file in bytes
+     * @param ringSize number of records buffered between request threads and writer, a power of two
+     * @param flushInterval interval for forcing the written records to disk
+     * @param retention minimum age of segment files to delete, zero to keep all
+     * @param baseRate base rate of the premium calculation
+     */
+    public QuoteAuditJournal(
+            TariffSnapshotHolder tariffSnapshotHolder,
+            MeterRegistry meterRegistry,
+            @Value("${premium.audit.enabled:false}") boolean enabled,
+            @Value("${premium.audit.directory:audit}") Path directory,
+            @Value("${premium.audit.segment-size:64MB}") DataSize segmentSize,
+            @Value("${premium.audit.ring-size:65536}") int ringSize,
+            @Value("${premium.audit.flush-interval:1s}") Duration flushInterval,
+            @Value("${premium.audit.retention:0}") Duration retention,
+            @Value("${premium.calculation.base-rate}") double baseRate) {
+
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("premium.audit.ring-size must be a power of two: " + ringSize);
+        }
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.ringSize = ringSize;
+        this.flushInterval = flushInterval;
+        this.retention = retention;
+        this.baseRate = baseRate;
+    }
+
+    /**
+     * Opens the journal and starts the writer thread if auditing is enabled.
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        writer = new QuoteJournalWriter(directory, segmentSize, retention);
+        firstSequence = writer.open();
+
+        ring = ByteBuffer.allocateDirect(ringSize * QuoteAuditRecord.SIZE).order(QuoteAuditRecord.BYTE_ORDER);
+        published = new AtomicLongArray(ringSize);
+        for (int slot = 0; slot < ringSize; slot++) {
+            published.set(slot, -1);
+        }
+
+        producerWaits = Counter.builder("premium.audit.producer.waits")
+                .description("Quotes that waited for a free slot in the audit ring buffer")
+                .register(meterRegistry);
+        dropped = Counter.builder("premium.audit.dropped")
+                .description("Quotes not journaled because the audit writer stopped or the ring buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("premium.audit.records", released, AtomicLong::get)
+                .description("Quotes written to the audit journal since startup")
+                .register(meterRegistry);
+        Gauge.builder("premium.audit.backlog", this, journal -> journal.claimed.get() - journal.released.get())
+                .description("Quotes buffered and not yet written to the audit journal")
+                .register(meterRegistry);
+
+        running = true;
+        thread = new Thread(this::run, "quote-audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Quote audit journal started: directory={}, nextSequence={}, ringSize={}",
+                directory.toAbsolutePath(), firstSequence, ringSize);
+    }
+
+    /**
+     * Writes the buffered records, forces them to disk and closes the journal.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer thread
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+        log.info("Quote audit journal stopped after {} records", released.get());
+    }
+
+    /**
+     * Returns whether quotes are journaled.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends a quote to the journal.
+     *
+     * @param request the premium calculation request
+     * @param source where the premium came from
+     * @param status the outcome of the quote
+     * @param yearlyMileageFactor the yearly mileage factor, NaN if not looked up or not found
+     * @param vehicleFactor the vehicle factor, NaN if not looked up or not found
+     * @param regionFactor the region factor, NaN if not looked up or not found
+     * @param premium the premium, NaN if the request was rejected
+     */
+    public void append(PremiumRequest request, PremiumMetrics.Source source, QuoteAuditRecord.Status status,
+                       double yearlyMileageFactor, double vehicleFactor, double regionFactor, double premium) {
+        if (!running) {
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        if (sequence - released.get() >= ringSize && !awaitFreeSlot(sequence)) {
+            return;
+        }
+        write(sequence, request, source, status, yearlyMileageFactor, vehicleFactor, regionFactor, premium);
+    }
+
+    /**
+     * Appends a quote to the journal if the ring buffer has a free slot, without
+     * waiting. If the ring is full, the quote is dropped and counted in
+     * 'premium.audit.dropped'.
+     *
+     * @param request the premium calculation request
+     * @param source where the premium came from
+     * @param status the outcome of the quote
+     * @param yearlyMileageFactor the yearly mileage factor, NaN if not looked up or not found
+     * @param vehicleFactor the vehicle factor, NaN if not looked up or not found
+     * @param regionFactor the region factor, NaN if not looked up or not found
+     * @param premium the premium, NaN if the request was rejected
+     * @return true if the quote was buffered for the writer, false if the journal is
+     *         disabled or stopped, or the ring was full
+     */
+    public boolean offer(PremiumRequest request, PremiumMetrics.Source source, QuoteAuditRecord.Status status,
+                         double yearlyMileageFactor, double vehicleFactor, double regionFactor, double premium) {
+        if (!running) {
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - released.get() >= ringSize) {
+                // a sequence once claimed must be published, so the slot is only claimed if it is free
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        write(sequence, request, source, status, yearlyMileageFactor, vehicleFactor, regionFactor, premium);
+        return true;
+    }
+
+    private void write(long sequence, PremiumRequest request, PremiumMetrics.Source source,
+                       QuoteAuditRecord.Status status, double yearlyMileageFactor, double vehicleFactor,
+                       double regionFactor, double premium) {
+        int slot = (int) (sequence & (ringSize - 1));
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        QuoteAuditRecord.write(ring, slot * QuoteAuditRecord.SIZE, firstSequence + sequence,
+                System.currentTimeMillis(), snapshot != null ? snapshot.getVersion() : TariffSnapshot.UNKNOWN_VERSION,
+                request.getVehicleType(), request.getYearlyMileage(), request.getPostcode(), source, status, baseRate,
+                yearlyMileageFactor, vehicleFactor, regionFactor, premium);
+        published.lazySet(slot, sequence);
+    }
+
+    private boolean awaitFreeSlot(long sequence) {
+        producerWaits.increment();
+        while (sequence - released.get() >= ringSize) {
+            if (!running) {
+                dropped.increment();
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private void run() {
+        long next = 0;
+        long nextFlush = System.nanoTime() + flushInterval.toNanos();
+        long stopDeadline = 0;
+        try {
+            while (true) {
+                int slot = (int) (next & (ringSize - 1));
+                if (published.get(slot) == next) {
+                    writer.append(ring, slot * QuoteAuditRecord.SIZE);
+                    next++;
+                    released.lazySet(next);
+                    continue;
+                }
+                if (!running) {
+                    // write what was claimed before the stop, unless a claim is never published
+                    if (stopDeadline == 0) {
+                        stopDeadline = System.nanoTime() + SHUTDOWN_GRACE_NANOS;
+                    }
+                    if (claimed.get() == next || System.nanoTime() - stopDeadline >= 0) {
+                        break;
+                    }
+                }
+                if (System.nanoTime() - nextFlush >= 0) {
+                    writer.force();
+                    nextFlush = System.nanoTime() + flushInterval.toNanos();
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        } catch (RuntimeException e) {
+            running = false;
+            log.error("Quote audit writer failed after sequence {}, quotes are no longer journaled",
+                    firstSequence + next - 1, e);
+        } finally {
+            writer.close();
+        }
+    }
+}
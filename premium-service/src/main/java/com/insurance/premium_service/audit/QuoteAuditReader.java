@@ -0,0 +1,249 @@
+package com.insurance.premium_service.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Reads the segment files of the quote audit journal.
+ *
+ * Every segment is mapped read-only and its records are visited through a single
+ * {@link QuoteAuditRecord} view, so scanning does not allocate per record and
+ * runs at memory speed once the pages are cached. The journal may be read while
+ * the service is writing it; records not yet completely written are skipped.
+ *
+ *     As a command line tool it prints the matching records as CSV and a summary
+ * to stderr:
+ *
+ *   java -cp premium-service.jar -Dloader.main=com.insurance.premium_service.audit.QuoteAuditReader \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher audit --postcode=12345
+ *
+ *   --from=2026-01-01T00:00:00Z --to=...   time range of the quotes
+ *   --postcode=... --vehicle-type=...       request values
+ *   --status=OK|INVALID_...                  outcome
+ *   --verify                                 check the checksum of every record
+ *   --count                                  only count, do not print the records
+ *
+ * @author Aylin Yilmaz
+ */
+public final class QuoteAuditReader {
+
+    private static final String SEGMENT_PREFIX = "quotes-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean verify;
+
+    /**
+     * Constructs a new QuoteAuditReader.
+     *
+     * @param directory the journal directory
+     * @param verify whether to skip records with an invalid checksum
+     */
+    public QuoteAuditReader(Path directory, boolean verify) {
+        this.directory = directory;
+        this.verify = verify;
+    }
+
+    /**
+     * Visits all records in sequence order.
+     *
+     * @param visitor called with the view of every record, which must not be kept
+     * @return the number of records visited
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public long scan(RecordVisitor visitor) {
+        QuoteAuditRecord record = new QuoteAuditRecord();
+        long count = 0;
+        try {
+            for (Path segment : segments(directory)) {
+                count += scanSegment(segment, record, visitor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit journal in " + directory, e);
+        }
+        return count;
+    }
+
+    private long scanSegment(Path path, QuoteAuditRecord record, RecordVisitor visitor) throws IOException {
+        MappedByteBuffer segment = map(path);
+        int end = segment.limit() - QuoteAuditRecord.SIZE;
+        long count = 0;
+        for (int position = QuoteJournalWriter.HEADER_SIZE; position <= end; position += QuoteAuditRecord.SIZE) {
+            record.wrap(segment, position);
+            if (!record.isWritten()) {
+                break;
+            }
+            if (verify && !record.isValid()) {
+                continue;
+            }
+            visitor.visit(record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Lists the segment files of a journal directory.
+     *
+     * @param directory the journal directory
+     * @return the segment files in sequence order, empty if the directory does not exist
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Builds the file name of a segment. The zero padded sequence sorts the
+     * names in sequence order.
+     *
+     * @param firstSequence the sequence of the first record in the segment
+     * @return the file name
+     */
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Finds the sequence of the last written record of a segment.
+     *
+     * @param path the segment file
+     * @return the sequence, or the first sequence of the segment minus one if it is empty
+     * @throws IOException if the segment cannot be read
+     */
+    static long lastSequence(Path path) throws IOException {
+        MappedByteBuffer segment = map(path);
+        long last = segment.getLong(16) - 1;
+        QuoteAuditRecord record = new QuoteAuditRecord();
+        for (int position = QuoteJournalWriter.HEADER_SIZE;
+             position <= segment.limit() - QuoteAuditRecord.SIZE; position += QuoteAuditRecord.SIZE) {
+            if (!record.wrap(segment, position).isWritten()) {
+                break;
+            }
+            last = record.getSequence();
+        }
+        return last;
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            segment.order(QuoteAuditRecord.BYTE_ORDER);
+            if (segment.limit() < QuoteJournalWriter.HEADER_SIZE || segment.getInt(0) != QuoteJournalWriter.SEGMENT_MAGIC) {
+                throw new IOException("Not an audit journal segment: " + path);
+            }
+            if (segment.getInt(4) != QuoteJournalWriter.FORMAT_VERSION || segment.getInt(8) != QuoteAuditRecord.SIZE) {
+                throw new IOException("Unsupported audit journal format in " + path);
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Scans a journal and prints the matching records.
+     *
+     * @param args the journal directory followed by the filter options
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: QuoteAuditReader <journal directory> [--from=<instant>] [--to=<instant>] "
+                    + "[--postcode=<postcode>] [--vehicle-type=<type>] [--status=<status>] [--verify] [--count]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Predicate<QuoteAuditRecord> filter = record -> true;
+        boolean verify = false;
+        boolean countOnly = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--from=")) {
+                long from = Instant.parse(value).toEpochMilli();
+                filter = filter.and(record -> record.getTimestampMillis() >= from);
+            } else if (arg.startsWith("--to=")) {
+                long to = Instant.parse(value).toEpochMilli();
+                filter = filter.and(record -> record.getTimestampMillis() < to);
+            } else if (arg.startsWith("--postcode=")) {
+                filter = filter.and(record -> record.hasPostcode(value));
+            } else if (arg.startsWith("--vehicle-type=")) {
+                filter = filter.and(record -> record.hasVehicleType(value));
+            } else if (arg.startsWith("--status=")) {
+                QuoteAuditRecord.Status status = QuoteAuditRecord.Status.valueOf(value);
+                filter = filter.and(record -> record.getStatus() == status);
+            } else if (arg.equals("--verify")) {
+                verify = true;
+            } else if (arg.equals("--count")) {
+                countOnly = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        if (!countOnly) {
+            out.println("sequence,timestamp,tariffVersion,vehicleType,yearlyMileage,postcode,source,status,"
+                    + "baseRate,yearlyMileageFactor,vehicleFactor,regionFactor,premium");
+        }
+        Predicate<QuoteAuditRecord> matches = filter;
+        boolean print = !countOnly;
+        long[] matched = new long[1];
+        long start = System.nanoTime();
+
+        long scanned = new QuoteAuditReader(directory, verify).scan(record -> {
+            if (matches.test(record)) {
+                matched[0]++;
+                if (print) {
+                    out.println(record.getSequence() + "," + record.getTimestamp() + "," + record.getTariffVersion()
+                            + "," + record.getVehicleType() + "," + record.getYearlyMileage() + ","
+                            + record.getPostcode() + "," + record.getSource() + "," + record.getStatus() + ","
+                            + record.getBaseRate() + "," + record.getYearlyMileageFactor() + ","
+                            + record.getVehicleFactor() + "," + record.getRegionFactor() + "," + record.getPremium());
+                }
+            }
+        });
+        out.flush();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Scanned %d records in %.3f s (%.0f records/s), %d matched%n",
+                scanned, seconds, scanned / Math.max(seconds, 1e-9), matched[0]);
+    }
+
+    /**
+     * Callback for the records of a scan.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+
+        /**
+         * Visits a record.
+         *
+         * @param record the view of the record, only valid during the call
+         */
+        void visit(QuoteAuditRecord record);
+    }
+}
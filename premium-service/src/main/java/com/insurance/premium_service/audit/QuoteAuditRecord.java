@@ -0,0 +1,307 @@
+package com.insurance.premium_service.audit;
+
+import com.insurance.premium_service.service.PremiumMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of an audited quote and a reusable view for reading it.
+ *
+ * Every record has the same size of {@value #SIZE} bytes, little-endian:
+ *
+ *   0  int     marker, {@link #MARKER} for a written record, 0 for free space
+ *   4  int     CRC32C of bytes 8 to 127
+ *   8  long    journal sequence
+ *  16  long    time of the quote, epoch milliseconds
+ *  24  long    tariff version, -1 if unknown
+ *  32  int     yearly mileage
+ *  36  byte    source of the premium, see {@link #sourceCode(PremiumMetrics.Source)}
+ *  37  byte    status, see {@link Status}
+ *  40  double  base rate
+ *  48  double  yearly mileage factor, NaN if not looked up
+ *  56  double  vehicle factor, NaN if not looked up
+ *  64  double  region factor, NaN if not looked up
+ *  72  double  premium, NaN if the request was rejected
+ *  80  24 bytes vehicle type, ISO-8859-1, zero padded, longer values truncated
+ * 104  16 bytes postcode, ISO-8859-1, zero padded, longer values truncated
+ * 120  8 bytes reserved
+ *
+ * Premiums served from the quote cache carry the factors cached with them,
+ * premiums read from the premium matrix the factors of the snapshot the matrix
+ * belongs to, so every OK record contains its factors.
+ *
+ *     An instance is a flyweight: {@link #wrap(ByteBuffer, int)} points it at a
+ * record without copying, so millions of records can be scanned without
+ * allocation. It must not be kept after the next call to wrap.
+ *
+ * @author Aylin Yilmaz
+ */
+public final class QuoteAuditRecord {
+
+    /** Size of a record in bytes. */
+    public static final int SIZE = 128;
+
+    /** Byte order of records and segment headers. */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /** Marker of a completely written record ("QUOT"). */
+    static final int MARKER = 0x544F5551;
+
+    private static final int MARKER_OFFSET = 0;
+    private static final int CRC_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int TIMESTAMP_OFFSET = 16;
+    private static final int TARIFF_VERSION_OFFSET = 24;
+    private static final int YEARLY_MILEAGE_OFFSET = 32;
+    private static final int SOURCE_OFFSET = 36;
+    private static final int STATUS_OFFSET = 37;
+    private static final int BASE_RATE_OFFSET = 40;
+    private static final int YEARLY_MILEAGE_FACTOR_OFFSET = 48;
+    private static final int VEHICLE_FACTOR_OFFSET = 56;
+    private static final int REGION_FACTOR_OFFSET = 64;
+    private static final int PREMIUM_OFFSET = 72;
+    private static final int VEHICLE_TYPE_OFFSET = 80;
+    private static final int VEHICLE_TYPE_LENGTH = 24;
+    private static final int POSTCODE_OFFSET = 104;
+    private static final int POSTCODE_LENGTH = 16;
+    private static final int CHECKED_OFFSET = 8;
+
+    private static final PremiumMetrics.Source[] SOURCES = {
+            null, PremiumMetrics.Source.PREMIUM_MATRIX, PremiumMetrics.Source.QUOTE_CACHE,
+            PremiumMetrics.Source.SNAPSHOT, PremiumMetrics.Source.DATABASE};
+
+    /**
+     * Outcome of an audited quote. The codes are part of the file format.
+     */
+    public enum Status {
+        OK(0), INVALID_YEARLY_MILEAGE(1), INVALID_VEHICLE_TYPE(2), INVALID_POSTCODE(3);
+
+        private final byte code;
+
+        Status(int code) {
+            this.code = (byte) code;
+        }
+
+        static Status of(byte code) {
+            for (Status status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown status code " + code);
+        }
+    }
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Writes a complete record, including marker and checksum.
+     *
+     * @param target the buffer to write to, in {@link #BYTE_ORDER}
+     * @param offset the position of the record in the buffer
+     * @param sequence the journal sequence
+     * @param timestampMillis the time of the quote
+     * @param tariffVersion the tariff version, -1 if unknown
+     * @param vehicleType the requested vehicle type, may be null
+     * @param yearlyMileage the requested yearly mileage
+     * @param postcode the requested postcode, may be null
+     * @param source where the premium came from
+     * @param status the outcome of the quote
+     * @param baseRate the base rate
+     * @param yearlyMileageFactor the yearly mileage factor, NaN if not looked up
+     * @param vehicleFactor the vehicle factor, NaN if not looked up
+     * @param regionFactor the region factor, NaN if not looked up
+     * @param premium the premium, NaN if the request was rejected
+     */
+    static void write(ByteBuffer target, int offset, long sequence, long timestampMillis, long tariffVersion,
+                      String vehicleType, int yearlyMileage, String postcode, PremiumMetrics.Source source,
+                      Status status, double baseRate, double yearlyMileageFactor, double vehicleFactor,
+                      double regionFactor, double premium) {
+
+        target.putLong(offset + SEQUENCE_OFFSET, sequence);
+        target.putLong(offset + TIMESTAMP_OFFSET, timestampMillis);
+        target.putLong(offset + TARIFF_VERSION_OFFSET, tariffVersion);
+        target.putInt(offset + YEARLY_MILEAGE_OFFSET, yearlyMileage);
+        target.put(offset + SOURCE_OFFSET, sourceCode(source));
+        target.put(offset + STATUS_OFFSET, status.code);
+        target.putShort(offset + STATUS_OFFSET + 1, (short) 0);
+        target.putDouble(offset + BASE_RATE_OFFSET, baseRate);
+        target.putDouble(offset + YEARLY_MILEAGE_FACTOR_OFFSET, yearlyMileageFactor);
+        target.putDouble(offset + VEHICLE_FACTOR_OFFSET, vehicleFactor);
+        target.putDouble(offset + REGION_FACTOR_OFFSET, regionFactor);
+        target.putDouble(offset + PREMIUM_OFFSET, premium);
+        putString(target, offset + VEHICLE_TYPE_OFFSET, VEHICLE_TYPE_LENGTH, vehicleType);
+        putString(target, offset + POSTCODE_OFFSET, POSTCODE_LENGTH, postcode);
+        target.putLong(offset + SIZE - Long.BYTES, 0);
+
+        target.putInt(offset + CRC_OFFSET, checksum(target, offset));
+        target.putInt(offset + MARKER_OFFSET, MARKER);
+    }
+
+    /**
+     * Gets the file format code of a premium source.
+     *
+     * @param source the source, may be null
+     * @return the code, 0 for null
+     */
+    static byte sourceCode(PremiumMetrics.Source source) {
+        if (source == null) {
+            return 0;
+        }
+        return switch (source) {
+            case PREMIUM_MATRIX -> 1;
+            case QUOTE_CACHE -> 2;
+            case SNAPSHOT -> 3;
+            case DATABASE -> 4;
+        };
+    }
+
+    /**
+     * Points this view at a record.
+     *
+     * @param buffer the buffer containing the record, in {@link #BYTE_ORDER}
+     * @param offset the position of the record in the buffer
+     * @return this view
+     */
+    public QuoteAuditRecord wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Returns whether the record has been written completely.
+     *
+     * @return false for free space at the end of a segment
+     */
+    public boolean isWritten() {
+        return buffer.getInt(offset + MARKER_OFFSET) == MARKER;
+    }
+
+    /**
+     * Verifies the checksum of the record.
+     *
+     * @return true if the record is unchanged since it was written
+     */
+    public boolean isValid() {
+        return isWritten() && buffer.getInt(offset + CRC_OFFSET) == checksum(buffer, offset);
+    }
+
+    public long getSequence() {
+        return buffer.getLong(offset + SEQUENCE_OFFSET);
+    }
+
+    public long getTimestampMillis() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(getTimestampMillis());
+    }
+
+    public long getTariffVersion() {
+        return buffer.getLong(offset + TARIFF_VERSION_OFFSET);
+    }
+
+    public int getYearlyMileage() {
+        return buffer.getInt(offset + YEARLY_MILEAGE_OFFSET);
+    }
+
+    public PremiumMetrics.Source getSource() {
+        int code = buffer.get(offset + SOURCE_OFFSET);
+        return code >= 0 && code < SOURCES.length ? SOURCES[code] : null;
+    }
+
+    public Status getStatus() {
+        return Status.of(buffer.get(offset + STATUS_OFFSET));
+    }
+
+    public double getBaseRate() {
+        return buffer.getDouble(offset + BASE_RATE_OFFSET);
+    }
+
+    public double getYearlyMileageFactor() {
+        return buffer.getDouble(offset + YEARLY_MILEAGE_FACTOR_OFFSET);
+    }
+
+    public double getVehicleFactor() {
+        return buffer.getDouble(offset + VEHICLE_FACTOR_OFFSET);
+    }
+
+    public double getRegionFactor() {
+        return buffer.getDouble(offset + REGION_FACTOR_OFFSET);
+    }
+
+    public double getPremium() {
+        return buffer.getDouble(offset + PREMIUM_OFFSET);
+    }
+
+    public String getVehicleType() {
+        return getString(offset + VEHICLE_TYPE_OFFSET, VEHICLE_TYPE_LENGTH);
+    }
+
+    public String getPostcode() {
+        return getString(offset + POSTCODE_OFFSET, POSTCODE_LENGTH);
+    }
+
+    /**
+     * Compares the vehicle type without creating a String.
+     *
+     * @param vehicleType the vehicle type to compare with
+     * @return true if the stored (possibly truncated) vehicle type is equal
+     */
+    public boolean hasVehicleType(String vehicleType) {
+        return stringEquals(offset + VEHICLE_TYPE_OFFSET, VEHICLE_TYPE_LENGTH, vehicleType);
+    }
+
+    /**
+     * Compares the postcode without creating a String.
+     *
+     * @param postcode the postcode to compare with
+     * @return true if the stored (possibly truncated) postcode is equal
+     */
+    public boolean hasPostcode(String postcode) {
+        return stringEquals(offset + POSTCODE_OFFSET, POSTCODE_LENGTH, postcode);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + CHECKED_OFFSET, SIZE - CHECKED_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static void putString(ByteBuffer target, int position, int length, String value) {
+        int chars = value != null ? Math.min(value.length(), length) : 0;
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            target.put(position + i, (byte) (c <= 0xFF ? c : '?'));
+        }
+        for (int i = chars; i < length; i++) {
+            target.put(position + i, (byte) 0);
+        }
+    }
+
+    private String getString(int position, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        while (count < length && buffer.get(position + count) != 0) {
+            chars[count] = (char) (buffer.get(position + count) & 0xFF);
+            count++;
+        }
+        return new String(chars, 0, count);
+    }
+
+    private boolean stringEquals(int position, int length, String value) {
+        int chars = Math.min(value.length(), length);
+        for (int i = 0; i < chars; i++) {
+            if ((buffer.get(position + i) & 0xFF) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return chars == length || buffer.get(position + chars) == 0;
+    }
+}
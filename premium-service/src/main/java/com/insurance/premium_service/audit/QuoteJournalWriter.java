@@ -0,0 +1,169 @@
+package com.insurance.premium_service.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends audit records to memory-mapped segment files.
+ *
+ * A segment is a file of fixed size named after the sequence of its first
+ * record, e.g. 'quotes-00000000000000524287.journal'. It starts with a header of
+ * {@link QuoteAuditRecord#SIZE} bytes, followed by the records. The file is
+ * mapped completely when it is created, so an append is a copy into the mapping
+ * and the operating system writes the pages in the background. Records already
+ * copied survive a crash of the JVM; {@link #force()} also makes them survive a
+ * crash of the machine.
+ *
+ *     When a segment is full, it is forced to disk and a new one is started.
+ * Segments whose last modification is older than the retention are deleted when
+ * rolling. After a restart, writing continues in a new segment with the
+ * sequence following the last written record.
+ *
+ * Not thread-safe, used by the single writer thread of {@link QuoteAuditJournal}.
+ *
+ * @author Aylin Yilmaz
+ */
+class QuoteJournalWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteJournalWriter.class);
+
+    /** Segment header: magic, format version, record size, first sequence, creation time. */
+    static final int SEGMENT_MAGIC = 0x314A4151;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = QuoteAuditRecord.SIZE;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration retention;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private int position;
+    private long nextSequence;
+
+    /**
+     * Constructs a new QuoteJournalWriter.
+     *
+     * @param directory directory of the segment files, created if missing
+     * @param segmentSize size of a segment file in bytes, at least two records
+     * @param retention minimum age of segments to delete, zero to keep all
+     */
+    QuoteJournalWriter(Path directory, int segmentSize, Duration retention) {
+        if (segmentSize < HEADER_SIZE + QuoteAuditRecord.SIZE) {
+            throw new IllegalArgumentException("Segment size " + segmentSize + " cannot hold a record");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - (segmentSize % QuoteAuditRecord.SIZE);
+        this.retention = retention;
+    }
+
+    /**
+     * Determines the next sequence from the existing segments. A segment is only
+     * created with the first record.
+     *
+     * @return the sequence of the next record
+     * @throws UncheckedIOException if the directory cannot be read
+     */
+    long open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = QuoteAuditReader.segments(directory);
+            nextSequence = segments.isEmpty() ? 0 : QuoteAuditReader.lastSequence(segments.get(segments.size() - 1)) + 1;
+            return nextSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open audit journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param source the buffer containing the record
+     * @param offset the position of the record in the buffer
+     * @throws UncheckedIOException if a new segment cannot be created
+     */
+    void append(ByteBuffer source, int offset) {
+        if (segment == null || position == segmentSize) {
+            roll();
+        }
+        segment.put(position, source, offset, QuoteAuditRecord.SIZE);
+        position += QuoteAuditRecord.SIZE;
+        nextSequence++;
+    }
+
+    /**
+     * Writes the modified pages of the current segment to disk.
+     */
+    void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Forces and closes the current segment.
+     */
+    @Override
+    public void close() {
+        if (segment == null) {
+            return;
+        }
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close audit segment {}: {}", segmentPath, e.getMessage());
+        }
+        segment = null;
+    }
+
+    private void roll() {
+        close();
+        try {
+            segmentPath = directory.resolve(QuoteAuditReader.segmentName(nextSequence));
+            channel = FileChannel.open(segmentPath,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.order(QuoteAuditRecord.BYTE_ORDER);
+            segment.putInt(0, SEGMENT_MAGIC);
+            segment.putInt(4, FORMAT_VERSION);
+            segment.putInt(8, QuoteAuditRecord.SIZE);
+            segment.putLong(16, nextSequence);
+            segment.putLong(24, System.currentTimeMillis());
+            position = HEADER_SIZE;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit segment " + segmentPath, e);
+        }
+        deleteExpiredSegments();
+    }
+
+    private void deleteExpiredSegments() {
+        if (retention.isZero()) {
+            return;
+        }
+        Instant expiry = Instant.now().minus(retention);
+        try {
+            for (Path path : QuoteAuditReader.segments(directory)) {
+                if (!path.equals(segmentPath) && Files.getLastModifiedTime(path).toInstant().isBefore(expiry)) {
+                    Files.delete(path);
+                    log.info("Deleted audit segment {} after retention of {}", path.getFileName(), retention);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not apply audit retention in {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.insurance.premium_service.config;
+
+import com.insurance.premium_service.entity.PostCode;
+import com.insurance.premium_service.entity.Region;
+import com.insurance.premium_service.entity.Vehicle;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.repository.PostcodeRegion;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reachability hints for the native image that Spring AOT cannot derive itself.
+ *
+ * The AOT processing of the 'native' Maven profile already registers the beans,
+ * the repository interfaces with their projections (including the
+ * {@code PremiumFactors} proxy), the managed JPA types and the request and
+ * response types of the controller methods. What is left:
+ *
+ *   1. The JPA entities with all their members, which Hibernate accesses
+ *      reflectively. The lazy {@link PostCode#getRegion()} association works
+ *      without runtime proxies because the profile enhances the entities at
+ *      build time.
+ *   2. The record {@link PostcodeRegion}, instantiated by name from the JPQL
+ *      constructor expression of the tariff snapshot query.
+ *   3. The cache and node classes Caffeine generates for the quote cache. They are
+ *      chosen by name from the builder settings (strong keys and values, stats,
+ *      maximum size, expire after write) and created through a MethodHandle, and
+ *      Caffeine does not ship native-image metadata.
+ *   4. The Logback AsyncAppender of the 'prod' logging configuration, which is
+ *      created by name from logback-spring.xml.
+ *
+ * The Jackson models used outside of controller signatures (the NDJSON stream)
+ * are registered with {@code @RegisterReflectionForBinding} on the application class.
+ *
+ * @author Aylin Yilmaz
+ */
+public class PremiumServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+    /** Cache class of Caffeine for strong keys/values, stats, maximum size and expire after write. */
+    static final String CAFFEINE_CACHE_CLASS = "com.github.benmanes.caffeine.cache.SSSMSW";
+
+    /** Node class of Caffeine for strong keys/values, expire after write and maximum size. */
+    static final String CAFFEINE_NODE_CLASS = "com.github.benmanes.caffeine.cache.PSWMS";
+
+    static final String ASYNC_APPENDER_CLASS = "ch.qos.logback.classic.AsyncAppender";
+
+    private static final List<Class<?>> ENTITIES = List.of(PostCode.class, Region.class, Vehicle.class, YearlyMileage.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.values());
+        }
+        hints.reflection().registerType(PostcodeRegion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        for (String caffeineClass : List.of(CAFFEINE_CACHE_CLASS, CAFFEINE_NODE_CLASS)) {
+            hints.reflection().registerType(TypeReference.of(caffeineClass),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS);
+        }
+        hints.reflection().registerType(TypeReference.of(ASYNC_APPENDER_CLASS),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,81 @@
+package com.insurance.premium_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * Configuration of the non-blocking database access used by the reactive profile.
+ *     
+ * Spring Boot's R2DBC auto-configuration is excluded in application.properties,
+ * because its reactive transaction manager would compete with the JPA transaction
+ * manager. This configuration therefore creates the R2DBC connection pool itself
+ * and enables the repositories in the 'repository.reactive' package. It is only
+ * active when the 'reactive' profile is enabled.
+ * 
+ *     Spring Boot does not create a JDBC DataSource as soon as an R2DBC connection
+ * factory exists. The JPA repositories are still needed in the reactive profile,
+ * e.g. for loading the tariff snapshot, so the DataSource is declared here as well.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackages = "com.insurance.premium_service.repository.reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveDatabaseConfig extends AbstractR2dbcConfiguration {
+
+    @Value("${spring.r2dbc.url}")
+    private String url;
+
+    @Value("${spring.r2dbc.username}")
+    private String username;
+
+    @Value("${spring.r2dbc.password}")
+    private String password;
+
+    @Value("${spring.r2dbc.pool.max-size:20}")
+    private int maxPoolSize;
+
+    /**
+     * Creates the pooled R2DBC connection factory.
+     * 
+     * @return the connection pool, disposed when the application context is closed
+     */
+    @Override
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxPoolSize)
+                .build());
+    }
+
+    /**
+     * Creates the JDBC DataSource used by the JPA repositories.
+     * 
+     * @param properties the 'spring.datasource' properties
+     * @return the Hikari connection pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.insurance.premium_service.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Web server configuration of the reactive profile.
+ *     
+ * Tomcat is on the classpath for the servlet stack and would otherwise also be
+ * chosen as server for WebFlux. This configuration selects Reactor Netty instead,
+ * which serves all connections from a small, fixed number of event-loop threads.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    /**
+     * Creates the Reactor Netty web server factory.
+     * 
+     * @return the Netty web server factory, customized with the 'server.*' properties
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
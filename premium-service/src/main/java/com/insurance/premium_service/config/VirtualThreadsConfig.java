@@ -0,0 +1,48 @@
+package com.insurance.premium_service.config;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Startup check of the virtual-thread profile.
+ *     
+ * Spring Boot silently ignores 'spring.threads.virtual.enabled' on Java runtimes
+ * older than 21, so the application would run on platform threads although the
+ * profile is active. This configuration fails the startup in that case instead.
+ * 
+ *     The JDBC path is free of pinning on the versions managed by Spring Boot:
+ * the PostgreSQL driver guards its connections with ReentrantLock instead of
+ * synchronized since 42.6.0, and neither HikariCP nor the premium calculation
+ * block inside synchronized blocks (the quote cache loads its mileage bands
+ * under a ReentrantLock taken with tryLock). Pinning can be checked at runtime with
+ * '-Djdk.tracePinnedThreads=short'.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private static final int MIN_JAVA_VERSION = 21;
+
+    /**
+     * Verifies that the runtime supports virtual threads.
+     * 
+     * @throws IllegalStateException if the Java runtime is older than 21
+     */
+    @PostConstruct
+    void verifyRuntime() {
+        int version = Runtime.version().feature();
+        if (version < MIN_JAVA_VERSION) {
+            throw new IllegalStateException("Profile 'virtual-threads' requires Java " + MIN_JAVA_VERSION
+                    + " or newer, but runs on Java " + version);
+        }
+        log.info("Virtual threads enabled for request handling (Java {})", version);
+    }
+}
@@ -0,0 +1,143 @@
+package com.insurance.premium_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Binary wire formats of the premium API next to JSON.
+ *
+ * Callers with high volume can send and receive CBOR ('application/cbor') or
+ * Smile ('application/x-jackson-smile') instead of JSON, selected with the
+ * Content-Type and Accept headers. Both are binary encodings of the same JSON
+ * document, so request and response objects are unchanged, but no text has to
+ * be parsed or formatted. Numbers are written in binary and Smile also shares
+ * repeated property names within a document, which pays off for batches.
+ *
+ *     The mappers are built with Spring Boot's Jackson2ObjectMapperBuilder, so
+ * they have the same modules and 'spring.jackson.*' settings as the JSON mapper.
+ * The converters replace the defaults of Spring MVC with the same type and keep
+ * their position after the JSON converter. The quote endpoints list JSON first in
+ * 'produces', so a request without Accept header is still answered with JSON.
+ * The codecs are registered for WebFlux as well.
+ *
+ * @author Aylin Yilmaz
+ */
+@Configuration
+public class WireFormatConfig {
+
+    /** Media type of Smile as registered by Spring, for mapping annotations. */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /** Media type of Smile as registered by Spring. */
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Creates the CBOR message converter of Spring MVC.
+     *
+     * @param builder Spring Boot's configured object mapper builder
+     * @return the converter for 'application/cbor'
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    /**
+     * Creates the Smile message converter of Spring MVC.
+     *
+     * @param builder Spring Boot's configured object mapper builder
+     * @return the converter for 'application/x-jackson-smile'
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+
+    /**
+     * Registers CBOR and Smile codecs for WebFlux (profile 'reactive'). The Smile
+     * codecs replace the defaults of WebFlux, CBOR has no default and is added as
+     * custom codec, which WebFlux places before JSON; the endpoints therefore
+     * declare the order of their media types with 'produces'. The CBOR encoder of
+     * Spring cannot encode a response body, see {@link SingleValueCborEncoder}.
+     *
+     * @param builder Spring Boot's configured object mapper builder
+     * @return the codec customizer
+     */
+    @Bean
+    public CodecCustomizer binaryWireFormatCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cbor = cborMapper(builder);
+        ObjectMapper smile = smileMapper(builder);
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cbor));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, APPLICATION_SMILE));
+        };
+    }
+
+    /**
+     * Builds a CBOR object mapper.
+     *
+     * @param builder the object mapper builder, configured like the JSON mapper
+     * @return the mapper
+     */
+    static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    /**
+     * Builds a Smile object mapper.
+     *
+     * @param builder the object mapper builder, configured like the JSON mapper
+     * @return the mapper
+     */
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+
+    /**
+     * CBOR encoder for response bodies with a single value.
+     *
+     * WebFlux writes every response body through {@code encode(Publisher)}, which
+     * {@link Jackson2CborEncoder} does not support at all. This encoder encodes a
+     * Mono as one value; a Flux, i.e. a stream of values, is still not supported.
+     */
+    static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
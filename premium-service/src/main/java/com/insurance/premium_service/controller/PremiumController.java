@@ -0,0 +1,139 @@
+package com.insurance.premium_service.controller;
+
+import com.insurance.premium_service.config.WireFormatConfig;
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.service.PremiumCalculationService;
+import com.insurance.premium_service.service.PremiumMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * REST Controller for handling insurance premium calculation requests.
+ *
+ * This controller provides HTTP endpoints for calculating insurance premiums
+ * based on input parameters such as vehicle type, yearly mileage, and postcode.
+ * All endpoints return JSON responses and expect JSON request bodies where applicable.
+ * When the 'reactive' profile is active, {@link ReactivePremiumController} is used instead.
+ * 
+ * Base URL: {/api/premium}
+ * 
+ * @author Aylin Yilmaz
+ */
+@RestController
+@RequestMapping("/api/premium")
+@Profile("!reactive")
+public class PremiumController {
+
+    private static final Logger log = LoggerFactory.getLogger(PremiumController.class);
+
+    private final PremiumCalculationService premiumCalculationService;
+    private final PremiumMetrics premiumMetrics;
+
+    /**
+     * Maximum number of requests accepted by the batch endpoint, injected from
+     * application properties.
+     */
+    @Value("${premium.batch.max-size:1000}")
+    private int maxBatchSize = 1000;
+
+    /**
+     * Constructs a new PremiumController with the specified premium calculation service.
+     * 
+     * @param premiumCalculationService the service responsible for premium calculations,
+     *                                must not be null
+     * @param premiumMetrics meters for the duration of the endpoints, must not be null
+     */
+    public PremiumController(PremiumCalculationService premiumCalculationService, PremiumMetrics premiumMetrics) {
+        this.premiumCalculationService = premiumCalculationService;
+        this.premiumMetrics = premiumMetrics;
+    }
+
+    /**
+     * Calculates insurance premium based on the provided request parameters.
+     * 
+     * This endpoint accepts a POST request with a JSON body containing vehicle information,
+     * yearly mileage, and postcode, then returns the calculated premium amount.
+     * 
+     * Example request body:
+     *
+     * {
+     *   "vehicleType": "SUV",
+     *   "yearlyMileage": 15000,
+     *   "postcode": "12345"
+     * }
+     * 
+     * 
+     * Example response:
+     *
+     * {"calculatedPremium": 750.50}
+     * 
+     * @param request the premium calculation request containing vehicle type,
+     *               yearly mileage, and postcode
+     * @return PremiumResponse containing the calculated premium amount
+     * @throws IllegalArgumentException if any of the request parameters are invalid
+     *                                 (e.g., unknown vehicle type, invalid postcode)
+     */
+    @PostMapping(value = "/calculate", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.APPLICATION_SMILE_VALUE})
+    public PremiumResponse calculate(@RequestBody PremiumRequest request) {
+        long start = System.nanoTime();
+        log.debug("Calculation of premium for request: {}", request);
+        
+        PremiumResponse response = premiumCalculationService.calculatePremium(request);
+
+        log.debug("Premium calculation completed successfully: {}", response.getCalculatedPremium());
+        premiumMetrics.recordController(PremiumMetrics.Endpoint.CALCULATE, start);
+
+        return response;
+    }
+
+    /**
+     * Calculates insurance premiums for a batch of requests.
+     * 
+     * This endpoint accepts a POST request with a JSON array of premium requests
+     * and returns a JSON array with one result per request, in the same order.
+     * An invalid request does not fail the whole call, its result contains an
+     * error message instead of a premium.
+     * 
+     * Example request body:
+     *
+     * [
+     *   {"vehicleType": "SUV", "yearlyMileage": 15000, "postcode": "12345"},
+     *   {"vehicleType": "BOAT", "yearlyMileage": 15000, "postcode": "12345"}
+     * ]
+     * 
+     * Example response:
+     *
+     * [{"calculatedPremium": 750.50}, {"error": "Invalid vehicle type: BOAT"}]
+     * 
+     * @param requests the premium calculation requests
+     * @return one result per request, in request order
+     * @throws ResponseStatusException with status 400 if the batch exceeds the
+     *                                 configured maximum size
+     */
+    @PostMapping(value = "/calculate/batch", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.APPLICATION_SMILE_VALUE})
+    public List<PremiumBatchResult> calculateBatch(@RequestBody List<PremiumRequest> requests) {
+        log.info("Batch calculation of premium for {} requests", requests.size());
+
+        if (requests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size " + requests.size() + " exceeds maximum of " + maxBatchSize);
+        }
+
+        long start = System.nanoTime();
+        List<PremiumBatchResult> results = premiumCalculationService.calculatePremiums(requests);
+        premiumMetrics.recordController(PremiumMetrics.Endpoint.BATCH, start);
+        return results;
+    }
+}
@@ -0,0 +1,79 @@
+package com.insurance.premium_service.controller;
+
+import com.insurance.premium_service.service.PremiumStreamService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST Controller for streaming premium calculations.
+ *
+ * This controller provides an endpoint for repricing large numbers of policies
+ * in one call, for example the whole portfolio during yearly renewals. Requests
+ * and results are exchanged as newline-delimited JSON (application/x-ndjson),
+ * one JSON object per line, and results are written while the input is still
+ * being read.
+ * 
+ * Base URL: {/api/premium}
+ * 
+ * @author Aylin Yilmaz
+ */
+@RestController
+@RequestMapping("/api/premium")
+@Profile("!reactive")
+public class PremiumStreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(PremiumStreamController.class);
+
+    private final PremiumStreamService premiumStreamService;
+
+    /**
+     * Constructs a new PremiumStreamController with the specified streaming service.
+     * 
+     * @param premiumStreamService the service responsible for streaming premium calculations,
+     *                             must not be null
+     */
+    public PremiumStreamController(PremiumStreamService premiumStreamService) {
+        this.premiumStreamService = premiumStreamService;
+    }
+
+    /**
+     * Calculates insurance premiums for a stream of requests.
+     * 
+     * Each line of the request body is a premium request, each line of the
+     * response body is the result for the request on the same position. Invalid
+     * or malformed requests produce an error line instead of failing the call.
+     * 
+     * Example request body:
+     *
+     * {"vehicleType": "SUV", "yearlyMileage": 15000, "postcode": "12345"}
+     * {"vehicleType": "BOAT", "yearlyMileage": 15000, "postcode": "12345"}
+     * 
+     * Example response body:
+     *
+     * {"calculatedPremium":750.5}
+     * {"error":"Invalid vehicle type: BOAT"}
+     * 
+     * @param body the newline-delimited JSON request body
+     * @param response the servlet response the results are streamed to
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @PostMapping(value = "/calculate/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void calculateStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        long count = premiumStreamService.calculate(body, response.getOutputStream());
+
+        log.info("Streaming premium calculation completed: {} requests", count);
+    }
+}
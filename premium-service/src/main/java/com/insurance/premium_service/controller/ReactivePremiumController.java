@@ -0,0 +1,54 @@
+package com.insurance.premium_service.controller;
+
+import com.insurance.premium_service.config.WireFormatConfig;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.service.ReactivePremiumCalculationService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking REST Controller for insurance premium calculation requests.
+ *
+ * This controller replaces {@link PremiumController} when the 'reactive'
+ * profile is active. The application then runs on WebFlux with a small, fixed
+ * number of event-loop threads, and the premium is calculated by the
+ * {@link ReactivePremiumCalculationService} without blocking any of them.
+ * The request and response format is identical to {@link PremiumController}.
+ * 
+ * Base URL: {/api/premium}
+ * 
+ * @author Aylin Yilmaz
+ */
+@RestController
+@RequestMapping("/api/premium")
+@Profile("reactive")
+public class ReactivePremiumController {
+
+    private final ReactivePremiumCalculationService premiumCalculationService;
+
+    /**
+     * Constructs a new ReactivePremiumController with the specified premium calculation service.
+     * 
+     * @param premiumCalculationService the reactive service responsible for premium calculations,
+     *                                must not be null
+     */
+    public ReactivePremiumController(ReactivePremiumCalculationService premiumCalculationService) {
+        this.premiumCalculationService = premiumCalculationService;
+    }
+
+    /**
+     * Calculates insurance premium based on the provided request parameters.
+     * 
+     * @param request the premium calculation request containing vehicle type,
+     *               yearly mileage, and postcode
+     * @return a Mono emitting the calculated premium amount
+     */
+    @PostMapping(value = "/calculate", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            WireFormatConfig.APPLICATION_SMILE_VALUE})
+    public Mono<PremiumResponse> calculate(@RequestBody PremiumRequest request) {
+        return premiumCalculationService.calculatePremium(request);
+    }
+}
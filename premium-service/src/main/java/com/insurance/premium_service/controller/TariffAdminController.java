@@ -0,0 +1,98 @@
+package com.insurance.premium_service.controller;
+
+import com.insurance.premium_service.model.TariffStatus;
+import com.insurance.premium_service.repository.TariffVersionRepository;
+import com.insurance.premium_service.service.QuoteCache;
+import com.insurance.premium_service.tariff.TariffChangedEvent;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder.Status;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * REST Controller for operating the tariff data held in memory.
+ *
+ * The reference tables are maintained outside of this service. After they have
+ * been changed, {@code POST /reload} makes the service pick up the changes
+ * immediately instead of after the quote cache time to live.
+ * 
+ * Base URL: {/api/admin/tariff}
+ * 
+ * @author Aylin Yilmaz
+ */
+@RestController
+@RequestMapping("/api/admin/tariff")
+@Profile("!reactive")
+public class TariffAdminController {
+
+    private static final Logger log = LoggerFactory.getLogger(TariffAdminController.class);
+
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final QuoteCache quoteCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TariffVersionRepository tariffVersionRepository;
+
+    /**
+     * Constructs a new TariffAdminController.
+     * 
+     * @param tariffSnapshotHolder holder of the in-memory tariff snapshot, must not be null
+     * @param quoteCache cache for calculated premiums, must not be null
+     * @param eventPublisher publisher for the {@link TariffChangedEvent}, must not be null
+     * @param tariffVersionRepository repository for the tariff version marker, must not be null
+     */
+    public TariffAdminController(
+            TariffSnapshotHolder tariffSnapshotHolder,
+            QuoteCache quoteCache,
+            ApplicationEventPublisher eventPublisher,
+            TariffVersionRepository tariffVersionRepository) {
+
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.quoteCache = quoteCache;
+        this.eventPublisher = eventPublisher;
+        this.tariffVersionRepository = tariffVersionRepository;
+    }
+
+    /**
+     * Gets the version and load statistics of the tariff currently in use.
+     * 
+     * @return the tariff status
+     */
+    @GetMapping
+    public TariffStatus status() {
+        Status snapshot = tariffSnapshotHolder.getStatus();
+        return new TariffStatus(snapshot.enabled(), snapshot.version(), tariffVersionRepository.findCurrentVersion(),
+                snapshot.loadedAt(), snapshot.lastLoadMillis(), snapshot.reloadCount(),
+                snapshot.premiumMatrixBytes());
+    }
+
+    /**
+     * Reloads the tariff snapshot (if snapshot mode is enabled) and publishes a
+     * {@link TariffChangedEvent}, which invalidates the quote cache.
+     * 
+     * @return the quote cache statistics after the invalidation
+     */
+    @PostMapping("/reload")
+    public QuoteCache.Stats reload() {
+        log.info("Tariff reload requested");
+
+        if (tariffSnapshotHolder.isEnabled()) {
+            tariffSnapshotHolder.reload();
+        }
+        eventPublisher.publishEvent(new TariffChangedEvent("admin reload"));
+
+        return quoteCache.getStats();
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the quote cache.
+     * 
+     * @return the quote cache statistics
+     */
+    @GetMapping("/quote-cache")
+    public QuoteCache.Stats quoteCacheStats() {
+        return quoteCache.getStats();
+    }
+}
@@ -0,0 +1,26 @@
+package com.insurance.premium_service.entity.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of a row of the 'postcodes' table.
+ *     
+ * This is the reactive counterpart of the JPA entity
+ * {@link com.insurance.premium_service.entity.PostCode} and is only used by
+ * the reactive profile. R2DBC does not resolve relationships, so the region is
+ * referenced by its identifier only.
+ * 
+ * @param id unique identifier of the postcode record
+ * @param postcode the postcode value (e.g., "12345")
+ * @param regionId identifier of the region this postcode belongs to
+ * 
+ * @author Aylin Yilmaz
+ */
+@Table("postcodes")
+public record PostCodeRecord(
+        @Id Long id,
+        @Column("postcode") String postcode,
+        @Column("region_id") Long regionId) {
+}
@@ -0,0 +1,25 @@
+package com.insurance.premium_service.entity.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of a row of the 'regions' table.
+ *     
+ * This is the reactive counterpart of the JPA entity
+ * {@link com.insurance.premium_service.entity.Region} and is only used by
+ * the reactive profile.
+ * 
+ * @param id unique identifier of the region record
+ * @param region the name of the region (e.g., "Bayern")
+ * @param regionFactor the risk factor associated with this region
+ * 
+ * @author Aylin Yilmaz
+ */
+@Table("regions")
+public record RegionRecord(
+        @Id Long id,
+        @Column("region") String region,
+        @Column("region_factor") Double regionFactor) {
+}
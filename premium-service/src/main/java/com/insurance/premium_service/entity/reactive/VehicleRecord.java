@@ -0,0 +1,25 @@
+package com.insurance.premium_service.entity.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of a row of the 'vehicle' table.
+ *     
+ * This is the reactive counterpart of the JPA entity
+ * {@link com.insurance.premium_service.entity.Vehicle} and is only used by
+ * the reactive profile.
+ * 
+ * @param id unique identifier of the vehicle type record
+ * @param vehicleType the type or category of the vehicle
+ * @param vehicleFactor the risk factor associated with this vehicle type
+ * 
+ * @author Aylin Yilmaz
+ */
+@Table("vehicle")
+public record VehicleRecord(
+        @Id Long id,
+        @Column("vehicle_type") String vehicleType,
+        @Column("vehicle_factor") Double vehicleFactor) {
+}
@@ -0,0 +1,29 @@
+package com.insurance.premium_service.entity.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * R2DBC mapping of a row of the 'yearly_mileage' table.
+ *     
+ * This is the reactive counterpart of the JPA entity
+ * {@link com.insurance.premium_service.entity.YearlyMileage} and is only used
+ * by the reactive profile.
+ * 
+ * @param id unique identifier of the yearly mileage range record
+ * @param yearlyMileageFrom the lower bound of the mileage range (inclusive)
+ * @param yearlyMileageTo the upper bound of the mileage range (inclusive)
+ * @param yearlyMileageFactor the risk factor associated with this mileage range
+ * 
+ * @author Aylin Yilmaz
+ */
+@Table("yearly_mileage")
+public record YearlyMileageRecord(
+        @Id Long id,
+        @Column("yearly_mileage_from") BigDecimal yearlyMileageFrom,
+        @Column("yearly_mileage_to") BigDecimal yearlyMileageTo,
+        @Column("yearly_mileage_factor") Double yearlyMileageFactor) {
+}
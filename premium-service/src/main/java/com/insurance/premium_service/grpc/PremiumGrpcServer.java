@@ -0,0 +1,136 @@
+package com.insurance.premium_service.grpc;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC server of the {@link PremiumQuoteGrpcService}, running next to the web
+ * server on its own port 'premium.grpc.port'.
+ *
+ * gRPC runs on HTTP/2, so a client needs a single connection: calls are
+ * multiplexed as streams of that connection, up to
+ * 'premium.grpc.max-concurrent-calls-per-connection' at a time. Every stream and
+ * the connection have an HTTP/2 flow-control window, which starts at
+ * 'premium.grpc.flow-control-window' and is resized by gRPC to the measured
+ * bandwidth-delay product of the connection.
+ *
+ *     The server is started and stopped with the application context like the
+ * web server. On shutdown new calls are refused, running calls get
+ * 'premium.grpc.shutdown-grace' to complete before they are cancelled.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class PremiumGrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PremiumGrpcServer.class);
+
+    private final PremiumQuoteGrpcService premiumQuoteGrpcService;
+    private final boolean enabled;
+    private final int port;
+    private final int maxConcurrentCallsPerConnection;
+    private final DataSize flowControlWindow;
+    private final Duration shutdownGrace;
+
+    private volatile Server server;
+
+    /**
+     * Constructs a new PremiumGrpcServer.
+     *
+     * @param premiumQuoteGrpcService the service to serve, must not be null
+     * @param enabled whether to start the gRPC server
+     * @param port the port to listen on, 0 for a free port
+     * @param maxConcurrentCallsPerConnection maximum number of concurrent calls of one connection
+     * @param flowControlWindow initial HTTP/2 flow-control window of streams and connections
+     * @param shutdownGrace time running calls get to complete on shutdown
+     */
+    public PremiumGrpcServer(
+            PremiumQuoteGrpcService premiumQuoteGrpcService,
+            @Value("${premium.grpc.enabled:true}") boolean enabled,
+            @Value("${premium.grpc.port:9090}") int port,
+            @Value("${premium.grpc.max-concurrent-calls-per-connection:1000}") int maxConcurrentCallsPerConnection,
+            @Value("${premium.grpc.flow-control-window:1MB}") DataSize flowControlWindow,
+            @Value("${premium.grpc.shutdown-grace:10s}") Duration shutdownGrace) {
+
+        this.premiumQuoteGrpcService = premiumQuoteGrpcService;
+        this.enabled = enabled;
+        this.port = port;
+        this.maxConcurrentCallsPerConnection = maxConcurrentCallsPerConnection;
+        this.flowControlWindow = flowControlWindow;
+        this.shutdownGrace = shutdownGrace;
+    }
+
+    /**
+     * Starts the gRPC server if enabled.
+     *
+     * @throws IllegalStateException if the port cannot be bound
+     */
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Server server = NettyServerBuilder.forPort(port)
+                .addService(premiumQuoteGrpcService)
+                .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
+                .initialFlowControlWindow(Math.toIntExact(flowControlWindow.toBytes()))
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start gRPC server on port " + port, e);
+        }
+        this.server = server;
+        log.info("gRPC server started on port {}: maxConcurrentCallsPerConnection={}, flowControlWindow={}",
+                server.getPort(), maxConcurrentCallsPerConnection, flowControlWindow);
+    }
+
+    /**
+     * Stops the gRPC server, waiting up to the shutdown grace for running calls.
+     */
+    @Override
+    public void stop() {
+        Server server = this.server;
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls still running after {}, cancelling them", shutdownGrace);
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            server.shutdownNow();
+        }
+        this.server = null;
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port, or -1 if the server is not running
+     */
+    public int getPort() {
+        Server server = this.server;
+        return server != null ? server.getPort() : -1;
+    }
+}
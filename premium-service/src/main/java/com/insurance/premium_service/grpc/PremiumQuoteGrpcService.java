@@ -0,0 +1,171 @@
+package com.insurance.premium_service.grpc;
+
+import com.insurance.premium_service.grpc.api.PremiumQuoteServiceGrpc;
+import com.insurance.premium_service.grpc.api.QuoteReply;
+import com.insurance.premium_service.grpc.api.QuoteRequest;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.service.PremiumCalculationService;
+import com.insurance.premium_service.service.PremiumMetrics;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC implementation of the premium API, see 'src/main/proto/premium_quote.proto'.
+ *
+ * Both methods calculate with {@link PremiumCalculationService#calculatePremium},
+ * like POST /api/premium/calculate, so quote cache, snapshot, metrics, quote log
+ * and audit journal apply to gRPC quotes as well.
+ *
+ *   Quote        one request, one reply. An invalid request fails the call with
+ *                INVALID_ARGUMENT and the message the REST API returns.
+ *   QuoteStream  a bidirectional stream. Each request is answered with one reply
+ *                in request order, an invalid request with an error reply.
+ *
+ *     The stream uses manual flow control: up to {@value #PREFETCH} requests are
+ * taken from the transport ahead, and one more only for every reply that could
+ * be queued without exceeding the HTTP/2 flow-control window of the client. A
+ * client that stops reading therefore stops the server from reading, and its
+ * requests stay in the window of the connection instead of piling up in memory
+ * of the service.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class PremiumQuoteGrpcService extends PremiumQuoteServiceGrpc.PremiumQuoteServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(PremiumQuoteGrpcService.class);
+
+    /** Requests of a stream taken from the transport ahead of the one being quoted. */
+    static final int PREFETCH = 64;
+
+    private final PremiumCalculationService premiumCalculationService;
+    private final PremiumMetrics premiumMetrics;
+
+    /**
+     * Constructs a new PremiumQuoteGrpcService.
+     *
+     * @param premiumCalculationService the service responsible for premium calculations, must not be null
+     * @param premiumMetrics meters for the duration of the methods, must not be null
+     */
+    public PremiumQuoteGrpcService(PremiumCalculationService premiumCalculationService, PremiumMetrics premiumMetrics) {
+        this.premiumCalculationService = premiumCalculationService;
+        this.premiumMetrics = premiumMetrics;
+    }
+
+    /**
+     * Calculates the premium of one request.
+     *
+     * @param request the quote request
+     * @param responseObserver receives the reply, or the status INVALID_ARGUMENT
+     *                         if the request is invalid
+     */
+    @Override
+    public void quote(QuoteRequest request, StreamObserver<QuoteReply> responseObserver) {
+        long start = System.nanoTime();
+        double premium;
+        try {
+            premium = premiumCalculationService.calculatePremium(toPremiumRequest(request)).getCalculatedPremium();
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        premiumMetrics.recordController(PremiumMetrics.Endpoint.GRPC_QUOTE, start);
+
+        responseObserver.onNext(QuoteReply.newBuilder()
+                .setCorrelationId(request.getCorrelationId())
+                .setPremium(premium)
+                .build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Opens a stream of quotes.
+     *
+     * @param responseObserver receives one reply per request
+     * @return the observer receiving the requests of the client
+     */
+    @Override
+    public StreamObserver<QuoteRequest> quoteStream(StreamObserver<QuoteReply> responseObserver) {
+        ServerCallStreamObserver<QuoteReply> replies = (ServerCallStreamObserver<QuoteReply>) responseObserver;
+        replies.disableAutoRequest();
+        QuoteStream stream = new QuoteStream(replies);
+        replies.setOnReadyHandler(stream::onReady);
+        replies.setOnCancelHandler(() -> log.debug("Quote stream cancelled by client after {} quotes", stream.count));
+        return stream;
+    }
+
+    private PremiumRequest toPremiumRequest(QuoteRequest request) {
+        return new PremiumRequest(request.getYearlyMileage(), request.getVehicleType(), request.getPostcode());
+    }
+
+    /**
+     * Requests of one stream. gRPC calls the methods of a call one at a time, so
+     * the fields need no synchronization.
+     */
+    private class QuoteStream implements StreamObserver<QuoteRequest> {
+
+        private final ServerCallStreamObserver<QuoteReply> replies;
+        private boolean started;
+        private int deferred;
+        private long count;
+
+        QuoteStream(ServerCallStreamObserver<QuoteReply> replies) {
+            this.replies = replies;
+        }
+
+        /**
+         * Requests the first {@value #PREFETCH} messages, and later the ones
+         * deferred while the client could not take replies.
+         */
+        void onReady() {
+            if (!replies.isReady()) {
+                return;
+            }
+            if (!started) {
+                started = true;
+                replies.request(PREFETCH);
+            } else if (deferred > 0) {
+                replies.request(deferred);
+                deferred = 0;
+            }
+        }
+
+        @Override
+        public void onNext(QuoteRequest request) {
+            long start = System.nanoTime();
+            QuoteReply.Builder reply = QuoteReply.newBuilder().setCorrelationId(request.getCorrelationId());
+            try {
+                reply.setPremium(premiumCalculationService.calculatePremium(toPremiumRequest(request))
+                        .getCalculatedPremium());
+            } catch (IllegalArgumentException e) {
+                reply.setError(e.getMessage());
+            }
+            replies.onNext(reply.build());
+            premiumMetrics.recordController(PremiumMetrics.Endpoint.GRPC_STREAM, start);
+            count++;
+
+            if (replies.isReady()) {
+                replies.request(1);
+            } else {
+                deferred++;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Quote stream failed after {} quotes: {}", count, t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            log.info("Quote stream completed: {} quotes", count);
+            replies.onCompleted();
+        }
+    }
+}
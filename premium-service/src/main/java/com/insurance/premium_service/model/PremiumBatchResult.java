@@ -0,0 +1,94 @@
+package com.insurance.premium_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Data transfer object representing the result of one item of a batch premium calculation.
+ *     
+ * Each item either contains the calculated premium or, if the corresponding
+ * request was invalid, an error message. Fields without a value are omitted
+ * from the JSON representation.
+ * 
+ *     Example JSON representation:
+ * 
+ * [
+ *   {"calculatedPremium": 750.50},
+ *   {"error": "Invalid vehicle type: BOAT"}
+ * ]
+ * 
+ * @author Aylin Yilmaz
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PremiumBatchResult {
+
+    /**
+     * The calculated insurance premium amount, or null if the request was invalid.
+     */
+    private Double calculatedPremium;
+
+    /**
+     * The reason why no premium could be calculated, or null on success.
+     */
+    private String error;
+
+    /**
+     * Default constructor for JSON serialization.
+     */
+    public PremiumBatchResult() {}
+
+    private PremiumBatchResult(Double calculatedPremium, String error) {
+        this.calculatedPremium = calculatedPremium;
+        this.error = error;
+    }
+
+    /**
+     * Creates a successful result with the given premium.
+     * 
+     * @param calculatedPremium the calculated premium amount
+     * @return the result
+     */
+    public static PremiumBatchResult success(double calculatedPremium) {
+        return new PremiumBatchResult(calculatedPremium, null);
+    }
+
+    /**
+     * Creates a failed result with the given error message.
+     * 
+     * @param error the reason why no premium could be calculated
+     * @return the result
+     */
+    public static PremiumBatchResult failure(String error) {
+        return new PremiumBatchResult(null, error);
+    }
+
+    /**
+     * Gets the calculated premium amount.
+     * 
+     * @return the calculated insurance premium, or null if the request was invalid
+     */
+    public Double getCalculatedPremium() {
+        return calculatedPremium;
+    }
+
+    /**
+     * Gets the error message.
+     * 
+     * @return the reason why no premium could be calculated, or null on success
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Returns a string representation of this batch result.
+     * 
+     * @return a string containing the premium or the error
+     */
+    @Override
+    public String toString() {
+        return "PremiumBatchResult{" +
+                "calculatedPremium=" + calculatedPremium +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.insurance.premium_service.model;
+
+import java.time.Instant;
+
+/**
+ * Data transfer object describing the tariff currently used for calculations.
+ *     
+ * Example JSON representation:
+ * 
+ * {
+ *   "snapshotEnabled": true,
+ *   "snapshotVersion": 42,
+ *   "databaseVersion": 42,
+ *   "loadedAt": "2024-05-01T10:15:30Z",
+ *   "lastLoadMillis": 850,
+ *   "reloadCount": 3,
+ *   "premiumMatrixBytes": 288
+ * }
+ * 
+ * @param snapshotEnabled whether premiums are calculated from an in-memory snapshot
+ * @param snapshotVersion the tariff version of the active snapshot, -1 if unknown
+ * @param databaseVersion the last tariff version seen in the database, or null
+ * @param loadedAt the time the active snapshot was swapped in, or null
+ * @param lastLoadMillis the duration of the last snapshot load in milliseconds
+ * @param reloadCount the number of snapshot loads since startup
+ * @param premiumMatrixBytes the heap size of the premium matrix, 0 if there is none
+ * 
+ * @author Aylin Yilmaz
+ */
+public record TariffStatus(
+        boolean snapshotEnabled,
+        long snapshotVersion,
+        Long databaseVersion,
+        Instant loadedAt,
+        long lastLoadMillis,
+        long reloadCount,
+        long premiumMatrixBytes) {
+}
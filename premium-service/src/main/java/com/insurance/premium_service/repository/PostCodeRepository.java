@@ -0,0 +1,103 @@
+package com.insurance.premium_service.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.insurance.premium_service.entity.PostCode;
+
+/**
+ * Repository interface for managing PostCode entities.
+ *     
+ * This repository provides data access operations for postcode records,
+ * including the ability to find postcodes by their string value. It extends
+ * JpaRepository to inherit standard CRUD operations and query methods.
+ * 
+ *     The repository is primarily used during premium calculations to look up
+ * the region associated with a given postcode, which is then used to determine
+ * the appropriate regional risk factor.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Repository
+public interface PostCodeRepository extends JpaRepository<PostCode, Long> {
+    
+    /**
+     * Finds a postcode record by its postcode string value.
+     *     
+     * This method performs a case-sensitive search for the exact postcode
+     * string in the database. The postcode string should match exactly
+     * as stored in the database, including any formatting (spaces, dashes, etc.).
+     * 
+     * @param postcode the postcode string to search for (e.g., "12345")
+     * @return an Optional containing the PostCode entity if found, or empty if not found
+     */
+    Optional<PostCode> findByPostcode(String postcode);
+
+    /**
+     * Finds the region name of every postcode that has a region.
+     *     
+     * Only the two columns are selected and no entities are built, which keeps
+     * loading all postcodes for the tariff snapshot fast.
+     * 
+     * @return postcode and region name of all postcodes with a region
+     */
+    @Query("SELECT new com.insurance.premium_service.repository.PostcodeRegion(p.postcode, r.region) "
+            + "FROM PostCode p JOIN p.region r")
+    List<PostcodeRegion> findAllPostcodeRegions();
+
+    /**
+     * Finds the region name of one page of the postcodes that have a region,
+     * e.g. as a sample of valid postcodes.
+     * 
+     * @param pageable the page to load
+     * @return postcode and region name of the postcodes on the page
+     */
+    @Query("SELECT new com.insurance.premium_service.repository.PostcodeRegion(p.postcode, r.region) "
+            + "FROM PostCode p JOIN p.region r ORDER BY p.id")
+    List<PostcodeRegion> findPostcodeRegions(Pageable pageable);
+
+    /**
+     * Finds all postcode records contained in the given collection together with
+     * their associated region.
+     *     
+     * This method resolves many postcodes with a single IN query and is used
+     * for batch premium calculations. The region is fetched in the same query.
+     * 
+     * @param postcodes the postcode strings to search for, must not be empty
+     * @return the matching postcode records with initialized regions
+     */
+    @Query("SELECT p FROM PostCode p LEFT JOIN FETCH p.region WHERE p.postcode IN :postcodes")
+    List<PostCode> findByPostcodeInWithRegion(@Param("postcodes") Collection<String> postcodes);
+
+    /**
+     * Resolves all factors of a premium calculation with a single statement.
+     *     
+     * Each factor is selected by its own scalar subquery, so the result always
+     * contains exactly one row and a factor is null if its input has no match,
+     * e.g. an unknown vehicle type or a postcode without a region. No entities
+     * are built. The query only uses standard SQL, so it runs on PostgreSQL as well
+     * as on H2.
+     * 
+     * @param yearlyMileage the yearly mileage to find the mileage range for
+     * @param vehicleType the vehicle type to look up
+     * @param postcode the postcode to look up
+     * @return the factors of the three inputs, never null
+     */
+    @Query(value = "SELECT "
+            + "(SELECT y.yearly_mileage_factor FROM yearly_mileage y "
+            + "  WHERE y.yearly_mileage_from <= :yearlyMileage AND y.yearly_mileage_to >= :yearlyMileage) AS \"yearlyMileageFactor\", "
+            + "(SELECT v.vehicle_factor FROM vehicle v WHERE v.vehicle_type = :vehicleType) AS \"vehicleFactor\", "
+            + "(SELECT r.region_factor FROM postcodes p JOIN regions r ON r.id = p.region_id "
+            + "  WHERE p.postcode = :postcode) AS \"regionFactor\"",
+            nativeQuery = true)
+    PremiumFactors findPremiumFactors(
+            @Param("yearlyMileage") BigDecimal yearlyMileage,
+            @Param("vehicleType") String vehicleType,
+            @Param("postcode") String postcode);
+}
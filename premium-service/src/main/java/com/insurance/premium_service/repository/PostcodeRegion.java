@@ -0,0 +1,12 @@
+package com.insurance.premium_service.repository;
+
+/**
+ * Projection of a postcode and the name of its region.
+ * 
+ * @param postcode the postcode string (e.g., "12345")
+ * @param region the name of the region the postcode belongs to
+ * 
+ * @author Aylin Yilmaz
+ */
+public record PostcodeRegion(String postcode, String region) {
+}
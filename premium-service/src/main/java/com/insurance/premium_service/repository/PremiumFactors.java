@@ -0,0 +1,27 @@
+package com.insurance.premium_service.repository;
+
+/**
+ * Projection containing the three factors needed for one premium calculation.
+ *     
+ * Each factor is null if the corresponding input has no match in the database,
+ * so the caller can still tell which of the inputs was invalid.
+ * 
+ * @author Aylin Yilmaz
+ */
+public interface PremiumFactors {
+
+    /**
+     * @return the factor of the mileage range containing the yearly mileage, or null
+     */
+    Double getYearlyMileageFactor();
+
+    /**
+     * @return the factor of the vehicle type, or null
+     */
+    Double getVehicleFactor();
+
+    /**
+     * @return the factor of the region the postcode belongs to, or null
+     */
+    Double getRegionFactor();
+}
@@ -0,0 +1,48 @@
+package com.insurance.premium_service.repository;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading the version marker of the reference tables.
+ *     
+ * The 'tariff_version' table and the triggers keeping it up to date are created
+ * by 'db/tariff-version.sql'. The version is incremented by every change to the
+ * 'vehicle', 'regions', 'postcodes' and 'yearly_mileage' tables.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Repository
+public class TariffVersionRepository {
+
+    /**
+     * Name of the channel the triggers send a notification to after each change.
+     */
+    public static final String CHANGE_CHANNEL = "tariff_changed";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a new TariffVersionRepository.
+     * 
+     * @param jdbcTemplate template for plain SQL queries, must not be null
+     */
+    public TariffVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads the current tariff version.
+     * 
+     * @return the current version, or null if the marker table is not installed
+     */
+    public Long findCurrentVersion() {
+        try {
+            return jdbcTemplate.queryForObject("SELECT version FROM tariff_version WHERE id = 1", Long.class);
+        } catch (EmptyResultDataAccessException | BadSqlGrammarException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.insurance.premium_service.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -32,5 +34,16 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
      * @return an Optional containing the Vehicle entity if found, or empty if not found
      */
     Optional<Vehicle> findByVehicleType(String vehicleType);
+
+    /**
+     * Finds all vehicle records whose vehicle type is contained in the given collection.
+     *     
+     * This method resolves many vehicle types with a single IN query and is used
+     * for batch premium calculations.
+     * 
+     * @param vehicleTypes the vehicle types to search for, must not be empty
+     * @return the matching Vehicle entities, in no particular order
+     */
+    List<Vehicle> findByVehicleTypeIn(Collection<String> vehicleTypes);
     
 }
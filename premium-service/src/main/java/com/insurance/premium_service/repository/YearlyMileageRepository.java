@@ -2,6 +2,7 @@ package com.insurance.premium_service.repository;
 import java.math.BigDecimal;
 import com.insurance.premium_service.entity.YearlyMileage;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -44,4 +45,18 @@ public interface YearlyMileageRepository extends JpaRepository<YearlyMileage, Lo
      */
     @Query("SELECT y FROM YearlyMileage y WHERE y.yearlyMileageFrom <= :yearlyMileage AND y.yearlyMileageTo >= :yearlyMileage")                                                                     
     Optional<YearlyMileage> findByYearlyMileageRange(@Param("yearlyMileage") BigDecimal yearlyMileage);
+
+    /**
+     * Finds all yearly mileage ranges that overlap the given interval.
+     *     
+     * This method is used for batch premium calculations, where the ranges for
+     * many mileage values are loaded with a single query by passing the smallest
+     * and largest requested mileage.
+     * 
+     * @param from the lower bound of the interval (inclusive)
+     * @param to the upper bound of the interval (inclusive)
+     * @return all mileage ranges sharing at least one value with the interval
+     */
+    @Query("SELECT y FROM YearlyMileage y WHERE y.yearlyMileageFrom <= :to AND y.yearlyMileageTo >= :from")
+    List<YearlyMileage> findOverlappingRanges(@Param("from") BigDecimal from, @Param("to") BigDecimal to);
 }
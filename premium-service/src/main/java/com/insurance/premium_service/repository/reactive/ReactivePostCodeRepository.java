@@ -0,0 +1,25 @@
+package com.insurance.premium_service.repository.reactive;
+
+import com.insurance.premium_service.entity.reactive.PostCodeRecord;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository interface for the 'postcodes' table.
+ *     
+ * This is the non-blocking counterpart of
+ * {@link com.insurance.premium_service.repository.PostCodeRepository}, built
+ * on R2DBC and only enabled in the reactive profile.
+ * 
+ * @author Aylin Yilmaz
+ */
+public interface ReactivePostCodeRepository extends R2dbcRepository<PostCodeRecord, Long> {
+
+    /**
+     * Finds a postcode record by its postcode string value.
+     * 
+     * @param postcode the postcode string to search for (e.g., "12345")
+     * @return a Mono emitting the postcode record, or completing empty if not found
+     */
+    Mono<PostCodeRecord> findByPostcode(String postcode);
+}
@@ -0,0 +1,18 @@
+package com.insurance.premium_service.repository.reactive;
+
+import com.insurance.premium_service.entity.reactive.RegionRecord;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+/**
+ * Reactive repository interface for the 'regions' table.
+ *     
+ * This is the non-blocking counterpart of
+ * {@link com.insurance.premium_service.repository.RegionRepository}, built
+ * on R2DBC and only enabled in the reactive profile. Regions are looked up by
+ * the identifier referenced from the postcode record, using the inherited
+ * findById method.
+ * 
+ * @author Aylin Yilmaz
+ */
+public interface ReactiveRegionRepository extends R2dbcRepository<RegionRecord, Long> {
+}
@@ -0,0 +1,25 @@
+package com.insurance.premium_service.repository.reactive;
+
+import com.insurance.premium_service.entity.reactive.VehicleRecord;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository interface for the 'vehicle' table.
+ *     
+ * This is the non-blocking counterpart of
+ * {@link com.insurance.premium_service.repository.VehicleRepository}, built
+ * on R2DBC and only enabled in the reactive profile.
+ * 
+ * @author Aylin Yilmaz
+ */
+public interface ReactiveVehicleRepository extends R2dbcRepository<VehicleRecord, Long> {
+
+    /**
+     * Finds a vehicle record by its vehicle type.
+     * 
+     * @param vehicleType the vehicle type to search for (case-sensitive)
+     * @return a Mono emitting the vehicle record, or completing empty if not found
+     */
+    Mono<VehicleRecord> findByVehicleType(String vehicleType);
+}
@@ -0,0 +1,33 @@
+package com.insurance.premium_service.repository.reactive;
+
+import com.insurance.premium_service.entity.reactive.YearlyMileageRecord;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Reactive repository interface for the 'yearly_mileage' table.
+ *     
+ * This is the non-blocking counterpart of
+ * {@link com.insurance.premium_service.repository.YearlyMileageRepository},
+ * built on R2DBC and only enabled in the reactive profile.
+ * 
+ * @author Aylin Yilmaz
+ */
+public interface ReactiveYearlyMileageRepository extends R2dbcRepository<YearlyMileageRecord, Long> {
+
+    /**
+     * Finds the yearly mileage range that contains the specified mileage value.
+     *     
+     * Both range bounds are inclusive, as in the JPA repository.
+     * 
+     * @param yearlyMileage the yearly mileage value to find the range for
+     * @return a Mono emitting the matching range, or completing empty if no range
+     *         contains the specified mileage
+     */
+    @Query("SELECT * FROM yearly_mileage WHERE yearly_mileage_from <= :yearlyMileage AND yearly_mileage_to >= :yearlyMileage")
+    Mono<YearlyMileageRecord> findByYearlyMileageRange(@Param("yearlyMileage") BigDecimal yearlyMileage);
+}
@@ -0,0 +1,257 @@
+package com.insurance.premium_service.repricing;
+
+import com.insurance.premium_core.RatingEngine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Prices all rows of a CSV file with the {@link RatingEngine}, using all cores.
+ *
+ * The input is split into chunks of a fixed number of bytes. Every chunk is
+ * memory-mapped and priced by a task on a fork-join pool, see
+ * {@link RepricingChunk}, while this thread writes the priced chunks in input
+ * order to two files next to each other in the output directory:
+ *
+ *   &lt;input&gt;.premiums.csv  valid rows with the premium as fourth column
+ *   &lt;input&gt;.rejects.csv   invalid rows with the reason as fourth column
+ *
+ * At most two chunks per worker are in flight, so memory stays bounded by the
+ * chunk size regardless of the size of the input.
+ *
+ *     Every checkpoint interval, and after the last chunk, the output files are
+ * forced to disk and a {@link RepricingCheckpoint} is written to
+ * '&lt;input&gt;.checkpoint', together with a progress line in the log. A run
+ * that finds a checkpoint continues after the last checkpointed chunk, as long as
+ * the input has the same size and the tariff the same version; otherwise it
+ * refuses to mix the outputs of two inputs or tariffs. The checkpoint is deleted
+ * once all rows are written, so the next run starts over.
+ *
+ * @author Aylin Yilmaz
+ */
+public class BulkRepricer {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRepricer.class);
+
+    static final String RESULTS_SUFFIX = ".premiums.csv";
+    static final String REJECTS_SUFFIX = ".rejects.csv";
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private static final byte[] RESULTS_HEADER =
+            "yearlyMileage,vehicleType,postcode,premium\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REJECTS_HEADER =
+            "yearlyMileage,vehicleType,postcode,reason\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final RatingEngine ratingEngine;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long checkpointIntervalNanos;
+
+    /**
+     * Constructs a new BulkRepricer.
+     *
+     * @param ratingEngine the rating engine with the tariff to price with, must not be null
+     * @param chunkSize number of input bytes priced by one task
+     * @param parallelism number of worker threads, or 0 to use one per available processor
+     * @param checkpointInterval minimum time between two checkpoints
+     */
+    public BulkRepricer(RatingEngine ratingEngine, int chunkSize, int parallelism, Duration checkpointInterval) {
+        if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE - RepricingChunk.MAX_ROW_LENGTH - 1) {
+            throw new IllegalArgumentException("Invalid repricing chunk size: " + chunkSize);
+        }
+        this.ratingEngine = ratingEngine;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.checkpointIntervalNanos = checkpointInterval.toNanos();
+    }
+
+    /**
+     * Prices all rows of the input, or the rows after the checkpoint of an
+     * interrupted run.
+     *
+     * @param input the CSV file with the rows 'yearlyMileage,vehicleType,postcode'
+     * @param outputDirectory the directory for output and checkpoint files, created if missing
+     * @return the totals of the input, including the rows priced before a restart
+     * @throws IOException if reading the input or writing the output fails
+     * @throws IllegalStateException if the checkpoint belongs to another input or tariff
+     */
+    public Summary run(Path input, Path outputDirectory) throws IOException {
+        long startNanos = System.nanoTime();
+        String name = input.getFileName().toString();
+        Files.createDirectories(outputDirectory);
+        Path checkpointFile = outputDirectory.resolve(name + CHECKPOINT_SUFFIX);
+        long tariffVersion = ratingEngine.getTariff().getVersion();
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel results = FileChannel.open(outputDirectory.resolve(name + RESULTS_SUFFIX),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileChannel rejects = FileChannel.open(outputDirectory.resolve(name + REJECTS_SUFFIX),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+            long inputSize = in.size();
+            RepricingCheckpoint checkpoint = RepricingCheckpoint.read(checkpointFile);
+            if (checkpoint != null) {
+                if (checkpoint.inputSize() != inputSize || checkpoint.tariffVersion() != tariffVersion) {
+                    throw new IllegalStateException("Checkpoint " + checkpointFile + " belongs to an input of "
+                            + checkpoint.inputSize() + " bytes priced with tariff version "
+                            + checkpoint.tariffVersion() + ", delete it to start over");
+                }
+                truncate(results, checkpoint.resultsLength());
+                truncate(rejects, checkpoint.rejectsLength());
+                log.info("Repricing {} resumed at offset {} of {} bytes after {} rows", input,
+                        checkpoint.inputOffset(), inputSize, checkpoint.rows());
+            } else {
+                truncate(results, 0);
+                truncate(rejects, 0);
+                writeFully(results, ByteBuffer.wrap(RESULTS_HEADER));
+                writeFully(rejects, ByteBuffer.wrap(REJECTS_HEADER));
+                checkpoint = new RepricingCheckpoint(inputSize, tariffVersion, 0, 0, 0,
+                        results.position(), rejects.position());
+                log.info("Repricing {} ({} bytes) with tariff version {} on {} threads", input, inputSize,
+                        tariffVersion, parallelism);
+            }
+
+            Progress progress = new Progress(checkpoint, startNanos);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            Deque<ForkJoinTask<RepricingChunk.Result>> inFlight = new ArrayDeque<>();
+            try {
+                long next = checkpoint.inputOffset();
+                long lastCheckpoint = System.nanoTime();
+                while (next < inputSize || !inFlight.isEmpty()) {
+                    while (next < inputSize && inFlight.size() < parallelism * 2) {
+                        RepricingChunk chunk = new RepricingChunk(in, next, Math.min(next + chunkSize, inputSize),
+                                ratingEngine);
+                        inFlight.add(pool.submit(() -> price(chunk)));
+                        next = Math.min(next + chunkSize, inputSize);
+                    }
+
+                    RepricingChunk.Result chunk = join(inFlight.poll());
+                    writeFully(results, chunk.results());
+                    writeFully(rejects, chunk.rejects());
+                    checkpoint = new RepricingCheckpoint(inputSize, tariffVersion, chunk.end(),
+                            checkpoint.rows() + chunk.rows(), checkpoint.rejected() + chunk.rejected(),
+                            results.position(), rejects.position());
+
+                    if (chunk.end() == inputSize || System.nanoTime() - lastCheckpoint >= checkpointIntervalNanos) {
+                        // The rows must be on disk before the checkpoint says so
+                        results.force(false);
+                        rejects.force(false);
+                        checkpoint.write(checkpointFile);
+                        lastCheckpoint = System.nanoTime();
+                        progress.log(checkpoint, lastCheckpoint);
+                    }
+                }
+            } finally {
+                for (ForkJoinTask<RepricingChunk.Result> task : inFlight) {
+                    task.cancel(true);
+                }
+                pool.shutdownNow();
+            }
+
+            Files.deleteIfExists(checkpointFile);
+            Summary summary = new Summary(checkpoint.rows(), checkpoint.rejected(), inputSize,
+                    Duration.ofNanos(System.nanoTime() - startNanos), progress.resumedOffset > 0);
+            log.info("Repricing {} finished: rows={}, rejected={}, duration={} ms, rowsPerMinute={}", input,
+                    summary.rows(), summary.rejected(), summary.duration().toMillis(),
+                    progress.rowsPerMinute(summary.rows(), System.nanoTime()));
+            return summary;
+        }
+    }
+
+    private static RepricingChunk.Result price(RepricingChunk chunk) {
+        try {
+            return chunk.price();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static RepricingChunk.Result join(ForkJoinTask<RepricingChunk.Result> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for repricing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException("Repricing failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Repricing cancelled");
+        }
+    }
+
+    private static void truncate(FileChannel channel, long size) throws IOException {
+        channel.truncate(size);
+        channel.position(size);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Totals of a repricing run.
+     *
+     * @param rows rows priced, valid and rejected
+     * @param rejected rows rejected
+     * @param bytes size of the input
+     * @param duration duration of this run, without the runs before a restart
+     * @param resumed whether the run continued after a checkpoint
+     */
+    public record Summary(long rows, long rejected, long bytes, Duration duration, boolean resumed) {
+    }
+
+    /**
+     * Throughput of the rows priced by this run, for the progress lines.
+     */
+    private static final class Progress {
+
+        private final long resumedOffset;
+        private final long resumedRows;
+        private final long startNanos;
+
+        Progress(RepricingCheckpoint resumed, long startNanos) {
+            this.resumedOffset = resumed.inputOffset();
+            this.resumedRows = resumed.rows();
+            this.startNanos = startNanos;
+        }
+
+        void log(RepricingCheckpoint checkpoint, long nowNanos) {
+            long elapsedNanos = Math.max(nowNanos - startNanos, 1);
+            long bytes = checkpoint.inputOffset() - resumedOffset;
+            long remaining = checkpoint.inputSize() - checkpoint.inputOffset();
+            long etaSeconds = bytes > 0 ? (long) ((double) remaining / bytes * elapsedNanos / 1e9) : -1;
+            BulkRepricer.log.info("Repricing checkpoint: {} % ({} of {} bytes), rows={}, rejected={}, "
+                            + "rowsPerMinute={}, eta={} s",
+                    checkpoint.inputSize() > 0 ? checkpoint.inputOffset() * 100 / checkpoint.inputSize() : 100,
+                    checkpoint.inputOffset(), checkpoint.inputSize(), checkpoint.rows(), checkpoint.rejected(),
+                    rowsPerMinute(checkpoint.rows(), nowNanos), etaSeconds);
+        }
+
+        long rowsPerMinute(long rows, long nowNanos) {
+            long elapsedNanos = Math.max(nowNanos - startNanos, 1);
+            return (long) ((rows - resumedRows) * 60e9 / elapsedNanos);
+        }
+    }
+}
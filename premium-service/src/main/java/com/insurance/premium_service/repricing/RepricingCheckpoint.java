@@ -0,0 +1,84 @@
+package com.insurance.premium_service.repricing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of a repricing run that has been forced to disk.
+ *
+ * All rows before the input offset are priced and their result and reject rows
+ * are contained in the first bytes of the output files, so a restarted run
+ * truncates the output files to these lengths and continues at the input offset.
+ * The checkpoint is stored as a properties file, written to a temporary file and
+ * moved over the previous one, so it is always complete.
+ *
+ * @param inputSize size of the input file in bytes, a different size means a different input
+ * @param tariffVersion version of the tariff the rows were priced with
+ * @param inputOffset offset of the first input byte not yet priced
+ * @param rows rows priced so far, valid and rejected
+ * @param rejected rows rejected so far
+ * @param resultsLength length of the result file
+ * @param rejectsLength length of the reject file
+ * @author Aylin Yilmaz
+ */
+record RepricingCheckpoint(long inputSize, long tariffVersion, long inputOffset, long rows, long rejected,
+                           long resultsLength, long rejectsLength) {
+
+    /**
+     * Reads a checkpoint.
+     *
+     * @param file the checkpoint file
+     * @return the checkpoint, or null if the file does not exist
+     * @throws IOException if the file cannot be read or is incomplete
+     */
+    static RepricingCheckpoint read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        try {
+            return new RepricingCheckpoint(
+                    Long.parseLong(properties.getProperty("inputSize")),
+                    Long.parseLong(properties.getProperty("tariffVersion")),
+                    Long.parseLong(properties.getProperty("inputOffset")),
+                    Long.parseLong(properties.getProperty("rows")),
+                    Long.parseLong(properties.getProperty("rejected")),
+                    Long.parseLong(properties.getProperty("resultsLength")),
+                    Long.parseLong(properties.getProperty("rejectsLength")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid repricing checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Writes the checkpoint, replacing the previous one.
+     *
+     * @param file the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("inputSize", Long.toString(inputSize));
+        properties.setProperty("tariffVersion", Long.toString(tariffVersion));
+        properties.setProperty("inputOffset", Long.toString(inputOffset));
+        properties.setProperty("rows", Long.toString(rows));
+        properties.setProperty("rejected", Long.toString(rejected));
+        properties.setProperty("resultsLength", Long.toString(resultsLength));
+        properties.setProperty("rejectsLength", Long.toString(rejectsLength));
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.ISO_8859_1)) {
+            properties.store(writer, "Repricing checkpoint, delete to start over");
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
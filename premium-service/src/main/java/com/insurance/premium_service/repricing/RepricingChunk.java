@@ -0,0 +1,310 @@
+package com.insurance.premium_service.repricing;
+
+import com.insurance.premium_core.Rating;
+import com.insurance.premium_core.RatingEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Prices the rows of one chunk of a memory-mapped CSV file.
+ *
+ * A chunk covers the byte range [start, end) of the input and owns every row
+ * that starts in it: a row crossing the start belongs to the previous chunk and
+ * is skipped, the last row may extend beyond the end and is read completely. So
+ * the input can be split at any byte offset without looking at its content, and
+ * every row is priced exactly once.
+ *
+ *     Each row is 'yearlyMileage,vehicleType,postcode'. Valid rows are copied
+ * to the result with the premium appended, invalid rows to the rejects with the
+ * {@link RatingEngine.Status} appended, rows that cannot be parsed with
+ * {@value #MALFORMED_ROW}. Blank rows are skipped. A header row is recognized
+ * by a first field that is not a number at offset 0 of the input.
+ *
+ * @author Aylin Yilmaz
+ */
+final class RepricingChunk {
+
+    /**
+     * Reason written to the rejects for rows that cannot be parsed.
+     */
+    static final String MALFORMED_ROW = "MALFORMED_ROW";
+
+    /**
+     * Maximum length of a row crossing the end of a chunk.
+     */
+    static final int MAX_ROW_LENGTH = 64 * 1024;
+
+    private static final byte[][] STATUS_BYTES = new byte[RatingEngine.Status.values().length][];
+    private static final byte[] MALFORMED_ROW_BYTES = MALFORMED_ROW.getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (RatingEngine.Status status : RatingEngine.Status.values()) {
+            STATUS_BYTES[status.ordinal()] = status.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final FileChannel input;
+    private final long start;
+    private final long end;
+    private final RatingEngine ratingEngine;
+
+    /**
+     * Constructs a new RepricingChunk.
+     *
+     * @param input the input file, must not be null
+     * @param start offset of the first byte of the chunk
+     * @param end offset after the last byte of the chunk, at most the size of the input
+     * @param ratingEngine the rating engine, must not be null
+     */
+    RepricingChunk(FileChannel input, long start, long end, RatingEngine ratingEngine) {
+        this.input = input;
+        this.start = start;
+        this.end = end;
+        this.ratingEngine = ratingEngine;
+    }
+
+    /**
+     * Prices all rows starting in the chunk.
+     *
+     * @return the result and reject rows of the chunk
+     * @throws IOException if the input cannot be mapped or a row crossing the end
+     *                     of the chunk is longer than {@value #MAX_ROW_LENGTH} bytes
+     */
+    Result price() throws IOException {
+        // A row starting at the end of the chunk belongs to the next one, so the byte before the start
+        // tells whether the first row starts at the start
+        long mapStart = start > 0 ? start - 1 : 0;
+        long mapEnd = Math.min(input.size(), end + MAX_ROW_LENGTH);
+        MappedByteBuffer buffer = input.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = (int) (end - mapStart);
+        boolean inputEnd = mapEnd == input.size();
+
+        int position = 0;
+        if (start > 0) {
+            if (buffer.get(0) != '\n') {
+                position = skipRow(buffer, 0);
+            } else {
+                position = 1;
+            }
+        }
+
+        Output results = new Output(limit);
+        Output rejects = new Output(256);
+        Rating rating = new Rating();
+        byte[] row = new byte[256];
+        long rows = 0;
+        long rejected = 0;
+        while (position < limit) {
+            int rowEnd = indexOf(buffer, position, '\n');
+            if (rowEnd < 0) {
+                if (!inputEnd) {
+                    throw new IOException("Row at offset " + (mapStart + position) + " is longer than "
+                            + MAX_ROW_LENGTH + " bytes");
+                }
+                rowEnd = buffer.limit();
+            }
+            int length = rowEnd - position;
+            if (length > 0 && buffer.get(rowEnd - 1) == '\r') {
+                length--;
+            }
+            if (row.length < length) {
+                row = Arrays.copyOf(row, Math.max(length, row.length * 2));
+            }
+            buffer.get(position, row, 0, length);
+            boolean first = mapStart + position == 0;
+            position = rowEnd + 1;
+
+            if (isBlank(row, length) || (first && isHeader(row, length))) {
+                continue;
+            }
+            rows++;
+            RatingEngine.Status status = rate(row, length, rating);
+            if (status == RatingEngine.Status.OK) {
+                results.write(row, length);
+                results.write(',');
+                results.write(Double.toString(rating.getPremium()));
+                results.write('\n');
+            } else {
+                rejected++;
+                rejects.write(row, length);
+                rejects.write(',');
+                rejects.write(status != null ? STATUS_BYTES[status.ordinal()] : MALFORMED_ROW_BYTES);
+                rejects.write('\n');
+            }
+        }
+        return new Result(end, rows, rejected, results.toBuffer(), rejects.toBuffer());
+    }
+
+    /**
+     * Parses and rates one row.
+     *
+     * @return the status of the rating, null if the row cannot be parsed
+     */
+    private RatingEngine.Status rate(byte[] row, int length, Rating rating) {
+        int firstComma = indexOf(row, 0, length, ',');
+        int secondComma = firstComma >= 0 ? indexOf(row, firstComma + 1, length, ',') : -1;
+        if (secondComma < 0 || indexOf(row, secondComma + 1, length, ',') >= 0) {
+            return null;
+        }
+        long yearlyMileage = parseMileage(row, 0, firstComma);
+        if (yearlyMileage < 0) {
+            return null;
+        }
+        String vehicleType = field(row, firstComma + 1, secondComma);
+        String postcode = field(row, secondComma + 1, length);
+        return ratingEngine.rate(vehicleType, (int) yearlyMileage, postcode, rating);
+    }
+
+    /**
+     * Parses a non-negative integer, surrounded by optional blanks.
+     *
+     * @return the value, or -1 if the field is not a number or exceeds an int
+     */
+    private static long parseMileage(byte[] row, int from, int to) {
+        from = trimStart(row, from, to);
+        to = trimEnd(row, from, to);
+        if (from == to) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = row[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Reads a text field without surrounding blanks and double quotes.
+     */
+    private static String field(byte[] row, int from, int to) {
+        from = trimStart(row, from, to);
+        to = trimEnd(row, from, to);
+        if (to - from >= 2 && row[from] == '"' && row[to - 1] == '"') {
+            from++;
+            to--;
+        }
+        return new String(row, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isHeader(byte[] row, int length) {
+        int firstComma = indexOf(row, 0, length, ',');
+        return parseMileage(row, 0, firstComma >= 0 ? firstComma : length) < 0;
+    }
+
+    private static boolean isBlank(byte[] row, int length) {
+        return trimStart(row, 0, length) == length;
+    }
+
+    private static int trimStart(byte[] row, int from, int to) {
+        while (from < to && (row[from] == ' ' || row[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(byte[] row, int from, int to) {
+        while (to > from && (row[to - 1] == ' ' || row[to - 1] == '\t')) {
+            to--;
+        }
+        return to;
+    }
+
+    private static int indexOf(byte[] row, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (row[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, int from, char c) {
+        int limit = buffer.limit();
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips the rest of the row containing the given position.
+     *
+     * @return the position after the end of the row, or the limit of the buffer
+     */
+    private static int skipRow(MappedByteBuffer buffer, int position) {
+        int rowEnd = indexOf(buffer, position, '\n');
+        return rowEnd >= 0 ? rowEnd + 1 : buffer.limit();
+    }
+
+    /**
+     * Rows of a priced chunk, written by the {@link BulkRepricer} in input order.
+     *
+     * @param end offset after the last byte of the chunk, the input offset of a
+     *            checkpoint once the chunk is written
+     * @param rows priced rows, valid and rejected
+     * @param rejected rejected rows
+     * @param results the result rows
+     * @param rejects the reject rows
+     */
+    record Result(long end, long rows, long rejected, ByteBuffer results, ByteBuffer rejects) {
+    }
+
+    /**
+     * Growable byte array for the rows of one chunk, not thread-safe.
+     */
+    private static final class Output {
+
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(byte[] source, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+
+        void write(byte[] source) {
+            write(source, source.length);
+        }
+
+        void write(String ascii) {
+            ensureCapacity(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[size++] = (byte) ascii.charAt(i);
+            }
+        }
+
+        void write(char c) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) c;
+        }
+
+        ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.insurance.premium_service.repricing;
+
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import com.insurance.premium_service.tariff.TariffSnapshotLoader;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Batch mode of the application: reprices a CSV file and exits.
+ *
+ * Active in the profile 'repricing', which starts the application without web
+ * and gRPC server (see application-repricing.properties):
+ *
+ *   java -jar premium-service.jar --spring.profiles.active=repricing \
+ *        --premium.repricing.input=policies.csv
+ *
+ * The tariff is loaded once from the database, or taken from the active snapshot
+ * in snapshot mode, and every row is rated by the same {@link RatingEngine} as
+ * the snapshot path of the premium calculation service, see {@link BulkRepricer}.
+ * A failed run makes the startup fail, so the process exits with a non-zero
+ * status; started again it continues after its last checkpoint.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+@Profile("repricing")
+public class RepricingRunner implements ApplicationRunner {
+
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final TariffSnapshotLoader tariffSnapshotLoader;
+    private final double baseRate;
+    private final Path input;
+    private final Path outputDirectory;
+    private final DataSize chunkSize;
+    private final int parallelism;
+    private final Duration checkpointInterval;
+
+    /**
+     * Constructs a new RepricingRunner.
+     *
+     * @param tariffSnapshotHolder holder of the active snapshot in snapshot mode, must not be null
+     * @param tariffSnapshotLoader loader of the tariff without snapshot mode, must not be null
+     * @param baseRate base rate of the premium calculation
+     * @param input the CSV file to reprice
+     * @param outputDirectory directory of output and checkpoint files, empty for the directory of the input
+     * @param chunkSize number of input bytes priced by one task
+     * @param parallelism number of worker threads, or 0 to use one per available processor
+     * @param checkpointInterval minimum time between two checkpoints
+     */
+    public RepricingRunner(
+            TariffSnapshotHolder tariffSnapshotHolder,
+            TariffSnapshotLoader tariffSnapshotLoader,
+            @Value("${premium.calculation.base-rate}") double baseRate,
+            @Value("${premium.repricing.input:}") String input,
+            @Value("${premium.repricing.output-directory:}") String outputDirectory,
+            @Value("${premium.repricing.chunk-size:16MB}") DataSize chunkSize,
+            @Value("${premium.repricing.parallelism:0}") int parallelism,
+            @Value("${premium.repricing.checkpoint-interval:10s}") Duration checkpointInterval) {
+
+        if (input.isBlank()) {
+            throw new IllegalArgumentException("premium.repricing.input must name the CSV file to reprice");
+        }
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.tariffSnapshotLoader = tariffSnapshotLoader;
+        this.baseRate = baseRate;
+        this.input = Path.of(input).toAbsolutePath();
+        this.outputDirectory = outputDirectory.isBlank() ? this.input.getParent() : Path.of(outputDirectory);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Reprices the input.
+     *
+     * @param args the application arguments, not used
+     * @throws IOException if reading the input or writing the output fails
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        TariffSnapshot tariff = tariffSnapshotHolder.current();
+        if (tariff == null) {
+            tariff = tariffSnapshotLoader.load();
+        }
+        BulkRepricer repricer = new BulkRepricer(new RatingEngine(tariff, baseRate),
+                Math.toIntExact(chunkSize.toBytes()), parallelism, checkpointInterval);
+        repricer.run(input, outputDirectory);
+    }
+}
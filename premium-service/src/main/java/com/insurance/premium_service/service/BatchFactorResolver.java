@@ -0,0 +1,172 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.TariffLookup;
+import com.insurance.premium_service.entity.PostCode;
+import com.insurance.premium_service.entity.Vehicle;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.VehicleRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Component resolving the premium factors for many requests with set-based queries.
+ *     
+ * Instead of querying each factor per request, the distinct vehicle types,
+ * postcodes and mileage values of all requests are collected first and resolved
+ * with one query per table:
+ * 
+ *   1. Vehicle factors with an IN query on the vehicle type  
+ *   2. Postcodes and their regions with a fetch-join IN query on the postcode  
+ *   3. Mileage ranges overlapping the smallest and largest requested mileage  
+ * 
+ * A batch therefore costs at most three queries, independent of its size. A
+ * query whose set is empty is skipped.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Component
+public class BatchFactorResolver {
+
+    private final PostCodeRepository postcodeRepository;
+    private final YearlyMileageRepository yearlyMileageRepository;
+    private final VehicleRepository vehicleRepository;
+
+    /**
+     * Constructs a new BatchFactorResolver with the required repositories.
+     * 
+     * @param postcodeRepository repository for postcode lookups, must not be null
+     * @param yearlyMileageRepository repository for mileage factor lookups, must not be null
+     * @param vehicleRepository repository for vehicle factor lookups, must not be null
+     */
+    public BatchFactorResolver(
+            PostCodeRepository postcodeRepository,
+            YearlyMileageRepository yearlyMileageRepository,
+            VehicleRepository vehicleRepository) {
+
+        this.postcodeRepository = postcodeRepository;
+        this.yearlyMileageRepository = yearlyMileageRepository;
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    /**
+     * Resolves the factors needed by the given requests.
+     * 
+     * @param requests the premium requests, null elements are ignored
+     * @return a lookup containing the factors of all requested vehicle types,
+     *         postcodes and mileage values
+     * @throws IllegalStateException if the mileage ranges in the requested interval overlap
+     */
+    public TariffLookup resolve(Collection<PremiumRequest> requests) {
+        return resolve(requests, null);
+    }
+
+    /**
+     * Resolves the factors needed by the given single quotes and counts every
+     * query executed in 'premium.db.queries'.
+     * 
+     * @param requests the premium requests, null elements are ignored
+     * @param premiumMetrics the meters to count the queries in, null to not count them
+     * @return a lookup containing the factors of all requested vehicle types,
+     *         postcodes and mileage values
+     * @throws IllegalStateException if the mileage ranges in the requested interval overlap
+     */
+    public TariffLookup resolve(Collection<PremiumRequest> requests, PremiumMetrics premiumMetrics) {
+        Set<String> vehicleTypes = new HashSet<>();
+        Set<String> postcodes = new HashSet<>();
+        int minMileage = Integer.MAX_VALUE;
+        int maxMileage = Integer.MIN_VALUE;
+        for (PremiumRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            if (request.getVehicleType() != null) {
+                vehicleTypes.add(request.getVehicleType());
+            }
+            if (request.getPostcode() != null) {
+                postcodes.add(request.getPostcode());
+            }
+            minMileage = Math.min(minMileage, request.getYearlyMileage());
+            maxMileage = Math.max(maxMileage, request.getYearlyMileage());
+        }
+
+        Map<String, Double> vehicleFactors = new HashMap<>();
+        if (!vehicleTypes.isEmpty()) {
+            countQuery(premiumMetrics);
+            for (Vehicle vehicle : vehicleRepository.findByVehicleTypeIn(vehicleTypes)) {
+                if (vehicle.getVehicleFactor() != null) {
+                    vehicleFactors.putIfAbsent(vehicle.getVehicleType(), vehicle.getVehicleFactor());
+                }
+            }
+        }
+
+        Map<String, Double> regionFactors = new HashMap<>();
+        if (!postcodes.isEmpty()) {
+            countQuery(premiumMetrics);
+            for (PostCode postcode : postcodeRepository.findByPostcodeInWithRegion(postcodes)) {
+                if (postcode.getRegion() != null && postcode.getRegion().getRegionFactor() != null) {
+                    regionFactors.putIfAbsent(postcode.getPostcode(), postcode.getRegion().getRegionFactor());
+                }
+            }
+        }
+
+        MileageBandIndex mileageBands = MileageBandIndex.EMPTY;
+        if (minMileage <= maxMileage) {
+            countQuery(premiumMetrics);
+            List<MileageBandIndex.Band> bands = new ArrayList<>();
+            for (YearlyMileage mileage : yearlyMileageRepository.findOverlappingRanges(
+                    BigDecimal.valueOf(minMileage), BigDecimal.valueOf(maxMileage))) {
+                if (mileage.getYearlyMileageFactor() != null) {
+                    bands.add(new MileageBandIndex.Band(
+                            mileage.getYearlyMileageFrom(), mileage.getYearlyMileageTo(), mileage.getYearlyMileageFactor()));
+                }
+            }
+            mileageBands = MileageBandIndex.of(bands);
+        }
+
+        return new ResolvedFactors(vehicleFactors, regionFactors, mileageBands);
+    }
+
+    private static void countQuery(PremiumMetrics premiumMetrics) {
+        if (premiumMetrics != null) {
+            premiumMetrics.recordDatabaseQuery();
+        }
+    }
+
+    /**
+     * Factors resolved for one batch of requests.
+     */
+    private record ResolvedFactors(
+            Map<String, Double> vehicleFactors,
+            Map<String, Double> regionFactors,
+            MileageBandIndex mileageBands) implements TariffLookup {
+
+        @Override
+        public Double getYearlyMileageFactor(int yearlyMileage) {
+            int band = mileageBands.bandOf(yearlyMileage);
+            return band != MileageBandIndex.NO_BAND ? mileageBands.getFactor(band) : null;
+        }
+
+        @Override
+        public Double getVehicleFactor(String vehicleType) {
+            return vehicleType != null ? vehicleFactors.get(vehicleType) : null;
+        }
+
+        @Override
+        public Double getRegionFactorByPostcode(String postcode) {
+            return postcode != null ? regionFactors.get(postcode) : null;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.TariffLookup;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.repository.PremiumFactors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the factor lookups of concurrent single quotes into micro batches.
+ *
+ * The first request of a batch opens it and waits until the window has passed
+ * or the batch is full. Every request arriving in the meantime joins the batch
+ * and waits for it. The first request then resolves the factors of the whole
+ * batch with the set-based queries of the {@link BatchFactorResolver}, at most
+ * three queries independent of the batch size, and every request reads its own
+ * factors from the result. A failed query fails all requests of the batch with
+ * the same exception.
+ *
+ *     Each request is delayed by at most the window plus the query, in
+ * exchange the database sees a few batched queries instead of one query per
+ * request under load. Without concurrent requests every batch contains a single
+ * request, which then only costs the window, so the window should stay well
+ * below the duration of a query. The size of every batch is recorded in the
+ * 'premium.microbatch.size' summary of {@link PremiumMetrics}, every query
+ * executed for it in 'premium.db.queries'.
+ *
+ *     Micro batching is off by default and meant to be enabled for traffic
+ * with many concurrent quotes for different keys, where it saves round trips.
+ * At low concurrency it only adds the window to every quote.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class FactorBatcher {
+
+    private final BatchFactorResolver batchFactorResolver;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchClosed = lock.newCondition();
+
+    /**
+     * The batch accepting requests, null if none. Guarded by the lock.
+     */
+    private Batch open;
+
+    /**
+     * Constructs a new FactorBatcher.
+     *
+     * @param batchFactorResolver resolver for the factors of a batch, must not be null
+     * @param enabled whether lookups are batched at all
+     * @param window time the first request of a batch waits for further requests
+     * @param maxSize number of requests after which a batch is resolved without waiting for the window
+     */
+    public FactorBatcher(
+            BatchFactorResolver batchFactorResolver,
+            @Value("${premium.micro-batch.enabled:false}") boolean enabled,
+            @Value("${premium.micro-batch.window:500us}") Duration window,
+            @Value("${premium.micro-batch.max-size:64}") int maxSize) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("premium.micro-batch.max-size must be positive: " + maxSize);
+        }
+        this.batchFactorResolver = batchFactorResolver;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return whether lookups are batched, otherwise every request should query its own factors
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the factors of a request as part of the current batch.
+     *
+     * @param request the premium request, must not be null
+     * @param premiumMetrics receives the size of the batch if the caller resolved it,
+     *                       must not be null
+     * @return the factors of the request, each null if not found
+     */
+    public PremiumFactors factorsOf(PremiumRequest request, PremiumMetrics premiumMetrics) {
+        Batch batch;
+        boolean first;
+        lock.lock();
+        try {
+            batch = open;
+            first = batch == null;
+            if (first) {
+                batch = new Batch(maxSize);
+                open = batch;
+            }
+            batch.requests.add(request);
+            if (batch.requests.size() >= maxSize) {
+                close(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (first) {
+            resolve(batch, premiumMetrics);
+        }
+        TariffLookup factors = SingleFlight.await(batch.result);
+        return new Factors(
+                factors.getYearlyMileageFactor(request.getYearlyMileage()),
+                factors.getVehicleFactor(request.getVehicleType()),
+                factors.getRegionFactorByPostcode(request.getPostcode()));
+    }
+
+    /**
+     * Waits for the window or a full batch, then resolves the factors of the batch.
+     */
+    private void resolve(Batch batch, PremiumMetrics premiumMetrics) {
+        lock.lock();
+        try {
+            long remaining = windowNanos;
+            while (open == batch && remaining > 0) {
+                remaining = batchClosed.awaitNanos(remaining);
+            }
+            if (open == batch) {
+                open = null;
+            }
+        } catch (InterruptedException e) {
+            // Resolve what has been collected so far, the waiting requests must not hang
+            Thread.currentThread().interrupt();
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // The batch is closed, its requests are only read from now on
+        try {
+            batch.result.complete(batchFactorResolver.resolve(batch.requests, premiumMetrics));
+        } catch (RuntimeException | Error e) {
+            batch.result.completeExceptionally(e);
+        } finally {
+            premiumMetrics.recordMicroBatch(batch.requests.size());
+        }
+    }
+
+    /**
+     * Stops a full batch from accepting requests and wakes up its first request.
+     * Must be called with the lock held.
+     */
+    private void close(Batch batch) {
+        if (open == batch) {
+            open = null;
+            batchClosed.signalAll();
+        }
+    }
+
+    /**
+     * Requests collected in one window and their shared factors.
+     */
+    private static final class Batch {
+
+        final List<PremiumRequest> requests;
+        final CompletableFuture<TariffLookup> result = new CompletableFuture<>();
+
+        Batch(int maxSize) {
+            this.requests = new ArrayList<>(Math.min(maxSize, 256));
+        }
+    }
+
+    /**
+     * The factors of one request, read from the factors of its batch.
+     */
+    private record Factors(Double yearlyMileageFactor, Double vehicleFactor, Double regionFactor)
+            implements PremiumFactors {
+
+        @Override
+        public Double getYearlyMileageFactor() {
+            return yearlyMileageFactor;
+        }
+
+        @Override
+        public Double getVehicleFactor() {
+            return vehicleFactor;
+        }
+
+        @Override
+        public Double getRegionFactor() {
+            return regionFactor;
+        }
+    }
+}
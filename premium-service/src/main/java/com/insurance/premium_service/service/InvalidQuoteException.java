@@ -0,0 +1,49 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.RatingEngine;
+
+/**
+ * Thrown by {@link PremiumCalculationService#calculatePremium} for a request
+ * with an invalid input.
+ *
+ * An invalid request is an expected outcome, not a failure of the service, and
+ * bots can send them at a high rate. The exception therefore has no stack trace:
+ * filling it in would walk the whole stack of the request thread on every
+ * rejected request. The input that was invalid is available as status.
+ *
+ * @author Aylin Yilmaz
+ */
+public class InvalidQuoteException extends IllegalArgumentException {
+
+    private final RatingEngine.Status status;
+
+    /**
+     * Constructs a new InvalidQuoteException.
+     *
+     * @param status the invalid input, not {@link RatingEngine.Status#OK}
+     * @param message the message returned to the client
+     */
+    public InvalidQuoteException(RatingEngine.Status status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Gets the input that was invalid.
+     *
+     * @return the status
+     */
+    public RatingEngine.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Does not fill in the stack trace, see the class comment.
+     *
+     * @return this exception
+     */
+    @Override
+    public Throwable fillInStackTrace() {
+        return this;
+    }
+}
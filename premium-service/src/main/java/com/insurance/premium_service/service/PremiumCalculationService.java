@@ -0,0 +1,435 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.PremiumMatrix;
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffLookup;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.entity.*;
+import com.insurance.premium_service.model.*;
+import com.insurance.premium_service.repository.*;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class responsible for calculating insurance premiums.
+ * 
+ * This service implements the core business logic for premium calculation by combining
+ * multiple risk factors including vehicle type, yearly mileage, and geographic region.
+ * The calculation follows the formula:
+ * 
+ * Premium = Base Rate × Vehicle Factor × Mileage Factor × Region Factor
+ * 
+ * All factors are retrieved from the database based on the input parameters
+ * provided in the premium request. If snapshot mode is enabled, they are read
+ * from the in-memory {@link TariffSnapshot} instead and no database query is made.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Service
+public class PremiumCalculationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PremiumCalculationService.class);
+
+    private final PostCodeRepository postcodeRepository;
+    private final RegionRepository regionRepository;
+    private final YearlyMileageRepository yearlyMileageRepository;
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final BatchFactorResolver batchFactorResolver;
+    private final QuoteCache quoteCache;
+    private final SingleFlight singleFlight;
+    private final FactorBatcher factorBatcher;
+    private final PremiumMetrics premiumMetrics;
+    private final QuoteLogger quoteLogger;
+    private final QuoteAuditJournal quoteAuditJournal;
+
+    /**
+     * Base rate for premium calculation, injected from application properties.
+     * This value serves as the starting point for all premium calculations.
+     */
+    @Value("${premium.calculation.base-rate}")
+    private double baseRate;
+
+    /**
+     * Constructs a new PremiumCalculationService with the required repositories.
+     * 
+     * @param postcodeRepository repository for postcode lookups, must not be null
+     * @param regionRepository repository for region data access, must not be null
+     * @param yearlyMileageRepository repository for mileage factor lookups, must not be null
+     * @param tariffSnapshotHolder holder of the in-memory tariff snapshot, must not be null
+     * @param batchFactorResolver resolver for set-based factor lookups of batches, must not be null
+     * @param quoteCache cache for calculated premiums, must not be null
+     * @param singleFlight coalescing of concurrent database lookups of the same key, must not be null
+     * @param factorBatcher micro batching of concurrent database lookups, must not be null
+     * @param premiumMetrics meters of the calculation, must not be null
+     * @param quoteLogger logger for the summary line of every quote, must not be null
+     * @param quoteAuditJournal journal of all quotes and rejected requests, must not be null
+     */
+    public PremiumCalculationService(
+            PostCodeRepository postcodeRepository, 
+            RegionRepository regionRepository,
+            YearlyMileageRepository yearlyMileageRepository, 
+            TariffSnapshotHolder tariffSnapshotHolder,
+            BatchFactorResolver batchFactorResolver,
+            QuoteCache quoteCache,
+            SingleFlight singleFlight,
+            FactorBatcher factorBatcher,
+            PremiumMetrics premiumMetrics,
+            QuoteLogger quoteLogger,
+            QuoteAuditJournal quoteAuditJournal) {
+
+        this.postcodeRepository = postcodeRepository;
+        this.regionRepository = regionRepository;
+        this.yearlyMileageRepository = yearlyMileageRepository;
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.batchFactorResolver = batchFactorResolver;
+        this.quoteCache = quoteCache;
+        this.singleFlight = singleFlight;
+        this.factorBatcher = factorBatcher;
+        this.premiumMetrics = premiumMetrics;
+        this.quoteLogger = quoteLogger;
+        this.quoteAuditJournal = quoteAuditJournal;
+    }
+
+    /**
+     * Creates a copy of this service that shares repositories, tariff snapshot,
+     * quote cache, single flight, factor batcher and base rate, but records into other meters, quote logger and
+     * audit journal. Used by {@link PremiumWarmup}, so synthetic quotes run the
+     * same code without appearing in the metrics, logs or audit journal.
+     * 
+     * @param premiumMetrics meters of the copy, must not be null
+     * @param quoteLogger quote logger of the copy, must not be null
+     * @param quoteAuditJournal audit journal of the copy, must not be null
+     * @return the copy
+     */
+    PremiumCalculationService withSinks(PremiumMetrics premiumMetrics, QuoteLogger quoteLogger,
+                                        QuoteAuditJournal quoteAuditJournal) {
+        PremiumCalculationService copy = new PremiumCalculationService(postcodeRepository, regionRepository,
+                yearlyMileageRepository, tariffSnapshotHolder, batchFactorResolver, quoteCache,
+                singleFlight, factorBatcher, premiumMetrics, quoteLogger, quoteAuditJournal);
+        copy.baseRate = baseRate;
+        return copy;
+    }
+
+    /**
+     * Calculates the insurance premium based on the provided request parameters.
+     * 
+     * This method performs the following steps:
+     * 
+     *   1. Retrieves the yearly mileage, vehicle type and region factor, either
+     *      from the tariff snapshot or with a single database query  
+     *   2. Validates the yearly mileage factor  
+     *   3. Validates the vehicle type factor  
+     *   4. Validates the region factor of the postcode's region
+     *   5. Calculates the final premium using all factors  
+     * 
+     * If the active tariff snapshot contains a {@link PremiumMatrix}, the premium
+     * of a valid request is read from it directly. Without a snapshot, if the
+     * {@link QuoteCache} already contains the premium for the vehicle type, postcode
+     * and mileage band of the request, no factor is looked up. With a snapshot the
+     * cache is skipped: the three lookups in memory are cheaper than building the
+     * cache key, and a quote then allocates nothing but the response, see
+     * {@link RatingEngine}. Concurrent requests that miss the cache for the same
+     * key share one database query, see {@link SingleFlight}, and the lookups of
+     * concurrent requests for different keys are combined into micro batches of
+     * set-based queries, see {@link FactorBatcher}.
+     * 
+     *     The duration of every quote by source, of the cache and factor lookups,
+     * the validation failures and the database queries per quote are recorded in
+     * {@link PremiumMetrics}. Every quote is summarized in one line by the
+     * {@link QuoteLogger}, the individual steps are only logged with DEBUG. Quotes
+     * and rejected requests are appended to the {@link QuoteAuditJournal}.
+     * 
+     *     Unlike {@link RatingEngine}, which reports an invalid input as
+     * {@link RatingEngine.Status}, this method still throws: the controller and
+     * the gRPC service handle an invalid quote as exception. The status is
+     * carried by the {@link InvalidQuoteException}, which has no stack trace, so
+     * the throw costs about as much as returning it.
+     * 
+     * @param request the premium calculation request containing vehicle type,
+     *               yearly mileage, and postcode
+     * @return PremiumResponse containing the calculated premium amount
+     * @throws InvalidQuoteException if any of the input parameters are invalid:
+     *                                    
+     *                                    Invalid yearly mileage (no matching range found)  
+     *                                    Invalid vehicle type (not found in database)  
+     *                                    Invalid postcode (not found or no associated region)  
+     *                                 
+     */
+    public PremiumResponse calculatePremium(PremiumRequest request) {
+        
+        log.debug("Starting premium calculation for request: {}", request);
+        long start = System.nanoTime();
+
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        PremiumMatrix premiumMatrix = snapshot != null ? snapshot.getPremiumMatrix() : null;
+        if (premiumMatrix != null) {
+            double premium = premiumMatrix.premiumOf(
+                    request.getVehicleType(), request.getYearlyMileage(), request.getPostcode());
+            if (!Double.isNaN(premium)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Premium read from premium matrix: total={}", premium);
+                }
+                quoteLogger.logQuote(request, PremiumMetrics.Source.PREMIUM_MATRIX, premium,
+                        premiumMetrics.recordQuote(PremiumMetrics.Source.PREMIUM_MATRIX, start));
+                QuoteOutcomes.acceptFromMatrix(quoteAuditJournal, request, snapshot, premium);
+                return new PremiumResponse(premium);
+            }
+            // Invalid request, the factor lookups below report which input is invalid
+        }
+
+        PremiumMetrics.Source source;
+        QuoteCache.Key cacheKey = null;
+        double yearlyMileageFactor;
+        double vehicleFactor;
+        double regionFactor;
+
+        if (snapshot != null) {
+            // Three lookups in memory, cheaper than building a cache key
+            source = PremiumMetrics.Source.SNAPSHOT;
+            yearlyMileageFactor = snapshot.yearlyMileageFactorOf(request.getYearlyMileage());
+            vehicleFactor = snapshot.vehicleFactorOf(request.getVehicleType());
+            regionFactor = snapshot.regionFactorOf(request.getPostcode());
+            premiumMetrics.recordStage(PremiumMetrics.Stage.SNAPSHOT_LOOKUP, start);
+        } else {
+            cacheKey = quoteCache.keyOf(request);
+            QuoteCache.CachedQuote cached = cacheKey != null ? quoteCache.get(cacheKey) : null;
+            long lookupStart = premiumMetrics.recordStage(PremiumMetrics.Stage.QUOTE_CACHE, start);
+            if (cached != null) {
+                log.debug("Premium served from quote cache: total={}", cached.premium());
+                quoteLogger.logQuote(request, PremiumMetrics.Source.QUOTE_CACHE, cached.premium(),
+                        premiumMetrics.recordQuote(PremiumMetrics.Source.QUOTE_CACHE, start));
+                QuoteOutcomes.accept(quoteAuditJournal, request, PremiumMetrics.Source.QUOTE_CACHE,
+                        cached.yearlyMileageFactor(), cached.vehicleFactor(), cached.regionFactor(),
+                        cached.premium());
+                return new PremiumResponse(cached.premium());
+            }
+
+            // All three factors in one database round trip, shared with concurrent requests for the same
+            // key and, with micro batching, with concurrent requests for other keys
+            source = PremiumMetrics.Source.DATABASE;
+            PremiumFactors factors = singleFlight.execute(cacheKey != null ? cacheKey : FactorsKey.of(request),
+                    () -> factorBatcher.isEnabled()
+                            ? factorBatcher.factorsOf(request, premiumMetrics)
+                            : findPremiumFactors(request),
+                    premiumMetrics);
+            yearlyMileageFactor = valueOf(factors.getYearlyMileageFactor());
+            vehicleFactor = valueOf(factors.getVehicleFactor());
+            regionFactor = valueOf(factors.getRegionFactor());
+            premiumMetrics.recordStage(PremiumMetrics.Stage.DATABASE_LOOKUP, lookupStart);
+        }
+
+        RatingEngine.Status status = RatingEngine.statusOf(yearlyMileageFactor, vehicleFactor, regionFactor);
+        if (status != RatingEngine.Status.OK) {
+            throw reject(request, source, status, yearlyMileageFactor, vehicleFactor, regionFactor);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Factors used → baseRate={}, yearlyMileageFactor={}, vehicleFactor={}, regionFactor={}",
+                    baseRate, yearlyMileageFactor, vehicleFactor, regionFactor);
+        }
+
+        // Calculate total premium based on factors
+        double total = RatingEngine.premiumOf(baseRate, yearlyMileageFactor, vehicleFactor, regionFactor);
+
+        if (cacheKey != null) {
+            quoteCache.put(cacheKey,
+                    new QuoteCache.CachedQuote(total, yearlyMileageFactor, vehicleFactor, regionFactor));
+        }
+
+        quoteLogger.logQuote(request, source, total, premiumMetrics.recordQuote(source, start));
+        QuoteOutcomes.accept(quoteAuditJournal, request, source, yearlyMileageFactor, vehicleFactor, regionFactor,
+                total);
+
+        return new PremiumResponse(total);
+    }
+
+    /**
+     * Records a rejected request in the metrics and the audit journal, see {@link QuoteOutcomes}.
+     * 
+     * @return the exception to throw
+     */
+    private InvalidQuoteException reject(PremiumRequest request, PremiumMetrics.Source source, RatingEngine.Status status,
+                                         double yearlyMileageFactor, double vehicleFactor, double regionFactor) {
+        return QuoteOutcomes.reject(premiumMetrics, quoteAuditJournal, request, source, status,
+                yearlyMileageFactor, vehicleFactor, regionFactor);
+    }
+
+    /**
+     * Calculates the insurance premiums for a batch of requests.
+     * 
+     * In snapshot mode all factors are read from memory. Otherwise the distinct
+     * vehicle types, postcodes and mileage values of the whole batch are resolved
+     * with a few set-based queries by the {@link BatchFactorResolver}, instead of
+     * querying every factor per request.
+     * 
+     *     Invalid requests do not fail the batch. Their result contains the same
+     * error message that {@link #calculatePremium(PremiumRequest)} would throw.
+     * Like single quotes, every item is appended to the {@link QuoteAuditJournal}
+     * and every rejected item is counted as validation failure, see
+     * {@link QuoteOutcomes}.
+     * 
+     * @param requests the premium calculation requests
+     * @return one result per request, in the same order as the requests
+     */
+    public List<PremiumBatchResult> calculatePremiums(List<PremiumRequest> requests) {
+        log.info("Starting batch premium calculation for {} requests", requests.size());
+
+        TariffLookup tariff = tariffSnapshotHolder.current();
+        if (tariff == null) {
+            tariff = batchFactorResolver.resolve(requests);
+        }
+
+        List<PremiumBatchResult> results = new ArrayList<>(requests.size());
+        for (PremiumRequest request : requests) {
+            results.add(calculateBatchItem(request, tariff));
+        }
+        return results;
+    }
+
+    /**
+     * Calculates the premium of a single batch item from already resolved factors.
+     * 
+     * @param request the premium calculation request, may be null
+     * @param tariff the factors resolved for the batch
+     * @return the calculated premium, or the reason why the request is invalid
+     */
+    private PremiumBatchResult calculateBatchItem(PremiumRequest request, TariffLookup tariff) {
+        if (request == null) {
+            return PremiumBatchResult.failure("Missing request");
+        }
+
+        if (tariff instanceof TariffSnapshot snapshot && snapshot.getPremiumMatrix() != null) {
+            double premium = snapshot.getPremiumMatrix().premiumOf(
+                    request.getVehicleType(), request.getYearlyMileage(), request.getPostcode());
+            if (!Double.isNaN(premium)) {
+                QuoteOutcomes.acceptFromMatrix(quoteAuditJournal, request, snapshot, premium);
+                return PremiumBatchResult.success(premium);
+            }
+        }
+
+        PremiumMetrics.Source source = tariff instanceof TariffSnapshot
+                ? PremiumMetrics.Source.SNAPSHOT
+                : PremiumMetrics.Source.DATABASE;
+        double yearlyMileageFactor = valueOf(tariff.getYearlyMileageFactor(request.getYearlyMileage()));
+        double vehicleFactor = valueOf(tariff.getVehicleFactor(request.getVehicleType()));
+        double regionFactor = valueOf(tariff.getRegionFactorByPostcode(request.getPostcode()));
+
+        RatingEngine.Status status = RatingEngine.statusOf(yearlyMileageFactor, vehicleFactor, regionFactor);
+        if (status != RatingEngine.Status.OK) {
+            return PremiumBatchResult.failure(
+                    reject(request, source, status, yearlyMileageFactor, vehicleFactor, regionFactor).getMessage());
+        }
+
+        double total = RatingEngine.premiumOf(baseRate, yearlyMileageFactor, vehicleFactor, regionFactor);
+        QuoteOutcomes.accept(quoteAuditJournal, request, source, yearlyMileageFactor, vehicleFactor, regionFactor,
+                total);
+        return PremiumBatchResult.success(total);
+    }
+
+    /**
+     * Retrieves the region factor for the region the specified postcode belongs to.
+     * 
+     * In snapshot mode the factor is read with a single array lookup, otherwise
+     * the region is resolved via {@link #getRegionByPostcode(String)} and
+     * {@link #getRegionFactorByRegion(String)}.
+     * 
+     * @param postcode the postcode to look up
+     * @return the region factor for premium calculation, or null if the postcode
+     *         or its region is not found
+     */
+    public Double getRegionFactorByPostcode(String postcode) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return snapshot.getRegionFactorByPostcode(postcode);
+        }
+        return getRegionFactorByRegion(getRegionByPostcode(postcode));
+    }
+
+    /**
+     * Retrieves the region name associated with the specified postcode.
+     * 
+     * This method performs a database lookup to find the postcode record
+     * and returns the associated region name.
+     * 
+     * @param postcode the postcode to look up, must not be null
+     * @return the region name associated with the postcode, or null if not found
+     */
+    public String getRegionByPostcode(String postcode) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return snapshot.getRegionByPostcode(postcode);
+        }
+        return postcodeRepository.findByPostcode(postcode)
+                .map(p -> p.getRegion() != null ? p.getRegion().getRegion() : null)
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves the region factor for premium calculation based on the region name.
+     * 
+     * The region factor represents the risk multiplier associated with a specific
+     * geographic region.
+     * 
+     * @param regionName the name of the region to look up, must not be null
+     * @return the region factor for premium calculation, or null if region not found
+     */
+    public Double getRegionFactorByRegion(String regionName) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return snapshot.getRegionFactor(regionName);
+        }
+        return regionRepository.findByRegion(regionName)
+                .map(Region::getRegionFactor)
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves the yearly mileage factor based on the provided mileage value.
+     * 
+     * This method finds the appropriate mileage range that contains the specified
+     * yearly mileage and returns the associated factor for premium calculation.
+     * 
+     * @param yearlyMileage the yearly mileage in kilometers or miles
+     * @return the mileage factor for premium calculation, or null if no matching range found
+     */
+    public Double getYearlyMileageFactor(int yearlyMileage) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return snapshot.getYearlyMileageFactor(yearlyMileage);
+        }
+        return yearlyMileageRepository.findByYearlyMileageRange(BigDecimal.valueOf(yearlyMileage))
+                .map(YearlyMileage::getYearlyMileageFactor)
+                .orElse(null);
+    }
+
+    private PremiumFactors findPremiumFactors(PremiumRequest request) {
+        PremiumFactors factors = postcodeRepository.findPremiumFactors(
+                BigDecimal.valueOf(request.getYearlyMileage()), request.getVehicleType(), request.getPostcode());
+        premiumMetrics.recordDatabaseQuery();
+        return factors;
+    }
+
+    private static double valueOf(Double factor) {
+        return factor != null ? factor : Double.NaN;
+    }
+
+    /**
+     * Single flight key of a request without quote cache key, i.e. with the
+     * quote cache disabled or a mileage outside of all bands.
+     */
+    private record FactorsKey(int yearlyMileage, String vehicleType, String postcode) {
+
+        static FactorsKey of(PremiumRequest request) {
+            return new FactorsKey(request.getYearlyMileage(), request.getVehicleType(), request.getPostcode());
+        }
+    }
+}
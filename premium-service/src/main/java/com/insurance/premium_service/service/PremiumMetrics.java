@@ -0,0 +1,207 @@
+package com.insurance.premium_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the premium calculation.
+ *
+ * All meters are registered once in the constructor and kept in arrays indexed
+ * by the enum ordinals, so recording a value on the request path is a
+ * {@link System#nanoTime()} call and an update of an existing meter, without
+ * registry lookups, tag creation or allocation. The end time of a stage is
+ * returned to be used as the start time of the next one, which saves a clock
+ * read per stage.
+ *
+ *     Published meters (the percentile histograms are enabled with
+ * 'management.metrics.distribution.percentiles-histogram.premium'):
+ *
+ *   premium.quotes                  timer per successful quote, tag source
+ *   premium.calculation.stage       timer per step of the calculation, tag stage
+ *   premium.validation.failures     counter of rejected requests, tag reason
+ *   premium.db.queries              database queries of single quotes, a micro
+ *                                   batch counts each of its (up to three) queries
+ *   premium.controller              timer of the controller method, tag endpoint
+ *   premium.singleflight.waiters    requests that waited for the database lookup
+ *                                   of another request, per lookup
+ *   premium.microbatch.size         requests per micro batch of factor lookups
+ *
+ * The database queries per quote are the rate of 'premium.db.queries' divided
+ * by the rate of 'premium.quotes', the JSON (de)serialization is the difference
+ * between Spring's 'http.server.requests' and 'premium.controller'.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class PremiumMetrics {
+
+    /**
+     * Where the premium of a quote came from.
+     */
+    public enum Source {
+        PREMIUM_MATRIX, QUOTE_CACHE, SNAPSHOT, DATABASE
+    }
+
+    /**
+     * Timed steps of a premium calculation.
+     */
+    public enum Stage {
+        QUOTE_CACHE, SNAPSHOT_LOOKUP, DATABASE_LOOKUP
+    }
+
+    /**
+     * Reasons for rejecting a premium request.
+     */
+    public enum ValidationFailure {
+        YEARLY_MILEAGE, VEHICLE_TYPE, POSTCODE
+    }
+
+    /**
+     * Timed controller endpoints and gRPC methods (per quote of a stream).
+     */
+    public enum Endpoint {
+        CALCULATE, BATCH, GRPC_QUOTE, GRPC_STREAM
+    }
+
+    private final Timer[] quoteTimers;
+    private final Timer[] stageTimers;
+    private final Counter[] validationFailures;
+    private final Timer[] controllerTimers;
+    private final Counter databaseQueries;
+    private final DistributionSummary singleFlightWaiters;
+    private final DistributionSummary microBatchSize;
+
+    /**
+     * Constructs a new PremiumMetrics and registers all meters.
+     *
+     * @param registry the registry to publish the meters to, must not be null
+     */
+    public PremiumMetrics(MeterRegistry registry) {
+        quoteTimers = new Timer[Source.values().length];
+        for (Source source : Source.values()) {
+            quoteTimers[source.ordinal()] = Timer.builder("premium.quotes")
+                    .description("Successfully calculated premiums")
+                    .tag("source", tagValue(source))
+                    .register(registry);
+        }
+
+        stageTimers = new Timer[Stage.values().length];
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder("premium.calculation.stage")
+                    .description("Duration of a step of the premium calculation")
+                    .tag("stage", tagValue(stage))
+                    .register(registry);
+        }
+
+        validationFailures = new Counter[ValidationFailure.values().length];
+        for (ValidationFailure reason : ValidationFailure.values()) {
+            validationFailures[reason.ordinal()] = Counter.builder("premium.validation.failures")
+                    .description("Premium requests rejected as invalid")
+                    .tag("reason", tagValue(reason))
+                    .register(registry);
+        }
+
+        controllerTimers = new Timer[Endpoint.values().length];
+        for (Endpoint endpoint : Endpoint.values()) {
+            controllerTimers[endpoint.ordinal()] = Timer.builder("premium.controller")
+                    .description("Duration of the controller method, without (de)serialization")
+                    .tag("endpoint", tagValue(endpoint))
+                    .register(registry);
+        }
+
+        databaseQueries = Counter.builder("premium.db.queries")
+                .description("Database queries made for single quotes, up to three per micro batch")
+                .register(registry);
+
+        singleFlightWaiters = DistributionSummary.builder("premium.singleflight.waiters")
+                .description("Requests that waited for the database lookup of another request for the same key, per lookup")
+                .register(registry);
+
+        microBatchSize = DistributionSummary.builder("premium.microbatch.size")
+                .description("Single quotes whose factors were looked up together in one micro batch")
+                .register(registry);
+    }
+
+    /**
+     * Records a successfully calculated premium.
+     *
+     * @param source where the premium came from
+     * @param startNanos the {@link System#nanoTime()} at the start of the calculation
+     * @return the duration of the calculation in nanoseconds
+     */
+    public long recordQuote(Source source, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        quoteTimers[source.ordinal()].record(duration, TimeUnit.NANOSECONDS);
+        return duration;
+    }
+
+    /**
+     * Records the duration of a calculation step.
+     *
+     * @param stage the step
+     * @param startNanos the {@link System#nanoTime()} at the start of the step
+     * @return the {@link System#nanoTime()} at the end of the step
+     */
+    public long recordStage(Stage stage, long startNanos) {
+        long end = System.nanoTime();
+        stageTimers[stage.ordinal()].record(end - startNanos, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    /**
+     * Counts a rejected request.
+     *
+     * @param reason the input that was invalid
+     */
+    public void recordValidationFailure(ValidationFailure reason) {
+        validationFailures[reason.ordinal()].increment();
+    }
+
+    /**
+     * Counts a database query made for a single quote, or one of the queries of a micro batch of them.
+     */
+    public void recordDatabaseQuery() {
+        databaseQueries.increment();
+    }
+
+    /**
+     * Records how many requests shared a database lookup of a single quote
+     * instead of running their own, see {@link SingleFlight}.
+     *
+     * @param waiters the requests that waited for the lookup, 0 if none
+     */
+    public void recordSingleFlight(int waiters) {
+        singleFlightWaiters.record(waiters);
+    }
+
+    /**
+     * Records how many single quotes looked up their factors together,
+     * see {@link FactorBatcher}.
+     *
+     * @param size the requests of the batch
+     */
+    public void recordMicroBatch(int size) {
+        microBatchSize.record(size);
+    }
+
+    /**
+     * Records the duration of a controller method.
+     *
+     * @param endpoint the endpoint
+     * @param startNanos the {@link System#nanoTime()} at the start of the method
+     */
+    public void recordController(Endpoint endpoint, long startNanos) {
+        controllerTimers[endpoint.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,303 @@
+package com.insurance.premium_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service calculating premiums for a stream of newline-delimited JSON requests.
+ *     
+ * The input is read line by line and grouped into chunks. Each chunk is priced
+ * as a batch by {@link PremiumCalculationService#calculatePremiums(List)} on a
+ * fixed pool of worker threads, so several chunks are calculated in parallel.
+ * The results are written as newline-delimited JSON in input order.
+ * 
+ *     A line longer than 'premium.stream.max-line-length' characters is not
+ * buffered: the rest of it is skipped and its result is an error, so a body
+ * without line breaks cannot fill the memory either.
+ * 
+ *     At most a fixed number of chunks is in flight at any time. When that limit
+ * is reached, reading pauses until the oldest chunk has been written. Since the
+ * output is written with blocking I/O, a slow client pauses the reading as well,
+ * so memory stays bounded by the chunk size and the in-flight limit regardless of
+ * how large the input is.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Service
+public class PremiumStreamService {
+
+    private final PremiumCalculationService premiumCalculationService;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxLineLength;
+
+    /**
+     * Constructs a new PremiumStreamService.
+     * 
+     * @param premiumCalculationService the service used to price each chunk, must not be null
+     * @param objectMapper the mapper used to read requests and write results, must not be null
+     * @param chunkSize the number of requests priced together as one batch
+     * @param parallelism the number of worker threads, or 0 to use one per available processor
+     * @param maxLineLength the maximum number of characters of a request line
+     */
+    public PremiumStreamService(
+            PremiumCalculationService premiumCalculationService,
+            ObjectMapper objectMapper,
+            @Value("${premium.stream.chunk-size:500}") int chunkSize,
+            @Value("${premium.stream.parallelism:0}") int parallelism,
+            @Value("${premium.stream.max-line-length:8192}") int maxLineLength) {
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        this.premiumCalculationService = premiumCalculationService;
+        this.requestReader = objectMapper.readerFor(PremiumRequest.class);
+        this.resultWriter = objectMapper.writerFor(PremiumBatchResult.class);
+        this.executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = threads * 2;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Reads newline-delimited premium requests and writes one result line per request.
+     *     
+     * Blank lines are skipped. A line that cannot be parsed or is too long
+     * produces an error result, it does not abort the stream.
+     * 
+     * @param input the newline-delimited JSON requests, read until end of stream
+     * @param output the stream the newline-delimited JSON results are written to, not closed
+     * @return the number of processed requests
+     * @throws IOException if reading the input or writing the output fails
+     */
+    public long calculate(InputStream input, OutputStream output) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8), maxLineLength);
+        JsonGenerator generator = resultWriter.createGenerator(output);
+        generator.setRootValueSeparator(null);
+        Deque<Future<List<PremiumBatchResult>>> inFlight = new ArrayDeque<>();
+        long count = 0;
+
+        try {
+            Chunk chunk = new Chunk(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line != BoundedLineReader.TOO_LONG && line.isBlank()) {
+                    continue;
+                }
+                chunk.add(line);
+                count++;
+                if (chunk.size() == chunkSize) {
+                    if (inFlight.size() == maxChunksInFlight) {
+                        write(inFlight.poll(), generator);
+                    }
+                    inFlight.add(executor.submit(chunk::calculate));
+                    chunk = new Chunk(chunkSize);
+                }
+            }
+            if (chunk.size() > 0) {
+                inFlight.add(executor.submit(chunk::calculate));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), generator);
+            }
+        } finally {
+            for (Future<List<PremiumBatchResult>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Shuts down the worker threads when the application context is closed.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void write(Future<List<PremiumBatchResult>> future, JsonGenerator generator) throws IOException {
+        List<PremiumBatchResult> results;
+        try {
+            results = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for premium calculation");
+        } catch (ExecutionException e) {
+            throw new IOException("Premium calculation failed", e.getCause());
+        }
+        for (PremiumBatchResult result : results) {
+            resultWriter.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    /**
+     * Requests read from consecutive input lines, priced together as one batch.
+     */
+    private final class Chunk {
+
+        private final List<String> lines;
+
+        private Chunk(int capacity) {
+            this.lines = new ArrayList<>(capacity);
+        }
+
+        private void add(String line) {
+            lines.add(line);
+        }
+
+        private int size() {
+            return lines.size();
+        }
+
+        private List<PremiumBatchResult> calculate() {
+            List<PremiumRequest> requests = new ArrayList<>(lines.size());
+            String[] parseErrors = new String[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                if (lines.get(i) == BoundedLineReader.TOO_LONG) {
+                    requests.add(null);
+                    parseErrors[i] = "Request line longer than " + maxLineLength + " characters";
+                    continue;
+                }
+                try {
+                    requests.add(requestReader.readValue(lines.get(i)));
+                } catch (JsonProcessingException e) {
+                    requests.add(null);
+                    parseErrors[i] = "Malformed request: " + e.getOriginalMessage();
+                }
+            }
+
+            List<PremiumBatchResult> results = premiumCalculationService.calculatePremiums(requests);
+            for (int i = 0; i < parseErrors.length; i++) {
+                if (parseErrors[i] != null) {
+                    results.set(i, PremiumBatchResult.failure(parseErrors[i]));
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Reads lines of at most a maximum length. Longer lines are skipped up to
+     * their line break and returned as {@link #TOO_LONG}.
+     */
+    private static final class BoundedLineReader {
+
+        /**
+         * Returned instead of a line that exceeds the maximum length, compared by identity.
+         */
+        static final String TOO_LONG = new String("<too long>");
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Reads the next line without its line break ('\n' or "\r\n").
+         *
+         * @return the line, {@link #TOO_LONG}, or null at the end of the stream
+         */
+        String readLine() throws IOException {
+            line.setLength(0);
+            boolean tooLong = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        if (tooLong) {
+                            return TOO_LONG;
+                        }
+                        // the last line may end without a line break
+                        return line.length() > 0 ? lineOrTooLong() : null;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                if (!tooLong) {
+                    line.append(buffer, start, position - start);
+                    if (line.length() > maxLength + 1) {
+                        // One more for a carriage return before the line break
+                        tooLong = true;
+                        line.setLength(0);
+                    }
+                }
+                if (position < limit) {
+                    position++;
+                    if (tooLong) {
+                        return TOO_LONG;
+                    }
+                    return lineOrTooLong();
+                }
+            }
+        }
+
+        private String lineOrTooLong() {
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                length--;
+            }
+            return length > maxLength ? TOO_LONG : line.substring(0, length);
+        }
+    }
+
+    /**
+     * Creates named daemon worker threads.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "premium-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
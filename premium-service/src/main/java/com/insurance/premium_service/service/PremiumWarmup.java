@@ -0,0 +1,276 @@
+package com.insurance.premium_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.entity.Vehicle;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.PostcodeRegion;
+import com.insurance.premium_service.repository.VehicleRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NativeDetector;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up of the JIT compiler before the instance reports itself ready.
+ *
+ * A freshly started JVM runs the quote path interpreted until the JIT compiler
+ * has compiled it, so the first few thousand quotes after a deploy are slow. This
+ * runner sends synthetic quotes through {@link PremiumCalculationService#calculatePremium}
+ * and through the Jackson mapping of request and response, until compilation has
+ * settled or the budget 'premium.warmup.budget' is used up:
+ *
+ *   1. The reference data is loaded: the tariff snapshot is already in memory, the
+ *      synthetic requests are built from the vehicle types, mileage ranges and a
+ *      sample of the postcodes with a region in the database, so all are valid.
+ *   2. The requests are quoted in rounds of {@value #ROUND_MILLIS} ms. After at
+ *      least {@value #MIN_QUOTES} quotes, compilation counts as settled when the
+ *      JIT compiler spent at most {@value #QUIET_COMPILE_MILLIS} ms in each of
+ *      {@value #QUIET_ROUNDS} consecutive rounds.
+ *
+ * Spring Boot reports the readiness state ACCEPTING_TRAFFIC only after all
+ * application runners have completed, so '/actuator/health/readiness' returns
+ * 503 until the warm-up is done. The duration is logged and published as
+ * 'premium.warmup.duration', the number of synthetic quotes as 'premium.warmup.quotes'.
+ *
+ *     The synthetic quotes run through a copy of the service that shares tariff
+ * data and quote cache (which they prime), but records into throwaway meters and
+ * does not log or audit them. Tomcat, the controller and the Spring MVC message
+ * conversion are not exercised. The warm-up is skipped in a native image, which
+ * has no JIT compiler, and in the 'reactive' profile.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+@Profile("!reactive")
+public class PremiumWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PremiumWarmup.class);
+
+    static final long ROUND_MILLIS = 100;
+    static final int MIN_QUOTES = 20_000;
+    static final int QUIET_ROUNDS = 3;
+    static final long QUIET_COMPILE_MILLIS = 1;
+
+    private static final int POSTCODE_SAMPLE = 256;
+    private static final int REQUEST_COUNT = 4096;
+
+    private final PremiumCalculationService warmupService;
+    private final PostCodeRepository postcodeRepository;
+    private final VehicleRepository vehicleRepository;
+    private final YearlyMileageRepository yearlyMileageRepository;
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+    private final ObjectWriter requestWriter;
+    private final boolean enabled;
+    private final Duration budget;
+
+    private volatile long durationNanos;
+    private volatile long quotes;
+
+    /**
+     * Constructs a new PremiumWarmup.
+     *
+     * @param premiumCalculationService the service to warm up, must not be null
+     * @param postcodeRepository repository for the postcode sample, must not be null
+     * @param vehicleRepository repository for the vehicle types, must not be null
+     * @param yearlyMileageRepository repository for the mileage ranges, must not be null
+     * @param objectMapper the object mapper of Spring MVC, must not be null
+     * @param meterRegistry registry for the warm-up meters, must not be null
+     * @param enabled whether to warm up before the instance reports itself ready
+     * @param budget maximum duration of the warm-up
+     */
+    public PremiumWarmup(
+            PremiumCalculationService premiumCalculationService,
+            PostCodeRepository postcodeRepository,
+            VehicleRepository vehicleRepository,
+            YearlyMileageRepository yearlyMileageRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${premium.warmup.enabled:true}") boolean enabled,
+            @Value("${premium.warmup.budget:10s}") Duration budget) {
+
+        this.warmupService = premiumCalculationService.withSinks(
+                new PremiumMetrics(new SimpleMeterRegistry()), new QuoteLogger(0), disabledAuditJournal());
+        this.postcodeRepository = postcodeRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.yearlyMileageRepository = yearlyMileageRepository;
+        this.requestReader = objectMapper.readerFor(PremiumRequest.class);
+        this.responseWriter = objectMapper.writerFor(PremiumResponse.class);
+        this.requestWriter = objectMapper.writerFor(PremiumRequest.class);
+        this.enabled = enabled;
+        this.budget = budget;
+
+        TimeGauge.builder("premium.warmup.duration", this, TimeUnit.NANOSECONDS, warmup -> warmup.durationNanos)
+                .description("Duration of the JIT warm-up before the instance reported itself ready")
+                .register(meterRegistry);
+        Gauge.builder("premium.warmup.quotes", this, warmup -> warmup.quotes)
+                .description("Synthetic quotes calculated during the JIT warm-up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the warm-up. A failure is logged and does not prevent the startup,
+     * the instance is then only slower on its first quotes.
+     *
+     * @param args the application arguments, not used
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || budget.isZero() || NativeDetector.inNativeImage()) {
+            return;
+        }
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.warn("JIT warm-up aborted after {} quotes", quotes, e);
+        }
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        byte[][] requests = syntheticRequests();
+        if (requests.length == 0) {
+            log.warn("JIT warm-up skipped: no vehicle types, mileage ranges or postcodes in the database");
+            return;
+        }
+        log.info("JIT warm-up started with {} synthetic requests, budget {}", requests.length, budget);
+
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean monitored = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long deadline = start + budget.toNanos();
+        long compileMillis = monitored ? compiler.getTotalCompilationTime() : 0;
+        long startCompileMillis = compileMillis;
+        int quietRounds = 0;
+        int next = 0;
+        long count = 0;
+        boolean settled = false;
+
+        while (System.nanoTime() - deadline < 0) {
+            long roundEnd = Math.min(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ROUND_MILLIS), deadline);
+            do {
+                quote(requests[next]);
+                next = (next + 1) % requests.length;
+                count++;
+            } while (System.nanoTime() - roundEnd < 0);
+
+            quotes = count;
+            if (monitored) {
+                long total = compiler.getTotalCompilationTime();
+                quietRounds = total - compileMillis <= QUIET_COMPILE_MILLIS ? quietRounds + 1 : 0;
+                compileMillis = total;
+                if (count >= MIN_QUOTES && quietRounds >= QUIET_ROUNDS) {
+                    settled = true;
+                    break;
+                }
+            }
+        }
+
+        durationNanos = System.nanoTime() - start;
+        quotes = count;
+        log.info("JIT warm-up {} after {} ms: {} quotes, {} ms JIT compilation",
+                settled ? "settled" : "stopped by budget", TimeUnit.NANOSECONDS.toMillis(durationNanos), count,
+                compileMillis - startCompileMillis);
+    }
+
+    /**
+     * Calculates one synthetic quote the way the controller does, including the
+     * JSON mapping of request and response.
+     *
+     * @param json the request as JSON
+     * @return the response as JSON
+     */
+    byte[] quote(byte[] json) {
+        try {
+            PremiumRequest request = requestReader.readValue(json);
+            return responseWriter.writeValueAsBytes(warmupService.calculatePremium(request));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map synthetic warm-up request", e);
+        }
+    }
+
+    /**
+     * Builds valid requests from the reference data, with a fixed seed so every
+     * instance warms up the same way.
+     *
+     * @return the requests as JSON, empty if a reference table is empty
+     */
+    byte[][] syntheticRequests() {
+        List<Vehicle> vehicles = vehicleRepository.findAll();
+        List<YearlyMileage> mileages = yearlyMileageRepository.findAll();
+        List<PostcodeRegion> postcodes = postcodeRepository.findPostcodeRegions(PageRequest.of(0, POSTCODE_SAMPLE));
+        if (vehicles.isEmpty() || mileages.isEmpty() || postcodes.isEmpty()) {
+            return new byte[0][];
+        }
+
+        Random random = new Random(42);
+        byte[][] requests = new byte[REQUEST_COUNT][];
+        for (int i = 0; i < requests.length; i++) {
+            YearlyMileage mileage = mileages.get(random.nextInt(mileages.size()));
+            long from = mileage.getYearlyMileageFrom().longValue();
+            long to = Math.min(mileage.getYearlyMileageTo().longValue(), Integer.MAX_VALUE);
+            PremiumRequest request = new PremiumRequest(
+                    (int) (from + (long) (random.nextDouble() * (to - from + 1))),
+                    vehicles.get(random.nextInt(vehicles.size())).getVehicleType(),
+                    postcodes.get(random.nextInt(postcodes.size())).postcode());
+            try {
+                requests[i] = requestWriter.writeValueAsBytes(request);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Cannot map synthetic warm-up request", e);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Returns the duration of the last warm-up.
+     *
+     * @return the duration, zero if no warm-up has run
+     */
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    /**
+     * Returns the number of synthetic quotes of the last warm-up.
+     *
+     * @return the number of quotes
+     */
+    public long getQuotes() {
+        return quotes;
+    }
+
+    private static QuoteAuditJournal disabledAuditJournal() {
+        return new QuoteAuditJournal(null, null, false, Path.of("audit"), DataSize.ofMegabytes(64), 1,
+                Duration.ofSeconds(1), Duration.ZERO, 0);
+    }
+}
@@ -0,0 +1,315 @@
+package com.insurance.premium_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.tariff.TariffChangedEvent;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import com.insurance.premium_service.tariff.TariffSnapshotLoader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache for calculated premiums.
+ *
+ * The key consists of the vehicle type, the postcode and the yearly mileage band,
+ * so that all mileages of the same band (e.g. 12,000 and 12,500 km) share one
+ * entry. Vehicle type and postcode are used as given, because the lookups treat
+ * them case-sensitive and a normalized key could turn an invalid request into a hit.
+ * Only successful calculations are cached. Entries are evicted when the maximum
+ * size is reached or when their time to live is over.
+ *
+ * On a {@link TariffChangedEvent} all entries are discarded and the mileage bands
+ * are reloaded. Every key carries the generation it was created in, so a
+ * calculation that was still running with the old factors cannot put its result
+ * into the new generation.
+ *
+ *     Without snapshot mode the mileage bands are read from the database and
+ * expire after the same time to live as the entries, so a change of the table
+ * 'yearly_mileage' without event is picked up like a change of any factor. If
+ * the reloaded bands have other bounds, the positions in the keys no longer mean
+ * the same bands, and a new generation is started. If the bands cannot be loaded,
+ * requests are calculated without the cache and the load is retried after
+ * {@value #LOAD_RETRY_SECONDS} seconds, instead of querying the database again
+ * for every request.
+ *
+ *     The load never makes other requests wait and holds no monitor, so a
+ * virtual thread is not pinned while it queries: one request loads under a
+ * {@link ReentrantLock} taken with tryLock, the others meanwhile use the expired
+ * bands of the same generation, or calculate without the cache if there are none.
+ * The bands are published through a volatile field together with the generation
+ * they were loaded in; bands loaded while the cache was invalidated are dropped.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class QuoteCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteCache.class);
+
+    static final int LOAD_RETRY_SECONDS = 5;
+
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final TariffSnapshotLoader tariffSnapshotLoader;
+    private final boolean enabled;
+    private final Cache<Key, CachedQuote> cache;
+    private final long ttlNanos;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Mileage bands used to build the keys when snapshot mode is disabled,
+     * loaded on first use, reloaded after the time to live and discarded on
+     * invalidation.
+     */
+    private volatile LoadedBands mileageBands;
+
+    /**
+     * Time before which a failed load of the mileage bands is not retried, valid
+     * while {@link #loadFailed} is set.
+     */
+    private volatile long retryAtNanos;
+    private volatile boolean loadFailed;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a new QuoteCache.
+     *
+     * @param tariffSnapshotHolder holder of the in-memory tariff snapshot, must not be null
+     * @param tariffSnapshotLoader loader for the mileage bands, must not be null
+     * @param enabled whether premiums are cached at all
+     * @param maxSize maximum number of cached premiums
+     * @param ttl time after which a cached premium is recalculated
+     */
+    public QuoteCache(
+            TariffSnapshotHolder tariffSnapshotHolder,
+            TariffSnapshotLoader tariffSnapshotLoader,
+            @Value("${premium.quote-cache.enabled:true}") boolean enabled,
+            @Value("${premium.quote-cache.max-size:100000}") long maxSize,
+            @Value("${premium.quote-cache.ttl:10m}") Duration ttl) {
+
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.tariffSnapshotLoader = tariffSnapshotLoader;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Builds the cache key of a request.
+     *
+     * @param request the premium calculation request
+     * @return the key, or null if caching is disabled or the request cannot be
+     *         cached (missing values, a mileage outside of all bands or mileage
+     *         bands that cannot be loaded)
+     */
+    public Key keyOf(PremiumRequest request) {
+        if (!enabled || request == null || request.getVehicleType() == null || request.getPostcode() == null) {
+            return null;
+        }
+        // The generation is read before the bands, so bands of a newer generation never get an older key
+        long keyGeneration = generation.get();
+        MileageBandIndex bands = currentMileageBands();
+        if (keyGeneration != generation.get()) {
+            // the bands have just been reloaded with other bounds
+            keyGeneration = generation.get();
+            bands = currentMileageBands();
+        }
+        if (bands == null) {
+            return null;
+        }
+        int band = bands.bandOf(request.getYearlyMileage());
+        if (band == MileageBandIndex.NO_BAND) {
+            return null;
+        }
+        return new Key(request.getVehicleType(), request.getPostcode(), band, keyGeneration);
+    }
+
+    /**
+     * Gets a cached premium.
+     *
+     * @param key the key built by {@link #keyOf(PremiumRequest)}
+     * @return the cached premium with its factors, or null if there is none
+     */
+    public CachedQuote get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches a calculated premium, unless the key belongs to an earlier generation.
+     *
+     * @param key the key built by {@link #keyOf(PremiumRequest)}
+     * @param quote the calculated premium with its factors
+     */
+    public void put(Key key, CachedQuote quote) {
+        if (key.generation() == generation.get()) {
+            cache.put(key, quote);
+        }
+    }
+
+    /**
+     * Discards all cached premiums and the loaded mileage bands.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        mileageBands = null;
+        loadFailed = false;
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalidates the cache when the reference tables have changed.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onTariffChanged(TariffChangedEvent event) {
+        invalidateAll();
+        log.info("Quote cache invalidated: {}", event.source());
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the cache.
+     *
+     * @return the current statistics
+     */
+    public Stats getStats() {
+        CacheStats stats = cache.stats();
+        return new Stats(enabled, cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    /**
+     * Gets the mileage bands of the keys, see the class comment.
+     *
+     * @return the bands, or null if they cannot be loaded or are being loaded
+     */
+    private MileageBandIndex currentMileageBands() {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return snapshot.getMileageBands();
+        }
+        LoadedBands bands = usable(mileageBands);
+        if (bands != null && System.nanoTime() - bands.loadedAtNanos() < ttlNanos) {
+            return bands.index();
+        }
+        if ((loadFailed && System.nanoTime() - retryAtNanos < 0) || !loadLock.tryLock()) {
+            return bands != null ? bands.index() : null;
+        }
+        try {
+            bands = usable(mileageBands);
+            long now = System.nanoTime();
+            if (bands != null && now - bands.loadedAtNanos() < ttlNanos) {
+                return bands.index();
+            }
+            long loadGeneration = generation.get();
+
+            MileageBandIndex index;
+            try {
+                index = tariffSnapshotLoader.loadMileageBands();
+            } catch (RuntimeException e) {
+                retryAtNanos = now + TimeUnit.SECONDS.toNanos(LOAD_RETRY_SECONDS);
+                loadFailed = true;
+                log.warn("Mileage bands could not be loaded, quotes are not cached for {} s: {}",
+                        LOAD_RETRY_SECONDS, e.toString());
+                return bands != null ? bands.index() : null;
+            }
+            loadFailed = false;
+
+            if (bands != null && !sameBounds(bands.index(), index)) {
+                if (!generation.compareAndSet(loadGeneration, loadGeneration + 1)) {
+                    // invalidated during the load, which discards the entries anyway
+                    return null;
+                }
+                loadGeneration++;
+                cache.invalidateAll();
+                log.info("Quote cache invalidated: mileage bands changed");
+            }
+            // Bands loaded while the cache was invalidated are dropped by usable(), they may predate the change
+            mileageBands = new LoadedBands(index, now, loadGeneration);
+            return index;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the bands if they belong to the current generation.
+     */
+    private LoadedBands usable(LoadedBands bands) {
+        return bands != null && bands.generation() == generation.get() ? bands : null;
+    }
+
+    private static boolean sameBounds(MileageBandIndex a, MileageBandIndex b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int band = 0; band < a.size(); band++) {
+            if (a.getFrom(band) != b.getFrom(band) || a.getTo(band) != b.getTo(band)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mileage bands loaded from the database.
+     *
+     * @param index the bands
+     * @param loadedAtNanos the time of the load, from {@link System#nanoTime()}
+     * @param generation the cache generation the bands were loaded in
+     */
+    private record LoadedBands(MileageBandIndex index, long loadedAtNanos, long generation) {
+    }
+
+    /**
+     * Key of a cached premium.
+     *
+     * @param vehicleType the vehicle type as requested
+     * @param postcode the postcode as requested
+     * @param mileageBand the position of the yearly mileage band
+     * @param generation the cache generation the key was created in
+     */
+    public record Key(String vehicleType, String postcode, int mileageBand, long generation) {
+    }
+
+    /**
+     * A cached premium. The factors are kept with it, so a premium served from
+     * the cache is audited with the factors it was calculated from.
+     *
+     * @param premium the calculated premium
+     * @param yearlyMileageFactor the yearly mileage factor
+     * @param vehicleFactor the vehicle factor
+     * @param regionFactor the region factor
+     */
+    public record CachedQuote(double premium, double yearlyMileageFactor, double vehicleFactor, double regionFactor) {
+    }
+
+    /**
+     * Statistics of the cache.
+     *
+     * @param enabled whether the cache is enabled
+     * @param size the approximate number of cached premiums
+     * @param hits number of lookups answered from the cache
+     * @param misses number of lookups that required a calculation
+     * @param evictions number of entries removed because of size or time to live
+     */
+    public record Stats(boolean enabled, long size, long hits, long misses, long evictions) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_service.model.PremiumRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes one summary line per calculated quote.
+ *
+ * The line replaces the INFO lines previously logged along the way through
+ * controller and service (these are now DEBUG) and has a key=value format that
+ * log collectors can parse without a pattern:
+ *
+ *   quote source=database vehicleType=SUV yearlyMileage=15000 postcode=12345 premium=1237.5 micros=412
+ *
+ *     Only a share of the quotes is logged, configured by
+ * 'premium.logging.quote-sample-rate' between 0 (none) and 1 (all). The random
+ * draw is skipped for 0 and 1, and nothing is formatted unless the logger
+ * 'com.insurance.premium_service.quote' is enabled for INFO. Rejected requests
+ * do not go through this logger: {@link QuoteOutcomes} logs them with DEBUG and
+ * counts every one in 'premium.validation.failures', tagged with the reason.
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class QuoteLogger {
+
+    private static final Logger log = LoggerFactory.getLogger("com.insurance.premium_service.quote");
+
+    private final double sampleRate;
+
+    /**
+     * Constructs a new QuoteLogger.
+     *
+     * @param sampleRate share of the quotes to log, between 0 and 1
+     */
+    public QuoteLogger(@Value("${premium.logging.quote-sample-rate:1.0}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("premium.logging.quote-sample-rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Logs the summary of a quote if it is sampled.
+     *
+     * @param request the premium calculation request
+     * @param source where the premium came from
+     * @param premium the calculated premium
+     * @param durationNanos the duration of the calculation in nanoseconds
+     */
+    public void logQuote(PremiumRequest request, PremiumMetrics.Source source, double premium, long durationNanos) {
+        if (!isSampled()) {
+            return;
+        }
+        log.info("quote source={} vehicleType={} yearlyMileage={} postcode={} premium={} micros={}",
+                source.name().toLowerCase(Locale.ROOT), request.getVehicleType(), request.getYearlyMileage(),
+                request.getPostcode(), premium, durationNanos / 1000);
+    }
+
+    private boolean isSampled() {
+        if (sampleRate == 0 || !log.isInfoEnabled()) {
+            return false;
+        }
+        return sampleRate == 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
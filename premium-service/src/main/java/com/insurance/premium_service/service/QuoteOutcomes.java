@@ -0,0 +1,165 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.audit.QuoteAuditRecord;
+import com.insurance.premium_service.model.PremiumRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the outcome of a single quote, shared by all calculation paths.
+ *
+ * Single quotes, batch items, NDJSON stream lines, gRPC calls and reactive
+ * quotes all end here, so every quote and every rejected request is appended to
+ * the {@link QuoteAuditJournal} in the same way, and every rejection is counted
+ * in {@link PremiumMetrics} with the same message. Metrics and journal are passed
+ * in, because {@link PremiumWarmup} records into other ones.
+ *
+ * @author Aylin Yilmaz
+ */
+final class QuoteOutcomes {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteOutcomes.class);
+
+    private QuoteOutcomes() {
+    }
+
+    /**
+     * Appends a calculated quote to the audit journal.
+     *
+     * @param journal the audit journal
+     * @param request the premium calculation request
+     * @param source where the premium came from
+     * @param yearlyMileageFactor the mileage factor, NaN if not looked up
+     * @param vehicleFactor the vehicle factor, NaN if not looked up
+     * @param regionFactor the region factor, NaN if not looked up
+     * @param premium the calculated premium
+     */
+    static void accept(QuoteAuditJournal journal, PremiumRequest request, PremiumMetrics.Source source,
+                       double yearlyMileageFactor, double vehicleFactor, double regionFactor, double premium) {
+        journal.append(request, source, QuoteAuditRecord.Status.OK, yearlyMileageFactor, vehicleFactor,
+                regionFactor, premium);
+    }
+
+    /**
+     * Appends a calculated quote to the audit journal without waiting for a free
+     * slot, for threads that must not block. See {@link QuoteAuditJournal#offer}.
+     *
+     * @param journal the audit journal
+     * @param request the premium calculation request
+     * @param source where the premium came from
+     * @param yearlyMileageFactor the mileage factor
+     * @param vehicleFactor the vehicle factor
+     * @param regionFactor the region factor
+     * @param premium the calculated premium
+     */
+    static void acceptWithoutWaiting(QuoteAuditJournal journal, PremiumRequest request,
+                                     PremiumMetrics.Source source, double yearlyMileageFactor,
+                                     double vehicleFactor, double regionFactor, double premium) {
+        journal.offer(request, source, QuoteAuditRecord.Status.OK, yearlyMileageFactor, vehicleFactor,
+                regionFactor, premium);
+    }
+
+    /**
+     * Appends a premium read from the premium matrix to the audit journal, with
+     * the factors looked up in the snapshot of the matrix. The lookups are only
+     * made if the journal is enabled, so the matrix path stays a single lookup
+     * otherwise.
+     *
+     * @param journal the audit journal
+     * @param request the premium calculation request
+     * @param snapshot the snapshot containing the premium matrix
+     * @param premium the premium read from the matrix
+     */
+    static void acceptFromMatrix(QuoteAuditJournal journal, PremiumRequest request, TariffSnapshot snapshot,
+                                 double premium) {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        accept(journal, request, PremiumMetrics.Source.PREMIUM_MATRIX,
+                snapshot.yearlyMileageFactorOf(request.getYearlyMileage()),
+                snapshot.vehicleFactorOf(request.getVehicleType()),
+                snapshot.regionFactorOf(request.getPostcode()), premium);
+    }
+
+    /**
+     * Records a rejected request in the metrics and the audit journal.
+     *
+     * @param metrics the meters of the calculation
+     * @param journal the audit journal
+     * @param request the invalid request
+     * @param source where the factors came from
+     * @param status the invalid input
+     * @param yearlyMileageFactor the mileage factor, NaN if not found
+     * @param vehicleFactor the vehicle factor, NaN if not found
+     * @param regionFactor the region factor, NaN if not found
+     * @return the exception to throw, its message is the error returned to the client
+     */
+    static InvalidQuoteException reject(PremiumMetrics metrics, QuoteAuditJournal journal, PremiumRequest request,
+                                        PremiumMetrics.Source source, RatingEngine.Status status,
+                                        double yearlyMileageFactor, double vehicleFactor, double regionFactor) {
+        return reject(metrics, journal, true, request, source, status, yearlyMileageFactor, vehicleFactor,
+                regionFactor);
+    }
+
+    /**
+     * Records a rejected request like {@link #reject}, but without waiting for a
+     * free slot in the audit journal, for threads that must not block.
+     *
+     * @param metrics the meters of the calculation
+     * @param journal the audit journal
+     * @param request the invalid request
+     * @param source where the factors came from
+     * @param status the invalid input
+     * @param yearlyMileageFactor the mileage factor, NaN if not found
+     * @param vehicleFactor the vehicle factor, NaN if not found
+     * @param regionFactor the region factor, NaN if not found
+     * @return the exception to signal, its message is the error returned to the client
+     */
+    static InvalidQuoteException rejectWithoutWaiting(PremiumMetrics metrics, QuoteAuditJournal journal,
+                                                      PremiumRequest request, PremiumMetrics.Source source,
+                                                      RatingEngine.Status status, double yearlyMileageFactor,
+                                                      double vehicleFactor, double regionFactor) {
+        return reject(metrics, journal, false, request, source, status, yearlyMileageFactor, vehicleFactor,
+                regionFactor);
+    }
+
+    private static InvalidQuoteException reject(PremiumMetrics metrics, QuoteAuditJournal journal, boolean wait,
+                                                PremiumRequest request, PremiumMetrics.Source source,
+                                                RatingEngine.Status status, double yearlyMileageFactor,
+                                                double vehicleFactor, double regionFactor) {
+        PremiumMetrics.ValidationFailure reason;
+        QuoteAuditRecord.Status auditStatus;
+        String message;
+        switch (status) {
+            case INVALID_YEARLY_MILEAGE -> {
+                reason = PremiumMetrics.ValidationFailure.YEARLY_MILEAGE;
+                auditStatus = QuoteAuditRecord.Status.INVALID_YEARLY_MILEAGE;
+                message = "Invalid yearly mileage: " + request.getYearlyMileage();
+            }
+            case INVALID_VEHICLE_TYPE -> {
+                reason = PremiumMetrics.ValidationFailure.VEHICLE_TYPE;
+                auditStatus = QuoteAuditRecord.Status.INVALID_VEHICLE_TYPE;
+                message = "Invalid vehicle type: " + request.getVehicleType();
+            }
+            case INVALID_POSTCODE -> {
+                reason = PremiumMetrics.ValidationFailure.POSTCODE;
+                auditStatus = QuoteAuditRecord.Status.INVALID_POSTCODE;
+                message = "Invalid postcode or region: " + request.getPostcode();
+            }
+            default -> throw new IllegalStateException("Not a rejection: " + status);
+        }
+
+        log.debug("Request rejected: {}", message);
+        metrics.recordValidationFailure(reason);
+        if (wait) {
+            journal.append(request, source, auditStatus, yearlyMileageFactor, vehicleFactor, regionFactor, Double.NaN);
+        } else {
+            journal.offer(request, source, auditStatus, yearlyMileageFactor, vehicleFactor, regionFactor, Double.NaN);
+        }
+        return new InvalidQuoteException(status, message);
+    }
+}
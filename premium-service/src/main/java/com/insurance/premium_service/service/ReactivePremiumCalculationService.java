@@ -0,0 +1,203 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.entity.reactive.PostCodeRecord;
+import com.insurance.premium_service.entity.reactive.RegionRecord;
+import com.insurance.premium_service.entity.reactive.VehicleRecord;
+import com.insurance.premium_service.entity.reactive.YearlyMileageRecord;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.repository.reactive.ReactivePostCodeRepository;
+import com.insurance.premium_service.repository.reactive.ReactiveRegionRepository;
+import com.insurance.premium_service.repository.reactive.ReactiveVehicleRepository;
+import com.insurance.premium_service.repository.reactive.ReactiveYearlyMileageRepository;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking variant of {@link PremiumCalculationService}, used by the reactive profile.
+ *     
+ * The premium is calculated with the same formula:
+ * 
+ * Premium = Base Rate × Vehicle Factor × Mileage Factor × Region Factor
+ * 
+ * The three factors are read through R2DBC repositories. Their lookups are
+ * subscribed at the same time, so the queries run concurrently on separate
+ * connections and the latency of a quote is that of the slowest lookup instead
+ * of the sum of all lookups. No thread is blocked while waiting for the database.
+ * If snapshot mode is enabled, the factors are read from memory instead.
+ * 
+ *     A missing factor does not fail its lookup, it is NaN once all three have
+ * completed. The request is then validated with {@link RatingEngine#statusOf} in
+ * the order mileage, vehicle type, postcode, so a request with several invalid
+ * inputs reports the same error as in the servlet profile, whichever lookup
+ * finishes first.
+ * 
+ *     Like in the servlet profile, every quote is timed in {@link PremiumMetrics}
+ * by its source, the three lookups together as the snapshot or database lookup
+ * stage, and summarized in one line by the {@link QuoteLogger}; the start of a
+ * calculation and rejected requests are only logged with DEBUG. Quotes and rejected requests are appended to the
+ * {@link QuoteAuditJournal} and rejections counted in {@link PremiumMetrics}, see
+ * {@link QuoteOutcomes}. The event loop never waits for the journal: if its ring
+ * buffer is full, the record is dropped and counted in 'premium.audit.dropped'
+ * instead of waiting for a free slot as a request thread does in the servlet
+ * profile.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Service
+@Profile("reactive")
+public class ReactivePremiumCalculationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactivePremiumCalculationService.class);
+
+    private final ReactivePostCodeRepository postcodeRepository;
+    private final ReactiveRegionRepository regionRepository;
+    private final ReactiveYearlyMileageRepository yearlyMileageRepository;
+    private final ReactiveVehicleRepository vehicleRepository;
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final QuoteLogger quoteLogger;
+    private final PremiumMetrics premiumMetrics;
+    private final QuoteAuditJournal quoteAuditJournal;
+
+    /**
+     * Base rate for premium calculation, injected from application properties.
+     */
+    @Value("${premium.calculation.base-rate}")
+    private double baseRate;
+
+    /**
+     * Constructs a new ReactivePremiumCalculationService with the required repositories.
+     * 
+     * @param postcodeRepository reactive repository for postcode lookups, must not be null
+     * @param regionRepository reactive repository for region lookups, must not be null
+     * @param yearlyMileageRepository reactive repository for mileage factor lookups, must not be null
+     * @param vehicleRepository reactive repository for vehicle factor lookups, must not be null
+     * @param tariffSnapshotHolder holder of the in-memory tariff snapshot, must not be null
+     * @param quoteLogger writer of the summary line of every quote, must not be null
+     * @param premiumMetrics meters of the calculation, must not be null
+     * @param quoteAuditJournal journal of all quotes and rejected requests, must not be null
+     */
+    public ReactivePremiumCalculationService(
+            ReactivePostCodeRepository postcodeRepository,
+            ReactiveRegionRepository regionRepository,
+            ReactiveYearlyMileageRepository yearlyMileageRepository,
+            ReactiveVehicleRepository vehicleRepository,
+            TariffSnapshotHolder tariffSnapshotHolder,
+            QuoteLogger quoteLogger,
+            PremiumMetrics premiumMetrics,
+            QuoteAuditJournal quoteAuditJournal) {
+
+        this.postcodeRepository = postcodeRepository;
+        this.regionRepository = regionRepository;
+        this.yearlyMileageRepository = yearlyMileageRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.quoteLogger = quoteLogger;
+        this.premiumMetrics = premiumMetrics;
+        this.quoteAuditJournal = quoteAuditJournal;
+    }
+
+    /**
+     * Calculates the insurance premium based on the provided request parameters.
+     * 
+     * @param request the premium calculation request containing vehicle type,
+     *               yearly mileage, and postcode
+     * @return a Mono emitting the calculated premium, or failing with an
+     *         {@link InvalidQuoteException} for the first invalid input
+     */
+    public Mono<PremiumResponse> calculatePremium(PremiumRequest request) {
+        log.debug("Starting reactive premium calculation for request: {}", request);
+        long start = System.nanoTime();
+        boolean fromSnapshot = tariffSnapshotHolder.current() != null;
+        PremiumMetrics.Source source = fromSnapshot ? PremiumMetrics.Source.SNAPSHOT : PremiumMetrics.Source.DATABASE;
+        PremiumMetrics.Stage lookupStage = fromSnapshot
+                ? PremiumMetrics.Stage.SNAPSHOT_LOOKUP
+                : PremiumMetrics.Stage.DATABASE_LOOKUP;
+
+        return Mono.zip(
+                        getYearlyMileageFactor(request.getYearlyMileage()).defaultIfEmpty(Double.NaN),
+                        getVehicleFactor(request.getVehicleType()).defaultIfEmpty(Double.NaN),
+                        getRegionFactorByPostcode(request.getPostcode()).defaultIfEmpty(Double.NaN))
+                .flatMap(factors -> {
+                    premiumMetrics.recordStage(lookupStage, start);
+                    double yearlyMileageFactor = factors.getT1();
+                    double vehicleFactor = factors.getT2();
+                    double regionFactor = factors.getT3();
+                    RatingEngine.Status status = RatingEngine.statusOf(yearlyMileageFactor, vehicleFactor, regionFactor);
+                    if (status != RatingEngine.Status.OK) {
+                        return Mono.error(QuoteOutcomes.rejectWithoutWaiting(premiumMetrics, quoteAuditJournal,
+                                request, source, status, yearlyMileageFactor, vehicleFactor, regionFactor));
+                    }
+                    double total = RatingEngine.premiumOf(baseRate, yearlyMileageFactor, vehicleFactor, regionFactor);
+                    quoteLogger.logQuote(request, source, total, premiumMetrics.recordQuote(source, start));
+                    QuoteOutcomes.acceptWithoutWaiting(quoteAuditJournal, request, source, yearlyMileageFactor,
+                            vehicleFactor, regionFactor, total);
+                    return Mono.just(new PremiumResponse(total));
+                });
+    }
+
+    /**
+     * Retrieves the yearly mileage factor based on the provided mileage value.
+     * 
+     * @param yearlyMileage the yearly mileage in kilometers or miles
+     * @return a Mono emitting the mileage factor, or completing empty if no matching range is found
+     */
+    public Mono<Double> getYearlyMileageFactor(int yearlyMileage) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return Mono.justOrEmpty(snapshot.getYearlyMileageFactor(yearlyMileage));
+        }
+        return yearlyMileageRepository.findByYearlyMileageRange(BigDecimal.valueOf(yearlyMileage))
+                .mapNotNull(YearlyMileageRecord::yearlyMileageFactor);
+    }
+
+    /**
+     * Retrieves the vehicle factor based on the vehicle type.
+     * 
+     * @param vehicleType the type of vehicle (e.g., "sedan", "SUV", "sports_car")
+     * @return a Mono emitting the vehicle factor, or completing empty if the vehicle type is not found
+     */
+    public Mono<Double> getVehicleFactor(String vehicleType) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return Mono.justOrEmpty(snapshot.getVehicleFactor(vehicleType));
+        }
+        if (vehicleType == null) {
+            return Mono.empty();
+        }
+        return vehicleRepository.findByVehicleType(vehicleType)
+                .mapNotNull(VehicleRecord::vehicleFactor);
+    }
+
+    /**
+     * Retrieves the region factor for the region the specified postcode belongs to.
+     * 
+     * @param postcode the postcode to look up
+     * @return a Mono emitting the region factor, or completing empty if the postcode
+     *         or its region is not found
+     */
+    public Mono<Double> getRegionFactorByPostcode(String postcode) {
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        if (snapshot != null) {
+            return Mono.justOrEmpty(snapshot.getRegionFactorByPostcode(postcode));
+        }
+        if (postcode == null) {
+            return Mono.empty();
+        }
+        return postcodeRepository.findByPostcode(postcode)
+                .mapNotNull(PostCodeRecord::regionId)
+                .flatMap(regionRepository::findById)
+                .mapNotNull(RegionRecord::regionFactor);
+    }
+}
@@ -0,0 +1,155 @@
+package com.insurance.premium_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups of the same key into one.
+ *
+ * The first caller for a key runs the lookup, every caller arriving for the same
+ * key while it is running waits for it and receives the same result or exception
+ * instead of running the lookup again. The key is forgotten as soon as the lookup
+ * has finished, so nothing is cached: a later caller runs a new lookup. This stops
+ * a burst of identical quotes, or all requests for a hot key that has just expired
+ * from the {@link QuoteCache}, from sending the same query to the database once
+ * per request.
+ *
+ *     The number of waiters of every lookup is recorded in the
+ * 'premium.singleflight.waiters' summary of {@link PremiumMetrics}, the keys
+ * currently being looked up in the gauge 'premium.singleflight.in-flight'. Keys
+ * are compared with equals, so they must be immutable and should include
+ * everything the result depends on (like the generation of a
+ * {@link QuoteCache.Key}).
+ *
+ * @author Aylin Yilmaz
+ */
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final Map<Object, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new SingleFlight.
+     *
+     * @param enabled whether lookups are coalesced at all
+     * @param meterRegistry registry for the in-flight gauge, must not be null
+     */
+    public SingleFlight(
+            @Value("${premium.single-flight.enabled:true}") boolean enabled,
+            MeterRegistry meterRegistry) {
+
+        this.enabled = enabled;
+        Gauge.builder("premium.singleflight.in-flight", flights, Map::size)
+                .description("Keys whose lookup is running, with or without waiting requests")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a lookup, or waits for the one already running for the same key.
+     *
+     * @param key identifies the lookup, must not be null
+     * @param lookup the lookup, run in the calling thread if no lookup is running for the key
+     * @param premiumMetrics receives the number of waiters if the caller ran the lookup,
+     *                       must not be null
+     * @param <V> type of the result
+     * @return the result of the lookup, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> lookup, PremiumMetrics premiumMetrics) {
+        if (!enabled) {
+            return lookup.get();
+        }
+
+        Flight own = new Flight();
+        // The waiters are counted while the bin of the key is locked, so none is missed
+        Flight flight = flights.compute(key, (k, running) -> {
+            if (running == null) {
+                return own;
+            }
+            running.waiters++;
+            return running;
+        });
+        if (flight != own) {
+            return (V) await(flight.result);
+        }
+
+        try {
+            V result = lookup.get();
+            own.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, own);
+            premiumMetrics.recordSingleFlight(own.waiters);
+        }
+    }
+
+    /**
+     * Gets the number of keys whose lookup is running.
+     *
+     * @return the number of running lookups
+     */
+    public int getInFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Gets the number of callers waiting for the running lookup of a key.
+     *
+     * @param key the key
+     * @return the number of waiters, 0 if no lookup is running for the key
+     */
+    int waitersOf(Object key) {
+        int[] waiters = new int[1];
+        flights.computeIfPresent(key, (k, flight) -> {
+            waiters[0] = flight.waiters;
+            return flight;
+        });
+        return waiters[0];
+    }
+
+    /**
+     * Waits for a result shared between threads and rethrows what its
+     * computation threw, as if the caller had run it.
+     *
+     * @param result the shared result
+     * @param <T> type of the result
+     * @return the result
+     */
+    static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A running lookup. The waiters are counted while the key is locked in the
+     * map and read after the lookup was removed from it.
+     */
+    private static final class Flight {
+
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        int waiters;
+    }
+}
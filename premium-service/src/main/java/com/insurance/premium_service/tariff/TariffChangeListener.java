@@ -0,0 +1,208 @@
+package com.insurance.premium_service.tariff;
+
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.repository.TariffVersionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Component bringing changes of the reference tables live without a restart.
+ *     
+ * When enabled via 'premium.tariff.reload.enabled', a background thread waits for
+ * the PostgreSQL notifications sent by the triggers of 'db/tariff-version.sql'
+ * on a dedicated connection, outside of the connection pool. In addition, the
+ * tariff version is compared every poll interval, which catches notifications
+ * lost while the connection was down. With 'premium.tariff.reload.listen=false'
+ * the version is only polled.
+ * 
+ *     On a new version the tariff snapshot is rebuilt on this thread (if snapshot
+ * mode is enabled) and swapped in atomically, then a {@link TariffChangedEvent}
+ * is published. Request threads are never blocked by a reload.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Component
+public class TariffChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TariffChangeListener.class);
+
+    private final TariffSnapshotHolder tariffSnapshotHolder;
+    private final TariffVersionRepository tariffVersionRepository;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final boolean listen;
+    private final Duration pollInterval;
+
+    private volatile boolean running;
+    private volatile Long currentVersion;
+    private boolean missingVersionLogged;
+    private Thread thread;
+
+    /**
+     * Constructs a new TariffChangeListener.
+     * 
+     * @param tariffSnapshotHolder holder of the in-memory tariff snapshot, must not be null
+     * @param tariffVersionRepository repository for the tariff version marker, must not be null
+     * @param dataSourceProperties connection settings for the dedicated listen connection, must not be null
+     * @param eventPublisher publisher for the {@link TariffChangedEvent}, must not be null
+     * @param enabled whether changes are picked up automatically
+     * @param listen whether to wait for notifications instead of only polling the version
+     * @param pollInterval interval for comparing the tariff version
+     */
+    public TariffChangeListener(
+            TariffSnapshotHolder tariffSnapshotHolder,
+            TariffVersionRepository tariffVersionRepository,
+            DataSourceProperties dataSourceProperties,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${premium.tariff.reload.enabled:false}") boolean enabled,
+            @Value("${premium.tariff.reload.listen:true}") boolean listen,
+            @Value("${premium.tariff.reload.poll-interval:5s}") Duration pollInterval) {
+
+        this.tariffSnapshotHolder = tariffSnapshotHolder;
+        this.tariffVersionRepository = tariffVersionRepository;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.listen = listen;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Starts the background thread if automatic reloads are enabled.
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        TariffSnapshot snapshot = tariffSnapshotHolder.current();
+        currentVersion = snapshot != null && snapshot.getVersion() != TariffSnapshot.UNKNOWN_VERSION
+                ? Long.valueOf(snapshot.getVersion())
+                : tariffVersionRepository.findCurrentVersion();
+
+        running = true;
+        thread = new Thread(this::run, "tariff-listener");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Tariff change listener started: version={}, listen={}, pollInterval={}",
+                currentVersion, listen, pollInterval);
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Gets the last tariff version seen in the database.
+     * 
+     * @return the version, or null if the marker table is not installed
+     */
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+
+    private void run() {
+        while (running) {
+            if (!listen) {
+                sleep(pollInterval);
+                checkVersion(false);
+                continue;
+            }
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + TariffVersionRepository.CHANGE_CHANNEL);
+                }
+                // changes made while no connection was listening
+                checkVersion(false);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    checkVersion(notifications != null && notifications.length > 0);
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Tariff change listener lost its connection, retrying in {}: {}",
+                            pollInterval, e.getMessage());
+                    sleep(pollInterval);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reloads the tariff if its version has changed.
+     *     
+     * The version only counts as seen once the reload has succeeded, so a failed
+     * reload is retried by the next poll or notification.
+     * 
+     * @param notified whether a change notification has been received
+     */
+    void checkVersion(boolean notified) {
+        Long version;
+        try {
+            version = tariffVersionRepository.findCurrentVersion();
+        } catch (RuntimeException e) {
+            log.warn("Could not read the tariff version: {}", e.getMessage());
+            return;
+        }
+
+        if (version == null && !missingVersionLogged) {
+            log.warn("Table 'tariff_version' not found, install db/tariff-version.sql to detect tariff changes");
+            missingVersionLogged = true;
+        }
+        boolean changed = version != null ? !Objects.equals(version, currentVersion) : notified;
+        if (!changed) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (tariffSnapshotHolder.isEnabled()) {
+                tariffSnapshotHolder.reload();
+            }
+            eventPublisher.publishEvent(new TariffChangedEvent("tariff version " + version));
+            currentVersion = version;
+            log.info("Tariff version {} is live after {} ms", version, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // the previous snapshot stays active, the next poll or notification triggers another reload
+            log.error("Reload of tariff version {} failed, keeping the previous tariff", version, e);
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
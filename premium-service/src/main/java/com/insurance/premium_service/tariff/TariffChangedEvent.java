@@ -0,0 +1,14 @@
+package com.insurance.premium_service.tariff;
+
+/**
+ * Application event published after the reference tables have changed.
+ *     
+ * Components holding data derived from the 'vehicle', 'regions', 'postcodes'
+ * or 'yearly_mileage' tables listen to this event to discard it.
+ * 
+ * @param source a short description of what triggered the change, used for logging
+ * 
+ * @author Aylin Yilmaz
+ */
+public record TariffChangedEvent(String source) {
+}
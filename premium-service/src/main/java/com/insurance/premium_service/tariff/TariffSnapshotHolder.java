@@ -0,0 +1,128 @@
+package com.insurance.premium_service.tariff;
+
+import com.insurance.premium_core.TariffSnapshot;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Component holding the currently active {@link TariffSnapshot}.
+ *     
+ * When snapshot mode is enabled via 'premium.tariff.snapshot.enabled', all
+ * reference tables are loaded once during startup and premium calculations are
+ * served from memory. When it is disabled, {@link #current()} returns null and
+ * the calculation falls back to the repositories.
+ * 
+ *     A reload builds the complete new snapshot first and then replaces the active
+ * one with a single atomic reference swap. Readers never take a lock and never
+ * see a partially loaded tariff.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Component
+public class TariffSnapshotHolder {
+
+    private final TariffSnapshotLoader loader;
+    private final boolean enabled;
+
+    private final AtomicReference<TariffSnapshot> snapshot = new AtomicReference<>();
+
+    private volatile Instant loadedAt;
+    private volatile long lastLoadMillis;
+    private volatile long reloadCount;
+
+    /**
+     * Constructs a new TariffSnapshotHolder.
+     * 
+     * @param loader the loader used to read the reference tables, must not be null
+     * @param enabled whether snapshot mode is enabled
+     */
+    public TariffSnapshotHolder(
+            TariffSnapshotLoader loader,
+            @Value("${premium.tariff.snapshot.enabled:false}") boolean enabled) {
+
+        this.loader = loader;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads the initial snapshot during startup if snapshot mode is enabled.
+     */
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Reloads all reference tables and replaces the active snapshot.
+     *     
+     * Calculations running concurrently keep using the snapshot they started
+     * with, subsequent calculations see the new one. Concurrent reloads are
+     * executed one after the other. If the load fails, the active snapshot stays
+     * in place.
+     * 
+     * @return the newly loaded snapshot
+     */
+    public synchronized TariffSnapshot reload() {
+        long start = System.nanoTime();
+        TariffSnapshot loaded = loader.load();
+        snapshot.set(loaded);
+
+        lastLoadMillis = (System.nanoTime() - start) / 1_000_000;
+        loadedAt = Instant.now();
+        reloadCount++;
+        return loaded;
+    }
+
+    /**
+     * Gets the currently active snapshot.
+     * 
+     * @return the active snapshot, or null if snapshot mode is disabled
+     */
+    public TariffSnapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns whether snapshot mode is enabled.
+     * 
+     * @return true if premiums are calculated from an in-memory snapshot
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the version, load time and load duration of the active snapshot.
+     * 
+     * @return the current status
+     */
+    public Status getStatus() {
+        TariffSnapshot active = snapshot.get();
+        return new Status(enabled,
+                active != null ? active.getVersion() : TariffSnapshot.UNKNOWN_VERSION,
+                loadedAt, lastLoadMillis, reloadCount,
+                active != null && active.getPremiumMatrix() != null ? active.getPremiumMatrix().getSizeInBytes() : 0);
+    }
+
+    /**
+     * Status of the tariff snapshot.
+     * 
+     * @param enabled whether snapshot mode is enabled
+     * @param version the tariff version of the active snapshot
+     * @param loadedAt the time the active snapshot was swapped in, or null
+     * @param lastLoadMillis the duration of the last load in milliseconds
+     * @param reloadCount the number of loads since startup
+     * @param premiumMatrixBytes the heap size of the premium matrix, 0 if there is none
+     */
+    public record Status(boolean enabled, long version, Instant loadedAt, long lastLoadMillis, long reloadCount,
+                         long premiumMatrixBytes) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.insurance.premium_service.tariff;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.PremiumMatrix;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.entity.Region;
+import com.insurance.premium_service.entity.Vehicle;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.PostcodeRegion;
+import com.insurance.premium_service.repository.RegionRepository;
+import com.insurance.premium_service.repository.TariffVersionRepository;
+import com.insurance.premium_service.repository.VehicleRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Component responsible for reading the reference tables into a {@link TariffSnapshot}.
+ *     
+ * The loader reads the 'vehicle', 'regions', 'postcodes' and 'yearly_mileage'
+ * tables with one query each. Rows without a factor, key or region are skipped,
+ * they could never produce a valid premium through the repository lookups either.
+ * Gaps between mileage bands are logged as warnings, overlapping bands make the
+ * load fail.
+ * 
+ * @author Aylin Yilmaz
+ */
+@Component
+public class TariffSnapshotLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(TariffSnapshotLoader.class);
+
+    private final PostCodeRepository postcodeRepository;
+    private final RegionRepository regionRepository;
+    private final YearlyMileageRepository yearlyMileageRepository;
+    private final VehicleRepository vehicleRepository;
+    private final TariffVersionRepository tariffVersionRepository;
+
+    /**
+     * Base rate for premium calculation, injected from application properties.
+     */
+    @Value("${premium.calculation.base-rate}")
+    private double baseRate;
+
+    /**
+     * Whether a {@link PremiumMatrix} is precomputed with every snapshot.
+     */
+    @Value("${premium.tariff.matrix.enabled:false}")
+    private boolean matrixEnabled;
+
+    /**
+     * Maximum number of premiums of the matrix. Larger tariffs are served from
+     * the factor lookups instead.
+     */
+    @Value("${premium.tariff.matrix.max-cells:1000000}")
+    private long matrixMaxCells = 1_000_000;
+
+    /**
+     * Constructs a new TariffSnapshotLoader with the required repositories.
+     * 
+     * @param postcodeRepository repository for postcode data access, must not be null
+     * @param regionRepository repository for region data access, must not be null
+     * @param yearlyMileageRepository repository for mileage range data access, must not be null
+     * @param vehicleRepository repository for vehicle data access, must not be null
+     * @param tariffVersionRepository repository for the tariff version marker, must not be null
+     */
+    public TariffSnapshotLoader(
+            PostCodeRepository postcodeRepository,
+            RegionRepository regionRepository,
+            YearlyMileageRepository yearlyMileageRepository,
+            VehicleRepository vehicleRepository,
+            TariffVersionRepository tariffVersionRepository) {
+
+        this.postcodeRepository = postcodeRepository;
+        this.regionRepository = regionRepository;
+        this.yearlyMileageRepository = yearlyMileageRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.tariffVersionRepository = tariffVersionRepository;
+    }
+
+    /**
+     * Loads all reference tables and builds a new immutable snapshot.
+     *     
+     * The tariff version is read before the tables, so a change committed during
+     * the load leads to a newer version and therefore to another reload.
+     * 
+     * @return the loaded tariff snapshot
+     */
+    public TariffSnapshot load() {
+        long start = System.nanoTime();
+
+        Long version = tariffVersionRepository.findCurrentVersion();
+
+        Map<String, Double> vehicleFactors = new HashMap<>();
+        for (Vehicle vehicle : vehicleRepository.findAll()) {
+            if (vehicle.getVehicleType() == null || vehicle.getVehicleFactor() == null) {
+                continue;
+            }
+            if (vehicleFactors.putIfAbsent(vehicle.getVehicleType(), vehicle.getVehicleFactor()) != null) {
+                log.warn("Duplicate vehicle type '{}' ignored (id={})", vehicle.getVehicleType(), vehicle.getId());
+            }
+        }
+
+        Map<String, Double> regionFactors = new HashMap<>();
+        for (Region region : regionRepository.findAll()) {
+            if (region.getRegion() == null || region.getRegionFactor() == null) {
+                continue;
+            }
+            if (regionFactors.putIfAbsent(region.getRegion(), region.getRegionFactor()) != null) {
+                log.warn("Duplicate region '{}' ignored (id={})", region.getRegion(), region.getId());
+            }
+        }
+
+        Map<String, String> regionsByPostcode = new HashMap<>();
+        for (PostcodeRegion postcode : postcodeRepository.findAllPostcodeRegions()) {
+            if (postcode.postcode() == null || postcode.region() == null) {
+                continue;
+            }
+            if (regionsByPostcode.putIfAbsent(postcode.postcode(), postcode.region()) != null) {
+                log.warn("Duplicate postcode '{}' ignored", postcode.postcode());
+            }
+        }
+
+        MileageBandIndex mileageBandIndex = loadMileageBands();
+
+        PostcodeRegionIndex regionIndex = PostcodeRegionIndex.of(regionsByPostcode, regionFactors);
+        if (regionIndex.getOverflowCount() > 0) {
+            log.warn("{} postcodes are not five digits long and are kept outside the postcode array",
+                    regionIndex.getOverflowCount());
+        }
+
+        PremiumMatrix premiumMatrix = matrixEnabled
+                ? buildPremiumMatrix(vehicleFactors, regionIndex, mileageBandIndex)
+                : null;
+
+        TariffSnapshot snapshot = new TariffSnapshot(vehicleFactors, regionIndex, mileageBandIndex,
+                version != null ? version : TariffSnapshot.UNKNOWN_VERSION, premiumMatrix);
+
+        log.info("Tariff snapshot version {} loaded in {} ms: vehicleTypes={}, regions={}, postcodes={}, mileageBands={}",
+                snapshot.getVersion(), (System.nanoTime() - start) / 1_000_000,
+                snapshot.getVehicleTypeCount(), snapshot.getRegionCount(),
+                snapshot.getPostcodeCount(), mileageBandIndex.size());
+
+        return snapshot;
+    }
+
+    /**
+     * Builds the premium matrix, unless its cross-product exceeds the configured
+     * maximum number of cells.
+     * 
+     * @param vehicleFactors vehicle factor per vehicle type
+     * @param regions index over all postcodes and their regions
+     * @param mileageBands index over all yearly mileage bands
+     * @return the premium matrix, or null if it was refused
+     */
+    private PremiumMatrix buildPremiumMatrix(
+            Map<String, Double> vehicleFactors, PostcodeRegionIndex regions, MileageBandIndex mileageBands) {
+
+        long cells = PremiumMatrix.cellCount(vehicleFactors.size(), mileageBands.size(), regions.getRegionCount());
+        if (cells > matrixMaxCells) {
+            log.warn("Premium matrix refused: {} vehicle types x {} mileage bands x {} regions = {} cells exceeds {}",
+                    vehicleFactors.size(), mileageBands.size(), regions.getRegionCount(), cells, matrixMaxCells);
+            return null;
+        }
+
+        PremiumMatrix matrix = PremiumMatrix.of(baseRate, vehicleFactors, regions, mileageBands);
+        log.info("Premium matrix built: {} cells, {} bytes", matrix.getCellCount(), matrix.getSizeInBytes());
+        return matrix;
+    }
+
+    /**
+     * Loads only the 'yearly_mileage' table and builds the mileage band index.
+     * 
+     * @return the mileage band index
+     * @throws IllegalStateException if two bands overlap
+     */
+    public MileageBandIndex loadMileageBands() {
+        List<MileageBandIndex.Band> mileageBands = new ArrayList<>();
+        for (YearlyMileage mileage : yearlyMileageRepository.findAll()) {
+            if (mileage.getYearlyMileageFrom() == null || mileage.getYearlyMileageTo() == null
+                    || mileage.getYearlyMileageFactor() == null) {
+                continue;
+            }
+            mileageBands.add(new MileageBandIndex.Band(
+                    mileage.getYearlyMileageFrom(), mileage.getYearlyMileageTo(), mileage.getYearlyMileageFactor()));
+        }
+
+        MileageBandIndex mileageBandIndex = MileageBandIndex.of(mileageBands);
+        for (String gap : mileageBandIndex.getGaps()) {
+            log.warn("Yearly mileage range {} is not covered by any band", gap);
+        }
+        return mileageBandIndex;
+    }
+}
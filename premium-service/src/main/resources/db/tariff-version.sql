@@ -0,0 +1,43 @@
+-- Tariff version marker for live tariff reloads (PostgreSQL)
+--
+-- Every statement changing 'vehicle', 'regions', 'postcodes' or 'yearly_mileage'
+-- increments the version and sends NOTIFY tariff_changed with the new version as
+-- payload. The notification is delivered when the transaction commits.
+-- Einmalig ausführen: psql -f src/main/resources/db/tariff-version.sql
+
+CREATE TABLE IF NOT EXISTS tariff_version (
+    id      INTEGER PRIMARY KEY CHECK (id = 1),
+    version BIGINT  NOT NULL
+);
+
+INSERT INTO tariff_version (id, version) VALUES (1, 1) ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION tariff_version_bump() RETURNS trigger AS $$
+DECLARE
+    new_version BIGINT;
+BEGIN
+    UPDATE tariff_version SET version = version + 1 WHERE id = 1 RETURNING version INTO new_version;
+    PERFORM pg_notify('tariff_changed', new_version::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS vehicle_tariff_version ON vehicle;
+CREATE TRIGGER vehicle_tariff_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON vehicle
+    FOR EACH STATEMENT EXECUTE FUNCTION tariff_version_bump();
+
+DROP TRIGGER IF EXISTS regions_tariff_version ON regions;
+CREATE TRIGGER regions_tariff_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON regions
+    FOR EACH STATEMENT EXECUTE FUNCTION tariff_version_bump();
+
+DROP TRIGGER IF EXISTS postcodes_tariff_version ON postcodes;
+CREATE TRIGGER postcodes_tariff_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON postcodes
+    FOR EACH STATEMENT EXECUTE FUNCTION tariff_version_bump();
+
+DROP TRIGGER IF EXISTS yearly_mileage_tariff_version ON yearly_mileage;
+CREATE TRIGGER yearly_mileage_tariff_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON yearly_mileage
+    FOR EACH STATEMENT EXECUTE FUNCTION tariff_version_bump();
@@ -0,0 +1,176 @@
+package com.insurance.premium_service.audit;
+
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.service.PremiumMetrics;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteAuditJournalTest {
+
+    /** Header and ten records per segment. */
+    private static final DataSize SEGMENT_SIZE = DataSize.ofBytes(11 * QuoteAuditRecord.SIZE);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentAppends_writtenInSequenceAcrossSegments() throws Exception {
+        QuoteAuditJournal journal = startJournal(16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    journal.append(new PremiumRequest(15000, "SUV", "12345"), PremiumMetrics.Source.SNAPSHOT,
+                            QuoteAuditRecord.Status.OK, 1.5, 1.5, 1.1, 1237.5);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        journal.stop();
+
+        List<Long> sequences = new ArrayList<>();
+        long count = new QuoteAuditReader(directory, true).scan(record -> {
+            sequences.add(record.getSequence());
+            assertEquals("SUV", record.getVehicleType());
+            assertEquals("12345", record.getPostcode());
+            assertEquals(15000, record.getYearlyMileage());
+            assertEquals(1237.5, record.getPremium());
+            assertEquals(500.0, record.getBaseRate());
+        });
+
+        assertEquals(4000, count);
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(i, sequences.get(i));
+        }
+        assertEquals(400, QuoteAuditReader.segments(directory).size());
+    }
+
+    @Test
+    void concurrentOffers_fullRingDropsWithoutGapsInSequence() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        QuoteAuditJournal journal = startJournal(2, meterRegistry);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    journal.offer(new PremiumRequest(15000, "SUV", "12345"), PremiumMetrics.Source.SNAPSHOT,
+                            QuoteAuditRecord.Status.OK, 1.5, 1.5, 1.1, 1237.5);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        journal.stop();
+
+        List<Long> sequences = new ArrayList<>();
+        long count = new QuoteAuditReader(directory, true).scan(record -> sequences.add(record.getSequence()));
+
+        double dropped = meterRegistry.get("premium.audit.dropped").counter().count();
+        assertEquals(4000, count + dropped, 0.0);
+        assertEquals(count, meterRegistry.get("premium.audit.records").gauge().value(), 0.0);
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(i, sequences.get(i));
+        }
+    }
+
+    @Test
+    void offer_afterStop_notBuffered() throws Exception {
+        QuoteAuditJournal journal = startJournal(16);
+        journal.stop();
+
+        assertFalse(journal.offer(new PremiumRequest(15000, "SUV", "12345"), PremiumMetrics.Source.SNAPSHOT,
+                QuoteAuditRecord.Status.OK, 1.5, 1.5, 1.1, 1237.5));
+    }
+
+    @Test
+    void restart_continuesSequenceInNewSegment() throws Exception {
+        QuoteAuditJournal first = startJournal(16);
+        for (int i = 0; i < 5; i++) {
+            appendOk(first, "12345");
+        }
+        first.stop();
+
+        QuoteAuditJournal second = startJournal(16);
+        for (int i = 0; i < 3; i++) {
+            appendOk(second, "54321");
+        }
+        second.stop();
+
+        List<Long> sequences = new ArrayList<>();
+        new QuoteAuditReader(directory, false).scan(record -> sequences.add(record.getSequence()));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), sequences);
+        assertEquals(2, QuoteAuditReader.segments(directory).size());
+    }
+
+    @Test
+    void rejectedRequest_storedWithStatusAndMissingFactors() throws Exception {
+        QuoteAuditJournal journal = startJournal(16);
+        journal.append(new PremiumRequest(12000, "A-VERY-LONG-VEHICLE-TYPE-NAME", "99999"),
+                PremiumMetrics.Source.DATABASE, QuoteAuditRecord.Status.INVALID_POSTCODE, 1.1, 1.0, Double.NaN, Double.NaN);
+        journal.stop();
+
+        long count = new QuoteAuditReader(directory, true).scan(record -> {
+            assertEquals(QuoteAuditRecord.Status.INVALID_POSTCODE, record.getStatus());
+            assertEquals(PremiumMetrics.Source.DATABASE, record.getSource());
+            assertEquals("A-VERY-LONG-VEHICLE-TYPE", record.getVehicleType());
+            assertTrue(record.hasPostcode("99999"));
+            assertFalse(record.hasPostcode("9999"));
+            assertEquals(1.1, record.getYearlyMileageFactor());
+            assertTrue(Double.isNaN(record.getRegionFactor()));
+            assertTrue(Double.isNaN(record.getPremium()));
+        });
+        assertEquals(1, count);
+    }
+
+    @Test
+    void verify_skipsCorruptedRecord() throws Exception {
+        QuoteAuditJournal journal = startJournal(16);
+        for (int i = 0; i < 3; i++) {
+            appendOk(journal, "12345");
+        }
+        journal.stop();
+
+        Path segment = QuoteAuditReader.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // premium of the second record
+            channel.write(ByteBuffer.wrap(new byte[]{42}), QuoteJournalWriter.HEADER_SIZE + QuoteAuditRecord.SIZE + 72);
+        }
+
+        assertEquals(3, new QuoteAuditReader(directory, false).scan(record -> { }));
+        assertEquals(2, new QuoteAuditReader(directory, true).scan(record -> { }));
+    }
+
+    private QuoteAuditJournal startJournal(int ringSize) {
+        return startJournal(ringSize, new SimpleMeterRegistry());
+    }
+
+    private QuoteAuditJournal startJournal(int ringSize, SimpleMeterRegistry meterRegistry) {
+        QuoteAuditJournal journal = new QuoteAuditJournal(new TariffSnapshotHolder(null, false),
+                meterRegistry, true, directory, SEGMENT_SIZE, ringSize,
+                Duration.ofMillis(10), Duration.ZERO, 500.0);
+        journal.start();
+        return journal;
+    }
+
+    private static void appendOk(QuoteAuditJournal journal, String postcode) {
+        journal.append(new PremiumRequest(15000, "SUV", postcode), PremiumMetrics.Source.SNAPSHOT,
+                QuoteAuditRecord.Status.OK, 1.5, 1.5, 1.1, 1237.5);
+    }
+}
@@ -0,0 +1,51 @@
+package com.insurance.premium_service.config;
+
+import com.insurance.premium_service.entity.PostCode;
+import com.insurance.premium_service.entity.Region;
+import com.insurance.premium_service.entity.Vehicle;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.repository.PostcodeRegion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PremiumServiceRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new PremiumServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entities_areRegisteredForReflection() throws Exception {
+        for (Class<?> entity : new Class<?>[] {PostCode.class, Region.class, Vehicle.class, YearlyMileage.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity).test(hints), entity.getName());
+            assertTrue(RuntimeHintsPredicates.reflection().onConstructor(entity.getDeclaredConstructor()).test(hints),
+                    entity.getName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onField(PostCode.class, "region").test(hints));
+    }
+
+    @Test
+    void postcodeRegion_constructorIsRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(PostcodeRegion.class.getDeclaredConstructor(String.class, String.class))
+                .test(hints));
+    }
+
+    @Test
+    void caffeineClasses_existAndAreRegistered() {
+        // fails after a Caffeine upgrade renames the generated classes
+        for (String className : new String[] {PremiumServiceRuntimeHints.CAFFEINE_CACHE_CLASS,
+                PremiumServiceRuntimeHints.CAFFEINE_NODE_CLASS, PremiumServiceRuntimeHints.ASYNC_APPENDER_CLASS}) {
+            assertDoesNotThrow(() -> Class.forName(className, false, getClass().getClassLoader()), className);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(className)).test(hints), className);
+        }
+    }
+}
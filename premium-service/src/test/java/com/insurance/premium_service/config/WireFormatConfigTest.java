@@ -0,0 +1,48 @@
+package com.insurance.premium_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.premium_service.model.PremiumResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatConfigTest {
+
+    private final ObjectMapper cborMapper = WireFormatConfig.cborMapper(Jackson2ObjectMapperBuilder.json());
+    private final WireFormatConfig.SingleValueCborEncoder encoder = new WireFormatConfig.SingleValueCborEncoder(cborMapper);
+
+    @Test
+    void cborEncoder_encodesMono() throws Exception {
+        DataBuffer buffer = encoder.encode(Mono.just(new PremiumResponse(1237.5)), DefaultDataBufferFactory.sharedInstance,
+                ResolvableType.forClass(PremiumResponse.class), MediaType.APPLICATION_CBOR, Map.of()).single().block();
+
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        assertEquals(1237.5, cborMapper.readValue(bytes, PremiumResponse.class).getCalculatedPremium(), 0.0);
+    }
+
+    @Test
+    void cborEncoder_isOnlyForCbor() {
+        ResolvableType type = ResolvableType.forClass(PremiumResponse.class);
+        assertTrue(encoder.canEncode(type, MediaType.APPLICATION_CBOR));
+        assertFalse(encoder.canEncode(type, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void cborEncoder_doesNotStreamFlux() {
+        assertThrows(UnsupportedOperationException.class, () -> encoder.encode(Flux.just(new PremiumResponse(1.0)),
+                DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(PremiumResponse.class),
+                MediaType.APPLICATION_CBOR, Map.of()));
+    }
+}
@@ -0,0 +1,164 @@
+package com.insurance.premium_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.premium_service.config.WireFormatConfig;
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.service.PremiumCalculationService;
+import com.insurance.premium_service.service.PremiumMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PremiumControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PremiumCalculationService calculationService;
+
+    private ObjectMapper objectMapper;
+
+    /** Converters in the order of the application: JSON first, then CBOR and Smile. */
+    private MockMvc binaryMockMvc;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        PremiumController controller = new PremiumController(calculationService,
+                new PremiumMetrics(new SimpleMeterRegistry()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        objectMapper = new ObjectMapper();
+
+        WireFormatConfig wireFormatConfig = new WireFormatConfig();
+        binaryMockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(
+                        new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()),
+                        wireFormatConfig.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()),
+                        wireFormatConfig.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()))
+                .build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+    }
+
+    @Test
+    void calculate_ok() throws Exception {
+        when(calculationService.calculatePremium(any(PremiumRequest.class)))
+                .thenReturn(new PremiumResponse(198.0));
+
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        String body = objectMapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/premium/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculatedPremium").value(198.0));
+    }
+
+    @Test
+    void calculateBatch_ok() throws Exception {
+        when(calculationService.calculatePremiums(anyList()))
+                .thenReturn(List.of(PremiumBatchResult.success(198.0), PremiumBatchResult.failure("Invalid vehicle type: BOAT")));
+
+        List<PremiumRequest> requests = List.of(
+                new PremiumRequest(15000, "SUV", "12345"),
+                new PremiumRequest(15000, "BOAT", "12345"));
+        String body = objectMapper.writeValueAsString(requests);
+
+        mockMvc.perform(post("/api/premium/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].calculatedPremium").value(198.0))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("Invalid vehicle type: BOAT"));
+    }
+
+    @Test
+    void calculateBatch_tooLarge() throws Exception {
+        List<PremiumRequest> requests = Collections.nCopies(1001, new PremiumRequest(15000, "SUV", "12345"));
+        String body = objectMapper.writeValueAsString(requests);
+
+        mockMvc.perform(post("/api/premium/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void calculate_cbor() throws Exception {
+        when(calculationService.calculatePremium(any(PremiumRequest.class)))
+                .thenReturn(new PremiumResponse(198.0));
+
+        byte[] body = cborMapper.writeValueAsBytes(new PremiumRequest(15000, "SUV", "12345"));
+
+        byte[] response = binaryMockMvc.perform(post("/api/premium/calculate")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(198.0, cborMapper.readTree(response).get("calculatedPremium").asDouble(), 1e-9);
+    }
+
+    @Test
+    void calculateBatch_smile() throws Exception {
+        when(calculationService.calculatePremiums(anyList()))
+                .thenReturn(List.of(PremiumBatchResult.success(198.0), PremiumBatchResult.failure("Invalid vehicle type: BOAT")));
+
+        byte[] body = smileMapper.writeValueAsBytes(List.of(
+                new PremiumRequest(15000, "SUV", "12345"),
+                new PremiumRequest(15000, "BOAT", "12345")));
+
+        byte[] response = binaryMockMvc.perform(post("/api/premium/calculate/batch")
+                        .contentType(WireFormatConfig.APPLICATION_SMILE)
+                        .accept(WireFormatConfig.APPLICATION_SMILE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormatConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode results = smileMapper.readTree(response);
+        assertEquals(198.0, results.get(0).get("calculatedPremium").asDouble(), 1e-9);
+        assertEquals("Invalid vehicle type: BOAT", results.get(1).get("error").asText());
+    }
+
+    @Test
+    void calculate_binaryRequestWithoutAccept_answersJson() throws Exception {
+        when(calculationService.calculatePremium(any(PremiumRequest.class)))
+                .thenReturn(new PremiumResponse(198.0));
+
+        binaryMockMvc.perform(post("/api/premium/calculate")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(new PremiumRequest(15000, "SUV", "12345"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.calculatedPremium").value(198.0));
+    }
+}
@@ -0,0 +1,66 @@
+package com.insurance.premium_service.grpc;
+
+import com.insurance.premium_service.grpc.api.PremiumQuoteServiceGrpc;
+import com.insurance.premium_service.grpc.api.QuoteReply;
+import com.insurance.premium_service.grpc.api.QuoteRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.service.PremiumCalculationService;
+import com.insurance.premium_service.service.PremiumMetrics;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PremiumGrpcServerTest {
+
+    private final PremiumCalculationService premiumCalculationService = mock(PremiumCalculationService.class);
+    private final PremiumQuoteGrpcService service =
+            new PremiumQuoteGrpcService(premiumCalculationService, new PremiumMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void start_servesQuotesOverHttp2UntilStopped() throws Exception {
+        when(premiumCalculationService.calculatePremium(any())).thenReturn(new PremiumResponse(1237.5));
+        PremiumGrpcServer server = server(true);
+
+        server.start();
+        assertTrue(server.isRunning());
+        ManagedChannel channel = Grpc.newChannelBuilderForAddress("localhost", server.getPort(),
+                InsecureChannelCredentials.create()).build();
+        try {
+            QuoteReply reply = PremiumQuoteServiceGrpc.newBlockingStub(channel)
+                    .quote(QuoteRequest.newBuilder().setYearlyMileage(15000).setVehicleType("SUV").setPostcode("12345").build());
+            assertEquals(1237.5, reply.getPremium(), 0.0);
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.stop();
+        }
+
+        assertFalse(server.isRunning());
+        assertEquals(-1, server.getPort());
+    }
+
+    @Test
+    void start_disabled_doesNotListen() {
+        PremiumGrpcServer server = server(false);
+
+        server.start();
+
+        assertFalse(server.isRunning());
+        assertEquals(-1, server.getPort());
+        server.stop();
+    }
+
+    private PremiumGrpcServer server(boolean enabled) {
+        return new PremiumGrpcServer(service, enabled, 0, 100, DataSize.ofMegabytes(1), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,186 @@
+package com.insurance.premium_service.grpc;
+
+import com.insurance.premium_service.grpc.api.PremiumQuoteServiceGrpc;
+import com.insurance.premium_service.grpc.api.QuoteReply;
+import com.insurance.premium_service.grpc.api.QuoteRequest;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.service.PremiumCalculationService;
+import com.insurance.premium_service.service.PremiumMetrics;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PremiumQuoteGrpcServiceTest {
+
+    @Mock
+    private PremiumCalculationService premiumCalculationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new PremiumQuoteGrpcService(premiumCalculationService, new PremiumMetrics(meterRegistry)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void quote_returnsPremiumAndCorrelationId() {
+        when(premiumCalculationService.calculatePremium(any())).thenReturn(new PremiumResponse(1237.5));
+
+        QuoteReply reply = PremiumQuoteServiceGrpc.newBlockingStub(channel).quote(request(15000, "SUV", 7));
+
+        assertEquals(7, reply.getCorrelationId());
+        assertEquals(QuoteReply.ResultCase.PREMIUM, reply.getResultCase());
+        assertEquals(1237.5, reply.getPremium(), 0.0);
+        assertEquals(1, meterRegistry.get("premium.controller").tag("endpoint", "grpc_quote").timer().count());
+    }
+
+    @Test
+    void quote_invalidRequest_failsWithInvalidArgument() {
+        when(premiumCalculationService.calculatePremium(any()))
+                .thenThrow(new IllegalArgumentException("Invalid vehicle type: BOAT"));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> PremiumQuoteServiceGrpc.newBlockingStub(channel).quote(request(15000, "BOAT", 1)));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        assertEquals("Invalid vehicle type: BOAT", e.getStatus().getDescription());
+    }
+
+    @Test
+    void quoteStream_answersEveryRequestInOrder() throws Exception {
+        when(premiumCalculationService.calculatePremium(any())).thenAnswer(invocation -> {
+            PremiumRequest request = invocation.getArgument(0);
+            if ("BOAT".equals(request.getVehicleType())) {
+                throw new IllegalArgumentException("Invalid vehicle type: BOAT");
+            }
+            return new PremiumResponse(request.getYearlyMileage());
+        });
+
+        int count = 10_000;
+        List<QuoteReply> replies = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        StreamObserver<QuoteRequest> requests = PremiumQuoteServiceGrpc.newStub(channel).quoteStream(new StreamObserver<>() {
+            @Override
+            public void onNext(QuoteReply reply) {
+                replies.add(reply);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.complete(null);
+            }
+        });
+        for (int i = 0; i < count; i++) {
+            requests.onNext(request(i, i % 100 == 0 ? "BOAT" : "SUV", i));
+        }
+        requests.onCompleted();
+        completed.get(30, TimeUnit.SECONDS);
+
+        assertEquals(count, replies.size());
+        for (int i = 0; i < count; i++) {
+            QuoteReply reply = replies.get(i);
+            assertEquals(i, reply.getCorrelationId());
+            if (i % 100 == 0) {
+                assertEquals("Invalid vehicle type: BOAT", reply.getError());
+            } else {
+                assertEquals(i, reply.getPremium(), 0.0);
+            }
+        }
+        assertEquals(count, meterRegistry.get("premium.controller").tag("endpoint", "grpc_stream").timer().count());
+    }
+
+    @Test
+    void quoteStream_clientNotReading_stopsReadingRequests() throws Exception {
+        when(premiumCalculationService.calculatePremium(any())).thenReturn(new PremiumResponse(1237.5));
+
+        List<QuoteReply> replies = new CopyOnWriteArrayList<>();
+        CompletableFuture<ClientCallStreamObserver<QuoteRequest>> call = new CompletableFuture<>();
+        PremiumQuoteServiceGrpc.newStub(channel).quoteStream(new ClientResponseObserver<QuoteRequest, QuoteReply>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<QuoteRequest> requestStream) {
+                requestStream.disableAutoRequestWithInitial(10);
+                call.complete(requestStream);
+            }
+
+            @Override
+            public void onNext(QuoteReply reply) {
+                replies.add(reply);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        ClientCallStreamObserver<QuoteRequest> requests = call.get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 1000; i++) {
+            requests.onNext(request(15000, "SUV", i));
+        }
+
+        verify(premiumCalculationService, timeout(5000).atLeast(PremiumQuoteGrpcService.PREFETCH)).calculatePremium(any());
+        Thread.sleep(200);
+        int quoted = mockingDetails(premiumCalculationService).getInvocations().size();
+        Thread.sleep(200);
+        assertEquals(quoted, mockingDetails(premiumCalculationService).getInvocations().size());
+        assertTrue(quoted <= PremiumQuoteGrpcService.PREFETCH + 10, "quoted " + quoted);
+        assertEquals(10, replies.size());
+
+        requests.request(1000);
+        verify(premiumCalculationService, timeout(5000).times(1000)).calculatePremium(any());
+        requests.cancel("done", null);
+    }
+
+    private static QuoteRequest request(int yearlyMileage, String vehicleType, long correlationId) {
+        return QuoteRequest.newBuilder()
+                .setYearlyMileage(yearlyMileage)
+                .setVehicleType(vehicleType)
+                .setPostcode("12345")
+                .setCorrelationId(correlationId)
+                .build();
+    }
+}
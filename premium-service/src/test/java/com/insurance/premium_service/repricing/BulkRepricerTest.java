@@ -0,0 +1,144 @@
+package com.insurance.premium_service.repricing;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRepricerTest {
+
+    private static final String INPUT = """
+            yearlyMileage,vehicleType,postcode
+            15000,SUV,12345
+            5000,SEDAN,50667\r
+            15000,UNKNOWN,12345
+
+            99999,SUV,12345
+            15000, "SUV" ,99999
+            fifteen,SUV,12345
+            5000,SEDAN
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void run_writesPremiumsAndRejects() throws IOException {
+        Path input = write("policies.csv", INPUT);
+
+        BulkRepricer.Summary summary = repricer(1, 1024 * 1024).run(input, directory);
+
+        assertEquals("""
+                yearlyMileage,vehicleType,postcode,premium
+                15000,SUV,12345,198.00000000000003
+                5000,SEDAN,50667,130.0
+                """, read("policies.csv.premiums.csv"));
+        assertEquals("""
+                yearlyMileage,vehicleType,postcode,reason
+                15000,UNKNOWN,12345,INVALID_VEHICLE_TYPE
+                99999,SUV,12345,INVALID_YEARLY_MILEAGE
+                15000, "SUV" ,99999,INVALID_POSTCODE
+                fifteen,SUV,12345,MALFORMED_ROW
+                5000,SEDAN,MALFORMED_ROW
+                """, read("policies.csv.rejects.csv"));
+        assertEquals(7, summary.rows());
+        assertEquals(5, summary.rejected());
+        assertFalse(summary.resumed());
+        assertFalse(Files.exists(directory.resolve("policies.csv.checkpoint")));
+    }
+
+    @Test
+    void run_smallChunks_priceEveryRowOnceInInputOrder() throws IOException {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            rows.append(i % 20000).append(i % 3 == 0 ? ",SUV," : ",SEDAN,").append(i % 2 == 0 ? "12345" : "50667")
+                    .append('\n');
+        }
+        Path input = write("policies.csv", rows.toString());
+        Path expected = directory.resolve("expected");
+        repricer(1, 1024 * 1024).run(input, expected);
+
+        // Chunks shorter than a row: most chunks own no row, the rest exactly one
+        BulkRepricer.Summary summary = repricer(4, 7).run(input, directory);
+
+        assertEquals(2000, summary.rows());
+        assertEquals(Files.readString(expected.resolve("policies.csv.premiums.csv")),
+                read("policies.csv.premiums.csv"));
+    }
+
+    @Test
+    void run_resumesAfterCheckpoint() throws IOException {
+        Path input = write("policies.csv", INPUT);
+        Path expected = directory.resolve("expected");
+        repricer(1, 1024 * 1024).run(input, expected);
+
+        // Interrupted after the first two rows, with rows written after the checkpoint
+        long offset = INPUT.indexOf("15000,UNKNOWN");
+        String results = """
+                yearlyMileage,vehicleType,postcode,premium
+                15000,SUV,12345,198.00000000000003
+                5000,SEDAN,50667,130.0
+                """;
+        write("policies.csv.premiums.csv", results + "1234,not,checkpointed\n");
+        write("policies.csv.rejects.csv", "yearlyMileage,vehicleType,postcode,reason\n");
+        new RepricingCheckpoint(Files.size(input), 7, offset, 2, 0, results.length(),
+                "yearlyMileage,vehicleType,postcode,reason\n".length())
+                .write(directory.resolve("policies.csv.checkpoint"));
+
+        BulkRepricer.Summary summary = repricer(2, 16).run(input, directory);
+
+        assertTrue(summary.resumed());
+        assertEquals(7, summary.rows());
+        assertEquals(5, summary.rejected());
+        assertEquals(Files.readString(expected.resolve("policies.csv.premiums.csv")),
+                read("policies.csv.premiums.csv"));
+        assertEquals(Files.readString(expected.resolve("policies.csv.rejects.csv")),
+                read("policies.csv.rejects.csv"));
+        assertFalse(Files.exists(directory.resolve("policies.csv.checkpoint")));
+    }
+
+    @Test
+    void run_checkpointOfOtherTariff_isRefused() throws IOException {
+        Path input = write("policies.csv", INPUT);
+        new RepricingCheckpoint(Files.size(input), 6, 0, 0, 0, 0, 0)
+                .write(directory.resolve("policies.csv.checkpoint"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> repricer(1, 1024).run(input, directory));
+        assertTrue(e.getMessage().contains("tariff version 6"));
+    }
+
+    private static BulkRepricer repricer(int parallelism, int chunkSize) {
+        TariffSnapshot tariff = new TariffSnapshot(
+                Map.of("SUV", 1.5, "SEDAN", 1.0),
+                PostcodeRegionIndex.of(Map.of("12345", "Bayern", "50667", "NRW"), Map.of("Bayern", 1.1, "NRW", 1.3)),
+                MileageBandIndex.of(List.of(
+                        new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(10000), 1.0),
+                        new MileageBandIndex.Band(BigDecimal.valueOf(10001), BigDecimal.valueOf(20000), 1.2))),
+                7, null);
+        return new BulkRepricer(new RatingEngine(tariff, 100.0), chunkSize, parallelism, Duration.ZERO);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private String read(String name) throws IOException {
+        return Files.readString(directory.resolve(name));
+    }
+}
@@ -0,0 +1,61 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.VehicleRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchFactorResolverTest {
+
+    @Mock
+    private PostCodeRepository postCodeRepository;
+    @Mock
+    private YearlyMileageRepository yearlyMileageRepository;
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PremiumMetrics premiumMetrics = new PremiumMetrics(meterRegistry);
+
+    @Test
+    void resolve_countsEveryQuery() {
+        when(vehicleRepository.findByVehicleTypeIn(anyCollection())).thenReturn(List.of());
+        when(postCodeRepository.findByPostcodeInWithRegion(anyCollection())).thenReturn(List.of());
+        when(yearlyMileageRepository.findOverlappingRanges(any(), any())).thenReturn(List.of());
+
+        resolver().resolve(List.of(
+                new PremiumRequest(15000, "SUV", "12345"),
+                new PremiumRequest(5000, "SEDAN", "50667")), premiumMetrics);
+
+        assertEquals(3.0, meterRegistry.get("premium.db.queries").counter().count(), 0.0);
+    }
+
+    @Test
+    void resolve_skippedQueriesAreNotCounted() {
+        when(yearlyMileageRepository.findOverlappingRanges(any(), any())).thenReturn(List.of());
+
+        resolver().resolve(Arrays.asList(new PremiumRequest(15000, null, null), null), premiumMetrics);
+
+        assertEquals(1.0, meterRegistry.get("premium.db.queries").counter().count(), 0.0);
+        verifyNoInteractions(vehicleRepository, postCodeRepository);
+    }
+
+    private BatchFactorResolver resolver() {
+        return new BatchFactorResolver(postCodeRepository, yearlyMileageRepository, vehicleRepository);
+    }
+}
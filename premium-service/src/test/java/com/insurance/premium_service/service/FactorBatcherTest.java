@@ -0,0 +1,138 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.repository.PremiumFactors;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FactorBatcherTest {
+
+    private static final int CALLERS = 4;
+
+    private static final TariffSnapshot FACTORS = new TariffSnapshot(
+            Map.of("SUV", 1.5, "SEDAN", 1.0),
+            PostcodeRegionIndex.of(Map.of("12345", "Bayern", "50667", "NRW"), Map.of("Bayern", 1.1, "NRW", 1.3)),
+            MileageBandIndex.of(List.of(
+                    new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(10000), 1.0),
+                    new MileageBandIndex.Band(BigDecimal.valueOf(10001), BigDecimal.valueOf(20000), 1.2))));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PremiumMetrics premiumMetrics = new PremiumMetrics(meterRegistry);
+    private final BatchFactorResolver batchFactorResolver = mock(BatchFactorResolver.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequests_fullBatchResolvedWithoutWaitingForWindow() throws Exception {
+        FactorBatcher batcher = new FactorBatcher(batchFactorResolver, true, Duration.ofMinutes(1), CALLERS);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(batchFactorResolver.resolve(any(), any())).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<Collection<?>>getArgument(0).size());
+            return FACTORS;
+        });
+
+        List<PremiumRequest> requests = List.of(
+                new PremiumRequest(15000, "SUV", "12345"),
+                new PremiumRequest(5000, "SEDAN", "50667"),
+                new PremiumRequest(15000, "SEDAN", "12345"),
+                new PremiumRequest(99999, "SUV", "99999"));
+        List<Future<PremiumFactors>> results = new ArrayList<>();
+        for (PremiumRequest request : requests) {
+            results.add(executor.submit(() -> batcher.factorsOf(request, premiumMetrics)));
+        }
+
+        assertFactors(1.2, 1.5, 1.1, results.get(0).get(5, TimeUnit.SECONDS));
+        assertFactors(1.0, 1.0, 1.3, results.get(1).get(5, TimeUnit.SECONDS));
+        assertFactors(1.2, 1.0, 1.1, results.get(2).get(5, TimeUnit.SECONDS));
+        assertFactors(null, 1.5, null, results.get(3).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(CALLERS), batchSizes);
+        DistributionSummary sizes = meterRegistry.get("premium.microbatch.size").summary();
+        assertEquals(1, sizes.count());
+        assertEquals(CALLERS, sizes.totalAmount(), 0.0);
+        // the queries are counted by the resolver
+        verify(batchFactorResolver).resolve(any(), org.mockito.ArgumentMatchers.same(premiumMetrics));
+    }
+
+    @Test
+    void singleRequest_resolvedAfterWindow() {
+        FactorBatcher batcher = new FactorBatcher(batchFactorResolver, true, Duration.ofMillis(1), 64);
+        when(batchFactorResolver.resolve(any(), any())).thenReturn(FACTORS);
+
+        PremiumFactors factors = batcher.factorsOf(new PremiumRequest(15000, "SUV", "12345"), premiumMetrics);
+
+        assertFactors(1.2, 1.5, 1.1, factors);
+        assertEquals(1.0, meterRegistry.get("premium.microbatch.size").summary().totalAmount(), 0.0);
+    }
+
+    @Test
+    void sequentialRequests_resolvedInSeparateBatches() {
+        FactorBatcher batcher = new FactorBatcher(batchFactorResolver, true, Duration.ofMinutes(1), 1);
+        when(batchFactorResolver.resolve(any(), any())).thenReturn(FACTORS);
+
+        batcher.factorsOf(new PremiumRequest(15000, "SUV", "12345"), premiumMetrics);
+        batcher.factorsOf(new PremiumRequest(5000, "SEDAN", "50667"), premiumMetrics);
+
+        verify(batchFactorResolver, times(2)).resolve(any(), any());
+        assertEquals(2, meterRegistry.get("premium.microbatch.size").summary().count());
+    }
+
+    @Test
+    void failedQuery_isRethrownToAllRequestsOfBatch() throws Exception {
+        FactorBatcher batcher = new FactorBatcher(batchFactorResolver, true, Duration.ofMinutes(1), CALLERS);
+        IllegalStateException failure = new IllegalStateException("connection refused");
+        when(batchFactorResolver.resolve(any(), any())).thenThrow(failure);
+
+        List<Future<PremiumFactors>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            PremiumRequest request = new PremiumRequest(15000 + i, "SUV", "12345");
+            results.add(executor.submit(() -> batcher.factorsOf(request, premiumMetrics)));
+        }
+
+        for (Future<PremiumFactors> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        verify(batchFactorResolver).resolve(any(), any());
+    }
+
+    @Test
+    void invalidMaxSize_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FactorBatcher(batchFactorResolver, true, Duration.ofMillis(1), 0));
+    }
+
+    private static void assertFactors(Double mileageFactor, Double vehicleFactor, Double regionFactor,
+                                      PremiumFactors factors) {
+        assertEquals(mileageFactor, factors.getYearlyMileageFactor());
+        assertEquals(vehicleFactor, factors.getVehicleFactor());
+        assertEquals(regionFactor, factors.getRegionFactor());
+    }
+}
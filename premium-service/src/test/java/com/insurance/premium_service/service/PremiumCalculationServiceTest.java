@@ -0,0 +1,491 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.PremiumMatrix;
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_core.TariffSnapshot;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.audit.QuoteAuditRecord;
+import com.insurance.premium_service.entity.Region;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.PremiumFactors;
+import com.insurance.premium_service.repository.RegionRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.eq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PremiumCalculationServiceTest {
+
+    @Mock
+    private PostCodeRepository postCodeRepository;
+    @Mock
+    private RegionRepository regionRepository;
+    @Mock
+    private YearlyMileageRepository yearlyMileageRepository;
+    @Mock
+    private TariffSnapshotHolder tariffSnapshotHolder;
+    @Mock
+    private BatchFactorResolver batchFactorResolver;
+    @Mock
+    private QuoteCache quoteCache;
+    @Mock
+    private FactorBatcher factorBatcher;
+    @Mock
+    private QuoteLogger quoteLogger;
+    @Mock
+    private QuoteAuditJournal quoteAuditJournal;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private PremiumMetrics premiumMetrics = new PremiumMetrics(meterRegistry);
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(true, meterRegistry);
+
+    @InjectMocks
+    private PremiumCalculationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field baseRateField = PremiumCalculationService.class.getDeclaredField("baseRate");
+        baseRateField.setAccessible(true);
+        baseRateField.set(service, 100.0d);
+    }
+
+    @Test
+    void calculate_ok() {
+        mockFactors(15000, "SUV", "12345", 1.2, 1.5, 1.1);
+
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        PremiumResponse response = service.calculatePremium(request);
+
+        assertNotNull(response);
+        assertEquals(198.0, response.getCalculatedPremium(), 1e-6);
+    }
+
+    @Test
+    void calculate_cacheHit() {
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        QuoteCache.Key key = new QuoteCache.Key("SUV", "12345", 1, 0);
+        when(quoteCache.keyOf(request)).thenReturn(key);
+        when(quoteCache.get(key)).thenReturn(new QuoteCache.CachedQuote(198.0, 1.2, 1.5, 1.1));
+
+        PremiumResponse response = service.calculatePremium(request);
+
+        assertEquals(198.0, response.getCalculatedPremium(), 1e-6);
+        verifyNoInteractions(yearlyMileageRepository, postCodeRepository, regionRepository);
+        verify(quoteAuditJournal).append(eq(request), eq(PremiumMetrics.Source.QUOTE_CACHE),
+                eq(QuoteAuditRecord.Status.OK), eq(1.2), eq(1.5), eq(1.1), eq(198.0, 1e-6));
+    }
+
+    @Test
+    void calculate_cacheMiss_putsResult() {
+        mockFactors(15000, "SUV", "12345", 1.2, 1.5, 1.1);
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        QuoteCache.Key key = new QuoteCache.Key("SUV", "12345", 1, 0);
+        when(quoteCache.keyOf(request)).thenReturn(key);
+        when(quoteCache.get(key)).thenReturn(null);
+
+        service.calculatePremium(request);
+
+        verify(quoteCache).put(eq(key), org.mockito.ArgumentMatchers.argThat(quote -> Math.abs(quote.premium() - 198.0) < 1e-6
+                && quote.yearlyMileageFactor() == 1.2 && quote.vehicleFactor() == 1.5 && quote.regionFactor() == 1.1));
+    }
+
+    @Test
+    void mileage_invalid() {
+        mockFactors(999999999, "SUV", "12345", null, 1.5, 1.1);
+
+        PremiumRequest request = new PremiumRequest(999999999, "SUV", "12345");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.calculatePremium(request));
+        assertTrue(ex.getMessage().contains("Invalid yearly mileage"));
+    }
+
+    @Test
+    void vehicle_invalid() {
+        mockFactors(10000, "UNKNOWN", "12345", 1.0, null, 1.1);
+
+        PremiumRequest request = new PremiumRequest(10000, "UNKNOWN", "12345");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.calculatePremium(request));
+        assertTrue(ex.getMessage().contains("Invalid vehicle type"));
+    }
+
+    @Test
+    void region_invalid() {
+        // postcode without region -> no region factor
+        mockFactors(12000, "SEDAN", "99999", 1.1, 1.0, null);
+
+        PremiumRequest request = new PremiumRequest(12000, "SEDAN", "99999");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.calculatePremium(request));
+        assertTrue(ex.getMessage().contains("Invalid postcode or region"));
+    }
+
+    @Test
+    void mileageFactor_ok() {
+        mockMileageFactor(14000, 1.25);
+        Double factor = service.getYearlyMileageFactor(14000);
+        assertEquals(1.25, factor, 1e-9);
+    }
+
+    @Test
+    void postcode_noRegion() {
+        Region region = new Region();
+        region.setRegion("NRW");
+        com.insurance.premium_service.entity.PostCode pc = new com.insurance.premium_service.entity.PostCode();
+        
+        when(postCodeRepository.findByPostcode(eq("90667"))).thenReturn(Optional.of(pc));
+
+        String name = service.getRegionByPostcode("90667");
+        assertNull(name);
+    }
+
+    @Test
+    void regionFactor_ok() {
+        Region region = new Region();
+        region.setRegion("Bayern");
+        region.setRegionFactor(1.1);
+        when(regionRepository.findByRegion(eq("Bayern"))).thenReturn(Optional.of(region));
+        Double factor = service.getRegionFactorByRegion("Bayern");
+        assertEquals(1.1, factor, 1e-9);
+    }
+
+    @Test
+    void calculate_fromSnapshot() {
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(
+                Map.of("SUV", 1.5),
+                PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1)),
+                MileageBandIndex.of(List.of(new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)))));
+
+        PremiumResponse response = service.calculatePremium(new PremiumRequest(15000, "SUV", "12345"));
+
+        assertEquals(198.0, response.getCalculatedPremium(), 1e-6);
+        verifyNoInteractions(quoteCache, postCodeRepository, regionRepository, yearlyMileageRepository);
+    }
+
+    @Test
+    void calculate_fromPremiumMatrix() {
+        Map<String, Double> vehicleFactors = Map.of("SUV", 1.5);
+        PostcodeRegionIndex regions = PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1));
+        MileageBandIndex bands = MileageBandIndex.of(List.of(
+                new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)));
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(vehicleFactors, regions, bands, 1,
+                PremiumMatrix.of(100.0, vehicleFactors, regions, bands)));
+
+        PremiumResponse response = service.calculatePremium(new PremiumRequest(15000, "SUV", "12345"));
+
+        assertEquals(198.0, response.getCalculatedPremium(), 1e-6);
+        verifyNoInteractions(quoteCache, postCodeRepository, regionRepository, yearlyMileageRepository);
+    }
+
+    @Test
+    void calculate_fromPremiumMatrix_auditsFactorsOfSnapshot() {
+        Map<String, Double> vehicleFactors = Map.of("SUV", 1.5);
+        PostcodeRegionIndex regions = PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1));
+        MileageBandIndex bands = MileageBandIndex.of(List.of(
+                new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)));
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(vehicleFactors, regions, bands, 1,
+                PremiumMatrix.of(100.0, vehicleFactors, regions, bands)));
+        when(quoteAuditJournal.isEnabled()).thenReturn(true);
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+
+        service.calculatePremium(request);
+
+        verify(quoteAuditJournal).append(eq(request), eq(PremiumMetrics.Source.PREMIUM_MATRIX),
+                eq(QuoteAuditRecord.Status.OK), eq(1.2), eq(1.5), eq(1.1), eq(198.0, 1e-6));
+    }
+
+    @Test
+    void vehicle_invalid_fromPremiumMatrix() {
+        Map<String, Double> vehicleFactors = Map.of("SUV", 1.5);
+        PostcodeRegionIndex regions = PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1));
+        MileageBandIndex bands = MileageBandIndex.of(List.of(
+                new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)));
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(vehicleFactors, regions, bands, 1,
+                PremiumMatrix.of(100.0, vehicleFactors, regions, bands)));
+
+        PremiumRequest request = new PremiumRequest(15000, "BOAT", "12345");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.calculatePremium(request));
+        assertEquals("Invalid vehicle type: BOAT", ex.getMessage());
+    }
+
+    @Test
+    void postcode_invalid_fromSnapshot() {
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(
+                Map.of("SUV", 1.5),
+                PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1)),
+                MileageBandIndex.of(List.of(new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)))));
+
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "99999");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.calculatePremium(request));
+        assertTrue(ex.getMessage().contains("Invalid postcode or region"));
+    }
+
+    @Test
+    void calculateBatch_perItemErrors() {
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(
+                Map.of("SUV", 1.5),
+                PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1)),
+                MileageBandIndex.of(List.of(new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)))));
+
+        List<PremiumBatchResult> results = service.calculatePremiums(List.of(
+                new PremiumRequest(15000, "SUV", "12345"),
+                new PremiumRequest(15000, "BOAT", "12345"),
+                new PremiumRequest(99999, "SUV", "12345"),
+                new PremiumRequest(15000, "SUV", "99999")));
+
+        assertEquals(4, results.size());
+        assertEquals(198.0, results.get(0).getCalculatedPremium(), 1e-6);
+        assertNull(results.get(0).getError());
+        assertEquals("Invalid vehicle type: BOAT", results.get(1).getError());
+        assertEquals("Invalid yearly mileage: 99999", results.get(2).getError());
+        assertEquals("Invalid postcode or region: 99999", results.get(3).getError());
+        verifyNoInteractions(batchFactorResolver);
+    }
+
+    @Test
+    void calculateBatch_auditsEveryItem() {
+        when(tariffSnapshotHolder.current()).thenReturn(new TariffSnapshot(
+                Map.of("SUV", 1.5),
+                PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1)),
+                MileageBandIndex.of(List.of(new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)))));
+        PremiumRequest valid = new PremiumRequest(15000, "SUV", "12345");
+        PremiumRequest invalid = new PremiumRequest(15000, "BOAT", "12345");
+
+        service.calculatePremiums(List.of(valid, invalid));
+
+        verify(quoteAuditJournal).append(eq(valid), eq(PremiumMetrics.Source.SNAPSHOT),
+                eq(QuoteAuditRecord.Status.OK), eq(1.2), eq(1.5), eq(1.1), eq(198.0, 1e-6));
+        verify(quoteAuditJournal).append(eq(invalid), eq(PremiumMetrics.Source.SNAPSHOT),
+                eq(QuoteAuditRecord.Status.INVALID_VEHICLE_TYPE), eq(1.2),
+                org.mockito.ArgumentMatchers.doubleThat(factor -> Double.isNaN(factor)), eq(1.1),
+                org.mockito.ArgumentMatchers.doubleThat(premium -> Double.isNaN(premium)));
+        assertEquals(1.0, meterRegistry.get("premium.validation.failures").tag("reason", "vehicle_type").counter().count(), 1e-9);
+    }
+
+    @Test
+    void calculateBatch_resolvedOnceFromDatabase() {
+        List<PremiumRequest> requests = List.of(
+                new PremiumRequest(15000, "SUV", "12345"),
+                new PremiumRequest(15000, "SUV", "12345"));
+        when(batchFactorResolver.resolve(requests)).thenReturn(new TariffSnapshot(
+                Map.of("SUV", 1.5),
+                PostcodeRegionIndex.of(Map.of("12345", "Bayern"), Map.of("Bayern", 1.1)),
+                MileageBandIndex.of(List.of(new MileageBandIndex.Band(BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)))));
+
+        List<PremiumBatchResult> results = service.calculatePremiums(requests);
+
+        assertEquals(198.0, results.get(0).getCalculatedPremium(), 1e-6);
+        assertEquals(198.0, results.get(1).getCalculatedPremium(), 1e-6);
+        org.mockito.Mockito.verify(batchFactorResolver).resolve(requests);
+        verifyNoInteractions(postCodeRepository, regionRepository, yearlyMileageRepository);
+    }
+
+    @Test
+    void calculate_singleQuery() {
+        mockFactors(15000, "SUV", "12345", 1.2, 1.5, 1.1);
+
+        service.calculatePremium(new PremiumRequest(15000, "SUV", "12345"));
+
+        verify(postCodeRepository).findPremiumFactors(BigDecimal.valueOf(15000), "SUV", "12345");
+        org.mockito.Mockito.verifyNoMoreInteractions(postCodeRepository);
+        verifyNoInteractions(regionRepository, yearlyMileageRepository);
+    }
+
+    @Test
+    void metrics_databaseQuote() {
+        mockFactors(15000, "SUV", "12345", 1.2, 1.5, 1.1);
+
+        service.calculatePremium(new PremiumRequest(15000, "SUV", "12345"));
+
+        assertEquals(1, meterRegistry.get("premium.quotes").tag("source", "database").timer().count());
+        assertEquals(1, meterRegistry.get("premium.calculation.stage").tag("stage", "database_lookup").timer().count());
+        assertEquals(1.0, meterRegistry.get("premium.db.queries").counter().count(), 1e-9);
+    }
+
+    @Test
+    void metrics_cacheHitWithoutDatabaseQuery() {
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        QuoteCache.Key key = new QuoteCache.Key("SUV", "12345", 1, 0);
+        when(quoteCache.keyOf(request)).thenReturn(key);
+        when(quoteCache.get(key)).thenReturn(new QuoteCache.CachedQuote(198.0, 1.2, 1.5, 1.1));
+
+        service.calculatePremium(request);
+
+        assertEquals(1, meterRegistry.get("premium.quotes").tag("source", "quote_cache").timer().count());
+        assertEquals(0, meterRegistry.get("premium.quotes").tag("source", "database").timer().count());
+        assertEquals(0.0, meterRegistry.get("premium.db.queries").counter().count(), 1e-9);
+    }
+
+    @Test
+    void calculate_concurrentCacheMisses_shareOneDatabaseQuery() throws Exception {
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        QuoteCache.Key key = new QuoteCache.Key("SUV", "12345", 1, 0);
+        when(quoteCache.keyOf(request)).thenReturn(key);
+        when(quoteCache.get(key)).thenReturn(null);
+        PremiumFactors factors = factors(1.2, 1.5, 1.1);
+        when(postCodeRepository.findPremiumFactors(BigDecimal.valueOf(15000), "SUV", "12345")).thenAnswer(invocation -> {
+            // Holds the query until the other three requests wait for it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleFlight.waitersOf(key) < 3 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return factors;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PremiumResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(executor.submit(() -> service.calculatePremium(request)));
+            }
+            for (Future<PremiumResponse> response : responses) {
+                assertEquals(198.0, response.get(5, TimeUnit.SECONDS).getCalculatedPremium(), 1e-6);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(postCodeRepository).findPremiumFactors(BigDecimal.valueOf(15000), "SUV", "12345");
+        assertEquals(1.0, meterRegistry.get("premium.db.queries").counter().count(), 1e-9);
+        assertEquals(3.0, meterRegistry.get("premium.singleflight.waiters").summary().totalAmount(), 1e-9);
+        assertEquals(4, meterRegistry.get("premium.quotes").tag("source", "database").timer().count());
+    }
+
+    @Test
+    void calculate_microBatching_readsFactorsFromBatch() {
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+        when(factorBatcher.isEnabled()).thenReturn(true);
+        when(factorBatcher.factorsOf(request, premiumMetrics)).thenReturn(factors(1.2, 1.5, 1.1));
+
+        PremiumResponse response = service.calculatePremium(request);
+
+        assertEquals(198.0, response.getCalculatedPremium(), 1e-6);
+        verifyNoInteractions(postCodeRepository);
+    }
+
+    @Test
+    void calculate_logsOneSummaryLine() {
+        mockFactors(15000, "SUV", "12345", 1.2, 1.5, 1.1);
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+
+        service.calculatePremium(request);
+
+        verify(quoteLogger).logQuote(eq(request), eq(PremiumMetrics.Source.DATABASE), eq(198.0, 1e-6),
+                org.mockito.ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    void calculate_auditsQuoteWithFactors() {
+        mockFactors(15000, "SUV", "12345", 1.2, 1.5, 1.1);
+        PremiumRequest request = new PremiumRequest(15000, "SUV", "12345");
+
+        service.calculatePremium(request);
+
+        verify(quoteAuditJournal).append(eq(request), eq(PremiumMetrics.Source.DATABASE),
+                eq(QuoteAuditRecord.Status.OK), eq(1.2), eq(1.5), eq(1.1), eq(198.0, 1e-6));
+    }
+
+    @Test
+    void region_invalid_isAudited() {
+        mockFactors(12000, "SEDAN", "99999", 1.1, 1.0, null);
+        PremiumRequest request = new PremiumRequest(12000, "SEDAN", "99999");
+
+        assertThrows(IllegalArgumentException.class, () -> service.calculatePremium(request));
+
+        verify(quoteAuditJournal).append(eq(request), eq(PremiumMetrics.Source.DATABASE),
+                eq(QuoteAuditRecord.Status.INVALID_POSTCODE), eq(1.1), eq(1.0),
+                org.mockito.ArgumentMatchers.doubleThat(factor -> Double.isNaN(factor)),
+                org.mockito.ArgumentMatchers.doubleThat(premium -> Double.isNaN(premium)));
+    }
+
+    @Test
+    void region_invalid_throwsStacklessExceptionWithStatus() {
+        mockFactors(12000, "SEDAN", "99999", 1.1, 1.0, null);
+
+        InvalidQuoteException ex = assertThrows(InvalidQuoteException.class,
+                () -> service.calculatePremium(new PremiumRequest(12000, "SEDAN", "99999")));
+
+        assertEquals(RatingEngine.Status.INVALID_POSTCODE, ex.getStatus());
+        assertEquals("Invalid postcode or region: 99999", ex.getMessage());
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
+    @Test
+    void metrics_validationFailureByReason() {
+        mockFactors(10000, "UNKNOWN", "12345", 1.0, null, 1.1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.calculatePremium(new PremiumRequest(10000, "UNKNOWN", "12345")));
+
+        assertEquals(1.0, meterRegistry.get("premium.validation.failures").tag("reason", "vehicle_type").counter().count(), 1e-9);
+        assertEquals(0.0, meterRegistry.get("premium.validation.failures").tag("reason", "postcode").counter().count(), 1e-9);
+        assertEquals(0, meterRegistry.get("premium.quotes").tag("source", "database").timer().count());
+    }
+
+    private void mockFactors(int mileage, String vehicleType, String postcode,
+                             Double mileageFactor, Double vehicleFactor, Double regionFactor) {
+        when(postCodeRepository.findPremiumFactors(eq(BigDecimal.valueOf(mileage)), eq(vehicleType), eq(postcode)))
+                .thenReturn(factors(mileageFactor, vehicleFactor, regionFactor));
+    }
+
+    private static PremiumFactors factors(Double mileageFactor, Double vehicleFactor, Double regionFactor) {
+        return new PremiumFactors() {
+            @Override
+            public Double getYearlyMileageFactor() {
+                return mileageFactor;
+            }
+
+            @Override
+            public Double getVehicleFactor() {
+                return vehicleFactor;
+            }
+
+            @Override
+            public Double getRegionFactor() {
+                return regionFactor;
+            }
+        };
+    }
+
+    private void mockMileageFactor(int mileage, double factor) {
+        YearlyMileage spyYm = org.mockito.Mockito.spy(new YearlyMileage());
+        org.mockito.Mockito.doReturn(factor).when(spyYm).getYearlyMileageFactor();
+        when(yearlyMileageRepository.findByYearlyMileageRange(eq(BigDecimal.valueOf(mileage))))
+                .thenReturn(Optional.of(spyYm));
+    }
+}
@@ -0,0 +1,123 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_service.model.PremiumBatchResult;
+import com.insurance.premium_service.model.PremiumRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PremiumStreamServiceTest {
+
+    @Mock
+    private PremiumCalculationService calculationService;
+
+    private PremiumStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PremiumStreamService(calculationService, Jackson2ObjectMapperBuilder.json().build(), 2, 2, 100);
+        when(calculationService.calculatePremiums(anyList())).thenAnswer(invocation -> {
+            List<PremiumRequest> requests = invocation.getArgument(0);
+            List<PremiumBatchResult> results = new ArrayList<>();
+            for (PremiumRequest request : requests) {
+                results.add(request != null
+                        ? PremiumBatchResult.success(request.getYearlyMileage())
+                        : PremiumBatchResult.failure("Missing request"));
+            }
+            return results;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void calculate_resultsInInputOrder() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 25; i++) {
+            input.append("{\"yearlyMileage\":").append(i).append(",\"vehicleType\":\"SUV\",\"postcode\":\"12345\"}\n");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = service.calculate(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(25, count);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(25, lines.length);
+        for (int i = 1; i <= 25; i++) {
+            assertEquals("{\"calculatedPremium\":" + (double) i + "}", lines[i - 1]);
+        }
+        verify(calculationService, times(13)).calculatePremiums(anyList());
+    }
+
+    @Test
+    void calculate_malformedLineAndBlankLines() throws Exception {
+        String input = "{\"yearlyMileage\":1,\"vehicleType\":\"SUV\",\"postcode\":\"12345\"}\n"
+                + "\n"
+                + "{not json\n"
+                + "{\"yearlyMileage\":3,\"vehicleType\":\"SUV\",\"postcode\":\"12345\"}";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = service.calculate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(3, count);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"calculatedPremium\":1.0}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"error\":\"Malformed request"));
+        assertEquals("{\"calculatedPremium\":3.0}", lines[2]);
+    }
+
+    @Test
+    void calculate_tooLongLine_isSkippedWithError() throws Exception {
+        String input = "{\"yearlyMileage\":1,\"vehicleType\":\"SUV\",\"postcode\":\"12345\"}\r\n"
+                + "{\"vehicleType\":\"" + "X".repeat(10_000) + "\"}\n"
+                + "{\"yearlyMileage\":3,\"vehicleType\":\"SUV\",\"postcode\":\"12345\"}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = service.calculate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(3, count);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"calculatedPremium\":1.0}", lines[0]);
+        assertEquals("{\"error\":\"Request line longer than 100 characters\"}", lines[1]);
+        assertEquals("{\"calculatedPremium\":3.0}", lines[2]);
+    }
+
+    @Test
+    void calculate_tooLongLastLineWithoutLineBreak_isSkippedWithError() throws Exception {
+        // 101 characters, one more than allowed, at the end of the stream
+        String tooLong = "{\"vehicleType\":\"" + "X".repeat(83) + "\"}";
+        String input = "{\"yearlyMileage\":1,\"vehicleType\":\"SUV\",\"postcode\":\"12345\"}\n" + tooLong;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = service.calculate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals(101, tooLong.length());
+        assertEquals(2, count);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"calculatedPremium\":1.0}", lines[0]);
+        assertEquals("{\"error\":\"Request line longer than 100 characters\"}", lines[1]);
+    }
+}
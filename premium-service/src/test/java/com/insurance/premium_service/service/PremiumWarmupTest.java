@@ -0,0 +1,124 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_service.entity.Vehicle;
+import com.insurance.premium_service.entity.YearlyMileage;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.repository.PostCodeRepository;
+import com.insurance.premium_service.repository.PostcodeRegion;
+import com.insurance.premium_service.repository.VehicleRepository;
+import com.insurance.premium_service.repository.YearlyMileageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PremiumWarmupTest {
+
+    @Mock
+    private PremiumCalculationService premiumCalculationService;
+    @Mock
+    private PremiumCalculationService warmupService;
+    @Mock
+    private PostCodeRepository postcodeRepository;
+    @Mock
+    private VehicleRepository vehicleRepository;
+    @Mock
+    private YearlyMileageRepository yearlyMileageRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(premiumCalculationService.withSinks(any(), any(), any())).thenReturn(warmupService);
+    }
+
+    @Test
+    void run_quotesValidRequestsThroughCopyWithinBudget() {
+        mockReferenceData();
+        when(warmupService.calculatePremium(any())).thenReturn(new PremiumResponse(1237.5));
+
+        PremiumWarmup warmup = warmup(true, Duration.ofSeconds(2));
+        warmup.run(new DefaultApplicationArguments());
+
+        assertTrue(warmup.getQuotes() > 0);
+        assertTrue(warmup.getDuration().toMillis() < 2000 + 2 * PremiumWarmup.ROUND_MILLIS, warmup.getDuration().toString());
+        assertEquals(warmup.getQuotes(), meterRegistry.get("premium.warmup.quotes").gauge().value(), 0.0);
+        assertEquals(warmup.getDuration().toNanos(),
+                meterRegistry.get("premium.warmup.duration").timeGauge().value(TimeUnit.NANOSECONDS), 1.0);
+
+        ArgumentCaptor<PremiumRequest> requests = ArgumentCaptor.forClass(PremiumRequest.class);
+        verify(warmupService, atLeastOnce()).calculatePremium(requests.capture());
+        for (PremiumRequest request : requests.getAllValues().subList(0, 100)) {
+            assertEquals("SUV", request.getVehicleType());
+            assertEquals("12345", request.getPostcode());
+            assertTrue(request.getYearlyMileage() >= 10000 && request.getYearlyMileage() <= 20000);
+        }
+        verify(premiumCalculationService, never()).calculatePremium(any());
+    }
+
+    @Test
+    void run_disabled_doesNothing() {
+        PremiumWarmup warmup = warmup(false, Duration.ofSeconds(10));
+        warmup.run(new DefaultApplicationArguments());
+
+        assertEquals(0, warmup.getQuotes());
+        verifyNoInteractions(vehicleRepository, yearlyMileageRepository, postcodeRepository, warmupService);
+    }
+
+    @Test
+    void run_noReferenceData_isSkipped() {
+        when(vehicleRepository.findAll()).thenReturn(List.of());
+        when(yearlyMileageRepository.findAll()).thenReturn(List.of());
+        when(postcodeRepository.findPostcodeRegions(any())).thenReturn(List.of());
+
+        PremiumWarmup warmup = warmup(true, Duration.ofSeconds(10));
+        warmup.run(new DefaultApplicationArguments());
+
+        assertEquals(0, warmup.getQuotes());
+        verifyNoInteractions(warmupService);
+    }
+
+    @Test
+    void run_failure_doesNotPreventStartup() {
+        mockReferenceData();
+        when(warmupService.calculatePremium(any())).thenThrow(new IllegalArgumentException("Invalid postcode or region"));
+
+        PremiumWarmup warmup = warmup(true, Duration.ofSeconds(10));
+        assertDoesNotThrow(() -> warmup.run(new DefaultApplicationArguments()));
+
+        verify(warmupService, times(1)).calculatePremium(any());
+    }
+
+    private PremiumWarmup warmup(boolean enabled, Duration budget) {
+        return new PremiumWarmup(premiumCalculationService, postcodeRepository, vehicleRepository,
+                yearlyMileageRepository, Jackson2ObjectMapperBuilder.json().build(), meterRegistry, enabled, budget);
+    }
+
+    private void mockReferenceData() {
+        Vehicle vehicle = mock(Vehicle.class);
+        when(vehicle.getVehicleType()).thenReturn("SUV");
+        YearlyMileage mileage = mock(YearlyMileage.class);
+        when(mileage.getYearlyMileageFrom()).thenReturn(BigDecimal.valueOf(10000));
+        when(mileage.getYearlyMileageTo()).thenReturn(BigDecimal.valueOf(20000));
+
+        when(vehicleRepository.findAll()).thenReturn(List.of(vehicle));
+        when(yearlyMileageRepository.findAll()).thenReturn(List.of(mileage));
+        when(postcodeRepository.findPostcodeRegions(any())).thenReturn(List.of(new PostcodeRegion("12345", "Berlin")));
+    }
+}
@@ -0,0 +1,172 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.tariff.TariffChangedEvent;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import com.insurance.premium_service.tariff.TariffSnapshotLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteCacheTest {
+
+    @Mock
+    private TariffSnapshotHolder tariffSnapshotHolder;
+    @Mock
+    private TariffSnapshotLoader tariffSnapshotLoader;
+
+    private QuoteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new QuoteCache(tariffSnapshotHolder, tariffSnapshotLoader, true, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void keyOf_sameBandSharesEntry() {
+        mockBands();
+
+        QuoteCache.Key key = cache.keyOf(new PremiumRequest(12000, "SUV", "12345"));
+        cache.put(key, new QuoteCache.CachedQuote(750.0, 1.0, 1.5, 1.0));
+
+        QuoteCache.Key sameBand = cache.keyOf(new PremiumRequest(12500, "SUV", "12345"));
+        QuoteCache.Key otherBand = cache.keyOf(new PremiumRequest(25000, "SUV", "12345"));
+
+        assertEquals(key, sameBand);
+        assertEquals(750.0, cache.get(sameBand).premium(), 1e-9);
+        assertNull(cache.get(otherBand));
+
+        QuoteCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void keyOf_notCacheable() {
+        mockBands();
+
+        assertNull(cache.keyOf(new PremiumRequest(-1, "SUV", "12345")));
+        assertNull(cache.keyOf(new PremiumRequest(12000, null, "12345")));
+        assertNull(cache.keyOf(new PremiumRequest(12000, "SUV", null)));
+        assertNull(new QuoteCache(tariffSnapshotHolder, tariffSnapshotLoader, false, 100, Duration.ofMinutes(10))
+                .keyOf(new PremiumRequest(12000, "SUV", "12345")));
+    }
+
+    @Test
+    void tariffChanged_invalidatesAndReloadsBands() {
+        mockBands();
+
+        QuoteCache.Key oldKey = cache.keyOf(new PremiumRequest(12000, "SUV", "12345"));
+        cache.put(oldKey, new QuoteCache.CachedQuote(750.0, 1.0, 1.5, 1.0));
+
+        cache.onTariffChanged(new TariffChangedEvent("test"));
+
+        // a calculation still running with the old factors must not be cached
+        cache.put(oldKey, new QuoteCache.CachedQuote(750.0, 1.0, 1.5, 1.0));
+        QuoteCache.Key newKey = cache.keyOf(new PremiumRequest(12000, "SUV", "12345"));
+
+        assertNotEquals(oldKey, newKey);
+        assertNull(cache.get(oldKey));
+        assertNull(cache.get(newKey));
+        verify(tariffSnapshotLoader, times(2)).loadMileageBands();
+    }
+
+    @Test
+    void bandsExpired_sameBounds_keepsKeys() throws InterruptedException {
+        cache = new QuoteCache(tariffSnapshotHolder, tariffSnapshotLoader, true, 100, Duration.ofMillis(1));
+        mockBands();
+
+        QuoteCache.Key key = cache.keyOf(new PremiumRequest(12000, "SUV", "12345"));
+        Thread.sleep(5);
+        QuoteCache.Key reloaded = cache.keyOf(new PremiumRequest(12000, "SUV", "12345"));
+
+        assertEquals(key, reloaded);
+        verify(tariffSnapshotLoader, times(2)).loadMileageBands();
+    }
+
+    @Test
+    void bandsExpired_otherBounds_startsNewGeneration() throws InterruptedException {
+        cache = new QuoteCache(tariffSnapshotHolder, tariffSnapshotLoader, true, 100, Duration.ofMillis(1));
+        when(tariffSnapshotLoader.loadMileageBands()).thenReturn(
+                MileageBandIndex.of(List.of(
+                        new MileageBandIndex.Band(new BigDecimal("0"), new BigDecimal("10000"), 0.5),
+                        new MileageBandIndex.Band(new BigDecimal("10001"), new BigDecimal("20000"), 1.0))),
+                MileageBandIndex.of(List.of(
+                        new MileageBandIndex.Band(new BigDecimal("0"), new BigDecimal("5000"), 0.5),
+                        new MileageBandIndex.Band(new BigDecimal("5001"), new BigDecimal("20000"), 1.0))));
+
+        QuoteCache.Key key = cache.keyOf(new PremiumRequest(8000, "SUV", "12345"));
+        Thread.sleep(5);
+        QuoteCache.Key reloaded = cache.keyOf(new PremiumRequest(8000, "SUV", "12345"));
+
+        // same band position, but of other bands
+        assertEquals(key.mileageBand() + 1, reloaded.mileageBand());
+        assertNotEquals(key.generation(), reloaded.generation());
+        cache.put(key, new QuoteCache.CachedQuote(750.0, 1.0, 1.5, 1.0));
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void bandsNotLoadable_notCachedAndNotRetriedPerRequest() {
+        when(tariffSnapshotLoader.loadMileageBands()).thenThrow(new IllegalStateException("database down"));
+
+        assertNull(cache.keyOf(new PremiumRequest(12000, "SUV", "12345")));
+        assertNull(cache.keyOf(new PremiumRequest(12500, "SUV", "12345")));
+
+        verify(tariffSnapshotLoader, times(1)).loadMileageBands();
+    }
+
+    @Test
+    void bandsLoading_otherRequestsDoNotWait() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tariffSnapshotLoader.loadMileageBands()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return MileageBandIndex.of(List.of(
+                    new MileageBandIndex.Band(new BigDecimal("0"), new BigDecimal("20000"), 1.0)));
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<QuoteCache.Key> loader = executor.submit(() -> cache.keyOf(new PremiumRequest(12000, "SUV", "12345")));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // not cacheable while the first load runs, instead of waiting for it
+            assertNull(cache.keyOf(new PremiumRequest(12000, "SUV", "12345")));
+
+            release.countDown();
+            assertNotNull(loader.get(5, TimeUnit.SECONDS));
+            assertNotNull(cache.keyOf(new PremiumRequest(12000, "SUV", "12345")));
+            verify(tariffSnapshotLoader, times(1)).loadMileageBands();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void mockBands() {
+        when(tariffSnapshotLoader.loadMileageBands()).thenReturn(MileageBandIndex.of(List.of(
+                new MileageBandIndex.Band(new BigDecimal("0"), new BigDecimal("10000"), 0.5),
+                new MileageBandIndex.Band(new BigDecimal("10001"), new BigDecimal("20000"), 1.0),
+                new MileageBandIndex.Band(new BigDecimal("20001"), new BigDecimal("100000000"), 1.5))));
+    }
+}
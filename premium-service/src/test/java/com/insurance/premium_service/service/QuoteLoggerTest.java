@@ -0,0 +1,58 @@
+package com.insurance.premium_service.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.insurance.premium_service.model.PremiumRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("com.insurance.premium_service.quote");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void logQuote_allSampled() {
+        QuoteLogger quoteLogger = new QuoteLogger(1.0);
+
+        quoteLogger.logQuote(new PremiumRequest(15000, "SUV", "12345"),
+                PremiumMetrics.Source.QUOTE_CACHE, 1237.5, 42_000);
+
+        assertEquals(1, appender.list.size());
+        assertEquals("quote source=quote_cache vehicleType=SUV yearlyMileage=15000 postcode=12345 premium=1237.5 micros=42",
+                appender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    void logQuote_noneSampled() {
+        QuoteLogger quoteLogger = new QuoteLogger(0.0);
+
+        for (int i = 0; i < 100; i++) {
+            quoteLogger.logQuote(new PremiumRequest(15000, "SUV", "12345"),
+                    PremiumMetrics.Source.DATABASE, 1237.5, 1_000);
+        }
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void sampleRate_outOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new QuoteLogger(1.5));
+    }
+}
@@ -0,0 +1,156 @@
+package com.insurance.premium_service.service;
+
+import com.insurance.premium_core.RatingEngine;
+import com.insurance.premium_service.audit.QuoteAuditJournal;
+import com.insurance.premium_service.audit.QuoteAuditRecord;
+import com.insurance.premium_service.entity.reactive.PostCodeRecord;
+import com.insurance.premium_service.entity.reactive.RegionRecord;
+import com.insurance.premium_service.entity.reactive.VehicleRecord;
+import com.insurance.premium_service.entity.reactive.YearlyMileageRecord;
+import com.insurance.premium_service.model.PremiumRequest;
+import com.insurance.premium_service.model.PremiumResponse;
+import com.insurance.premium_service.repository.reactive.ReactivePostCodeRepository;
+import com.insurance.premium_service.repository.reactive.ReactiveRegionRepository;
+import com.insurance.premium_service.repository.reactive.ReactiveVehicleRepository;
+import com.insurance.premium_service.repository.reactive.ReactiveYearlyMileageRepository;
+import com.insurance.premium_service.tariff.TariffSnapshotHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePremiumCalculationServiceTest {
+
+    @Mock
+    private ReactivePostCodeRepository postCodeRepository;
+    @Mock
+    private ReactiveRegionRepository regionRepository;
+    @Mock
+    private ReactiveYearlyMileageRepository yearlyMileageRepository;
+    @Mock
+    private ReactiveVehicleRepository vehicleRepository;
+    @Mock
+    private TariffSnapshotHolder tariffSnapshotHolder;
+    @Mock
+    private QuoteLogger quoteLogger;
+    @Mock
+    private PremiumMetrics premiumMetrics;
+    @Mock
+    private QuoteAuditJournal quoteAuditJournal;
+
+    @InjectMocks
+    private ReactivePremiumCalculationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field baseRateField = ReactivePremiumCalculationService.class.getDeclaredField("baseRate");
+        baseRateField.setAccessible(true);
+        baseRateField.set(service, 100.0d);
+    }
+
+    @Test
+    void calculate_ok() {
+        when(yearlyMileageRepository.findByYearlyMileageRange(eq(BigDecimal.valueOf(15000))))
+                .thenReturn(Mono.just(new YearlyMileageRecord(1L, BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)));
+        when(vehicleRepository.findByVehicleType("SUV")).thenReturn(Mono.just(new VehicleRecord(1L, "SUV", 1.5)));
+        when(postCodeRepository.findByPostcode("12345")).thenReturn(Mono.just(new PostCodeRecord(1L, "12345", 7L)));
+        when(regionRepository.findById(7L)).thenReturn(Mono.just(new RegionRecord(7L, "Bayern", 1.1)));
+
+        PremiumResponse response = service.calculatePremium(new PremiumRequest(15000, "SUV", "12345")).block();
+
+        assertNotNull(response);
+        assertEquals(198.0, response.getCalculatedPremium(), 1e-6);
+        verify(premiumMetrics).recordStage(eq(PremiumMetrics.Stage.DATABASE_LOOKUP), anyLong());
+        verify(premiumMetrics).recordQuote(eq(PremiumMetrics.Source.DATABASE), anyLong());
+        verify(quoteLogger).logQuote(any(PremiumRequest.class), eq(PremiumMetrics.Source.DATABASE),
+                eq(response.getCalculatedPremium()), anyLong());
+        verify(quoteAuditJournal).offer(any(PremiumRequest.class), eq(PremiumMetrics.Source.DATABASE),
+                eq(QuoteAuditRecord.Status.OK), eq(1.2), eq(1.5), eq(1.1), eq(response.getCalculatedPremium()));
+        verifyNoMoreInteractions(quoteAuditJournal);
+    }
+
+    @Test
+    void lookups_subscribedConcurrently() {
+        AtomicInteger pending = new AtomicInteger();
+        // Each lookup only completes once all three have been subscribed.
+        when(yearlyMileageRepository.findByYearlyMileageRange(any(BigDecimal.class)))
+                .thenReturn(awaitAll(pending, new YearlyMileageRecord(1L, BigDecimal.ZERO, BigDecimal.TEN, 1.0)));
+        when(vehicleRepository.findByVehicleType("SUV")).thenReturn(awaitAll(pending, new VehicleRecord(1L, "SUV", 1.0)));
+        when(postCodeRepository.findByPostcode("12345")).thenReturn(awaitAll(pending, new PostCodeRecord(1L, "12345", 7L)));
+        when(regionRepository.findById(7L)).thenReturn(Mono.just(new RegionRecord(7L, "Bayern", 1.0)));
+
+        PremiumResponse response = service.calculatePremium(new PremiumRequest(5, "SUV", "12345"))
+                .block(java.time.Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(100.0, response.getCalculatedPremium(), 1e-6);
+    }
+
+    @Test
+    void vehicle_invalid() {
+        when(yearlyMileageRepository.findByYearlyMileageRange(any(BigDecimal.class)))
+                .thenReturn(Mono.just(new YearlyMileageRecord(1L, BigDecimal.ZERO, BigDecimal.valueOf(20000), 1.2)));
+        when(vehicleRepository.findByVehicleType("UNKNOWN")).thenReturn(Mono.empty());
+        when(postCodeRepository.findByPostcode("12345")).thenReturn(Mono.just(new PostCodeRecord(1L, "12345", 7L)));
+        when(regionRepository.findById(7L)).thenReturn(Mono.just(new RegionRecord(7L, "Bayern", 1.1)));
+
+        Mono<PremiumResponse> result = service.calculatePremium(new PremiumRequest(15000, "UNKNOWN", "12345"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, result::block);
+        assertTrue(ex.getMessage().contains("Invalid vehicle type"));
+    }
+
+    @Test
+    void severalInvalid_reportsMileageFirst_whicheverLookupCompletesFirst() {
+        // The mileage lookup completes last, the vehicle type and postcode are invalid as well
+        when(yearlyMileageRepository.findByYearlyMileageRange(any(BigDecimal.class)))
+                .thenReturn(Mono.<YearlyMileageRecord>empty().delaySubscription(java.time.Duration.ofMillis(50)));
+        when(vehicleRepository.findByVehicleType("UNKNOWN")).thenReturn(Mono.empty());
+        when(postCodeRepository.findByPostcode("99999")).thenReturn(Mono.empty());
+
+        Mono<PremiumResponse> result = service.calculatePremium(new PremiumRequest(99999, "UNKNOWN", "99999"));
+
+        InvalidQuoteException ex = assertThrows(InvalidQuoteException.class, result::block);
+        assertEquals(RatingEngine.Status.INVALID_YEARLY_MILEAGE, ex.getStatus());
+        assertEquals("Invalid yearly mileage: 99999", ex.getMessage());
+        verify(premiumMetrics).recordValidationFailure(PremiumMetrics.ValidationFailure.YEARLY_MILEAGE);
+        verify(premiumMetrics).recordStage(eq(PremiumMetrics.Stage.DATABASE_LOOKUP), anyLong());
+        verify(premiumMetrics, never()).recordQuote(any(), anyLong());
+        verify(quoteAuditJournal).offer(any(PremiumRequest.class), eq(PremiumMetrics.Source.DATABASE),
+                eq(QuoteAuditRecord.Status.INVALID_YEARLY_MILEAGE), eq(Double.NaN), eq(Double.NaN), eq(Double.NaN),
+                eq(Double.NaN));
+    }
+
+    private static <T> Mono<T> awaitAll(AtomicInteger pending, T value) {
+        return Mono.defer(() -> {
+            pending.incrementAndGet();
+            return Mono.fromCallable(() -> {
+                long deadline = System.nanoTime() + 2_000_000_000L;
+                while (pending.get() < 3 && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                if (pending.get() < 3) {
+                    throw new IllegalStateException("Lookups were not subscribed concurrently");
+                }
+                return value;
+            }).subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic());
+        });
+    }
+}
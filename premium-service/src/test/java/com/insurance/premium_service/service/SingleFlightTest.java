@@ -0,0 +1,120 @@
+package com.insurance.premium_service.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PremiumMetrics premiumMetrics = new PremiumMetrics(meterRegistry);
+    private final SingleFlight singleFlight = new SingleFlight(true, meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallers_shareOneLookup() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        List<Future<String>> results = callConcurrently("SUV|12345|1", () -> {
+            lookups.incrementAndGet();
+            return "factors";
+        });
+
+        for (Future<String> result : results) {
+            assertEquals("factors", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, lookups.get());
+        DistributionSummary waiters = meterRegistry.get("premium.singleflight.waiters").summary();
+        assertEquals(1, waiters.count());
+        assertEquals(CALLERS - 1, waiters.totalAmount(), 0.0);
+        assertEquals(0, singleFlight.getInFlight());
+        assertEquals(0.0, meterRegistry.get("premium.singleflight.in-flight").gauge().value(), 0.0);
+    }
+
+    @Test
+    void failedLookup_isRethrownToAllWaiters() throws Exception {
+        IllegalStateException failure = new IllegalStateException("connection refused");
+        List<Future<String>> results = callConcurrently("SUV|12345|1", () -> {
+            throw failure;
+        });
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void sequentialCalls_runLookupEachTime() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        singleFlight.execute("key", lookups::incrementAndGet, premiumMetrics);
+        singleFlight.execute("key", lookups::incrementAndGet, premiumMetrics);
+
+        assertEquals(2, lookups.get());
+        assertEquals(0.0, meterRegistry.get("premium.singleflight.waiters").summary().totalAmount(), 0.0);
+    }
+
+    @Test
+    void differentKeys_doNotWaitForEachOther() {
+        String outer = singleFlight.execute("a",
+                () -> singleFlight.execute("b", () -> "b", premiumMetrics) + "a", premiumMetrics);
+
+        assertEquals("ba", outer);
+    }
+
+    @Test
+    void disabled_runsEveryLookup() {
+        SingleFlight disabled = new SingleFlight(false, new SimpleMeterRegistry());
+        AtomicInteger lookups = new AtomicInteger();
+
+        disabled.execute("key", lookups::incrementAndGet, premiumMetrics);
+
+        assertEquals(1, lookups.get());
+        assertEquals(0, meterRegistry.get("premium.singleflight.waiters").summary().count());
+    }
+
+    /**
+     * Starts the first caller, whose lookup only returns once all other callers
+     * wait for it.
+     */
+    private List<Future<String>> callConcurrently(String key, Supplier<String> lookup) throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute(key, () -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (singleFlight.waitersOf(key) < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return lookup.get();
+        }, premiumMetrics)));
+        while (singleFlight.getInFlight() == 0) {
+            Thread.onSpinWait();
+        }
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(key, () -> {
+                throw new AssertionError("second lookup");
+            }, premiumMetrics)));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,66 @@
+package com.insurance.premium_service.tariff;
+
+import com.insurance.premium_service.repository.TariffVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TariffChangeListenerTest {
+
+    @Mock
+    private TariffSnapshotHolder tariffSnapshotHolder;
+    @Mock
+    private TariffVersionRepository tariffVersionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void checkVersion_newVersion_reloadsAndPublishes() {
+        when(tariffVersionRepository.findCurrentVersion()).thenReturn(2L);
+        when(tariffSnapshotHolder.isEnabled()).thenReturn(true);
+        TariffChangeListener listener = listener();
+
+        listener.checkVersion(false);
+        listener.checkVersion(false);
+
+        verify(tariffSnapshotHolder, times(1)).reload();
+        verify(eventPublisher, times(1)).publishEvent(any(TariffChangedEvent.class));
+        assertEquals(2L, listener.getCurrentVersion());
+    }
+
+    @Test
+    void checkVersion_failedReload_retriedByNextCheck() {
+        when(tariffVersionRepository.findCurrentVersion()).thenReturn(2L);
+        when(tariffSnapshotHolder.isEnabled()).thenReturn(true);
+        when(tariffSnapshotHolder.reload())
+                .thenThrow(new IllegalStateException("Overlapping yearly mileage bands"))
+                .thenReturn(null);
+        TariffChangeListener listener = listener();
+
+        listener.checkVersion(false);
+        assertNull(listener.getCurrentVersion());
+        verify(eventPublisher, never()).publishEvent(any(TariffChangedEvent.class));
+
+        listener.checkVersion(false);
+        verify(tariffSnapshotHolder, times(2)).reload();
+        verify(eventPublisher).publishEvent(any(TariffChangedEvent.class));
+        assertEquals(2L, listener.getCurrentVersion());
+    }
+
+    private TariffChangeListener listener() {
+        return new TariffChangeListener(tariffSnapshotHolder, tariffVersionRepository, null, eventPublisher,
+                true, false, Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,70 @@
+package com.insurance.premium_service.tariff;
+
+import com.insurance.premium_core.MileageBandIndex;
+import com.insurance.premium_core.PostcodeRegionIndex;
+import com.insurance.premium_core.TariffSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TariffSnapshotHolderTest {
+
+    @Mock
+    private TariffSnapshotLoader loader;
+
+    @Test
+    void reload_swapsSnapshot() {
+        TariffSnapshot first = snapshot(1);
+        TariffSnapshot second = snapshot(2);
+        when(loader.load()).thenReturn(first, second);
+        TariffSnapshotHolder holder = new TariffSnapshotHolder(loader, true);
+
+        holder.init();
+        assertSame(first, holder.current());
+
+        holder.reload();
+        assertSame(second, holder.current());
+
+        TariffSnapshotHolder.Status status = holder.getStatus();
+        assertTrue(status.enabled());
+        assertEquals(2, status.version());
+        assertEquals(2, status.reloadCount());
+        assertNotNull(status.loadedAt());
+    }
+
+    @Test
+    void reload_failureKeepsActiveSnapshot() {
+        TariffSnapshot first = snapshot(1);
+        when(loader.load())
+                .thenReturn(first)
+                .thenThrow(new IllegalStateException("Overlapping yearly mileage bands"));
+        TariffSnapshotHolder holder = new TariffSnapshotHolder(loader, true);
+        holder.init();
+
+        assertThrows(IllegalStateException.class, holder::reload);
+
+        assertSame(first, holder.current());
+        assertEquals(1, holder.getStatus().version());
+        assertEquals(1, holder.getStatus().reloadCount());
+    }
+
+    @Test
+    void disabled_noSnapshot() {
+        TariffSnapshotHolder holder = new TariffSnapshotHolder(loader, false);
+        holder.init();
+
+        assertNull(holder.current());
+        assertEquals(TariffSnapshot.UNKNOWN_VERSION, holder.getStatus().version());
+    }
+
+    private static TariffSnapshot snapshot(long version) {
+        return new TariffSnapshot(Map.of("SUV", 1.5), PostcodeRegionIndex.EMPTY, MileageBandIndex.EMPTY, version);
+    }
+}
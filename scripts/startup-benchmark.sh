@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-quote and memory of the premium service.
+#
+# Starts the service, sends POST /api/premium/calculate every 50 ms until the first
+# 200 response and reads the resident set size of the process at that moment
+# (VmRSS) and its peak (VmHWM). Repeats the start, prints every run and the median.
+#
+#   scripts/startup-benchmark.sh <jvm|jvm-aot|native> [runs] [-- service arguments]
+#
+#   jvm      java -jar target/premium-service-0.0.1-SNAPSHOT.jar   (mvn package)
+#   jvm-aot  the same jar with the AOT-generated context            (mvn -Pnative package)
+#   native   target/premium-service                                  (mvn -Pnative -pl premium-service native:compile)
+#
+# Paths are relative to the premium-service module. Environment: PORT (default 8082), JAVA_OPTS
+# for the JVM modes, OUT for the CSV file (default target/startup-<mode>.csv). The database of
+# application.properties must be running; the first quote includes loading the tariff snapshot.
+#
+# Author: Aylin Yilmaz
+
+set -euo pipefail
+
+MODE=${1:?usage: $0 <jvm|jvm-aot|native> [runs] [-- service arguments]}
+RUNS=${2:-5}
+shift $(( $# < 2 ? $# : 2 ))
+[[ ${1:-} == "--" ]] && shift
+
+cd "$(dirname "$0")/../premium-service"
+PORT=${PORT:-8082}
+JAR=target/premium-service-0.0.1-SNAPSHOT.jar
+OUT=${OUT:-target/startup-$MODE.csv}
+LOG=target/startup-$MODE.log
+
+case "$MODE" in
+    jvm)     CMD=(java ${JAVA_OPTS:-} -jar "$JAR") ;;
+    jvm-aot) CMD=(java ${JAVA_OPTS:-} -Dspring.aot.enabled=true -jar "$JAR") ;;
+    native)  CMD=(target/premium-service) ;;
+    *)       echo "Unknown mode $MODE" >&2; exit 2 ;;
+esac
+[[ -x ${CMD[0]} || $MODE != native ]] || { echo "target/premium-service missing, run mvn -Pnative -pl premium-service native:compile" >&2; exit 2; }
+[[ $MODE == native || -f $JAR ]] || { echo "$JAR missing, run mvn package" >&2; exit 2; }
+
+now_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+status_kb() { awk -v key="$2:" '$1 == key { print $2 }' "/proc/$1/status"; }
+
+echo "run,first_quote_ms,rss_mb,peak_rss_mb" > "$OUT"
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    "${CMD[@]}" --server.port="$PORT" "$@" > "$LOG" 2>&1 &
+    pid=$!
+
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' -X POST "localhost:$PORT/api/premium/calculate" \
+            -H 'Content-Type: application/json' \
+            -d '{"yearlyMileage":15000,"vehicleType":"SUV","postcode":"12345"}' || true) == 200 ]]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Service exited before the first quote, see $LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(status_kb "$pid" VmRSS)
+    peak=$(status_kb "$pid" VmHWM)
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$run,$elapsed,$(( rss / 1024 )),$(( peak / 1024 ))" >> "$OUT"
+    echo "run $run: first quote after $elapsed ms, RSS $(( rss / 1024 )) MB, peak $(( peak / 1024 )) MB"
+done
+
+median() { tail -n +2 "$OUT" | cut -d, -f"$1" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+echo "$MODE median of $RUNS runs: first quote after $(median 2) ms, RSS $(median 3) MB, peak $(median 4) MB ($OUT)"